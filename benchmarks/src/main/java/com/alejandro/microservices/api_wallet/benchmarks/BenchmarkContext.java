@@ -0,0 +1,56 @@
+package com.alejandro.microservices.api_wallet.benchmarks;
+
+import com.alejandro.microservices.api_wallet.ApiWalletApplication;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Arranca la aplicación completa sobre H2 en memoria para los benchmarks que
+ * necesitan beans reales (filtro JWT, blacklist, WalletService).
+ *
+ * El envío de correo se sustituye por un JavaMailSender que no hace nada:
+ * se mide la aplicación, no el servidor SMTP.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String database, String... properties) {
+        return new SpringApplicationBuilder(ApiWalletApplication.class, NoOpMailConfig.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class NoOpMailConfig {
+
+        @Bean
+        JavaMailSender javaMailSender() {
+            return new JavaMailSenderImpl() {
+                @Override
+                public void send(MimeMessage mimeMessage) {
+                }
+
+                @Override
+                public void send(MimeMessage... mimeMessages) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.alejandro.microservices.api_wallet.benchmarks;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carga de lecturas con miles de conexiones simultáneas contra un servidor ya
+ * arrancado: la aplicación MVC (puerto 8080) o la reactiva (perfil "reactive",
+ * puerto 8081). Cada conexión es un hilo virtual que repite el GET hasta el
+ * final de la medición, así que las conexiones abiertas son las indicadas.
+ *
+ * mvn -f benchmarks/pom.xml package exec:exec@http-read -Dhttp.args="url=http://localhost:8081 connections=10000"
+ *
+ * Opciones (clave=valor): url, path (/api/wallet/balance), connections (10000),
+ * warmup (10 s), duration (60 s), user (email con wallet; token firmado aquí).
+ * Con 10k conexiones hace falta subir el límite de descriptores (ulimit -n)
+ * en cliente y servidor.
+ */
+public final class HttpReadLoad {
+
+    // Muestras de latencia por conexión (reservoir sampling)
+    private static final int SAMPLES_PER_CONNECTION = 512;
+
+    private HttpReadLoad() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        String path = options.getOrDefault("path", "/api/wallet/balance");
+        int connections = Integer.parseInt(options.getOrDefault("connections", "10000"));
+        long warmupNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))).toNanos();
+        long durationNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))).toNanos();
+        String user = options.getOrDefault("user", "user");
+
+        String token = new JwtTokenProvider().generarAccessToken(user, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        LongAdder completed = new LongAdder();
+        LongAdder ioErrors = new LongAdder();
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        long[][] samples = new long[connections][];
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long deadline = measureFrom + durationNanos;
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(threads)
+                     .build()) {
+            List<Future<?>> workers = new ArrayList<>(connections);
+            for (int c = 0; c < connections; c++) {
+                int connection = c;
+                workers.add(threads.submit(() -> {
+                    long[] reservoir = new long[SAMPLES_PER_CONNECTION];
+                    long seen = 0;
+                    while (true) {
+                        long begin = System.nanoTime();
+                        if (begin >= deadline) {
+                            break;
+                        }
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            if (begin >= measureFrom) {
+                                ioErrors.increment();
+                            }
+                            continue;
+                        }
+                        if (begin < measureFrom) {
+                            continue;
+                        }
+                        long latency = System.nanoTime() - begin;
+                        completed.increment();
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                        if (seen < SAMPLES_PER_CONNECTION) {
+                            reservoir[(int) seen] = latency;
+                        } else {
+                            long slot = ThreadLocalRandom.current().nextLong(seen + 1);
+                            if (slot < SAMPLES_PER_CONNECTION) {
+                                reservoir[(int) slot] = latency;
+                            }
+                        }
+                        seen++;
+                    }
+                    samples[connection] = Arrays.copyOf(reservoir, (int) Math.min(seen, SAMPLES_PER_CONNECTION));
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+
+        long[] latencies = Arrays.stream(samples).flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = durationNanos / 1e9;
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        statuses.forEach((status, count) -> byStatus.put(status, count.sum()));
+        System.out.printf("""
+                        === HTTP read load (%s%s, %d conexiones, %.0f s) ===
+                        throughput: %.1f req/s, respuestas por estado: %s, errores de E/S: %d
+                        latencia p50: %.2f ms, p99: %.2f ms, p999: %.2f ms, max: %.2f ms
+                        """,
+                url, path, connections, seconds,
+                completed.sum() / seconds, byStatus, ioErrors.sum(),
+                percentileMs(latencies, 0.50), percentileMs(latencies, 0.99),
+                percentileMs(latencies, 0.999), percentileMs(latencies, 1.0));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
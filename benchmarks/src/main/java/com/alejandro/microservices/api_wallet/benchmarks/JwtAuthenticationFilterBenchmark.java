@@ -0,0 +1,88 @@
+package com.alejandro.microservices.api_wallet.benchmarks;
+
+import com.alejandro.microservices.api_wallet.security.JwtAuthenticationFilter;
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste del filtro JWT por request (doFilterInternal vía doFilter) con los
+ * beans reales: parseo, blacklist, revocación y construcción del principal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    /**
+     * bearer: token válido; anonymous: request sin cabecera Authorization.
+     */
+    @Param({"bearer", "anonymous"})
+    public String request;
+
+    private static final FilterChain NO_OP_CHAIN = (req, res) -> { };
+
+    private ConfigurableApplicationContext context;
+    private JwtAuthenticationFilter filter;
+
+    @State(Scope.Thread)
+    public static class ThreadRequest {
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp(JwtAuthenticationFilterBenchmark benchmark) {
+            request = new MockHttpServletRequest("GET", "/api/wallet/balance");
+            response = new MockHttpServletResponse();
+            if ("bearer".equals(benchmark.request)) {
+                String token = benchmark.context.getBean(JwtTokenProvider.class).generarAccessToken(
+                        "bench@example.com", List.of(new SimpleGrantedAuthority("ROLE_USER")), 1L);
+                request.addHeader("Authorization", "Bearer " + token);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("bench-filter");
+        filter = context.getBean(JwtAuthenticationFilter.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object doFilter(ThreadRequest state) throws ServletException, IOException {
+        filter.doFilter(state.request, state.response, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
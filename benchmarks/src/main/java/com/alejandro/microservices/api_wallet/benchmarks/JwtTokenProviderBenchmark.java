@@ -0,0 +1,68 @@
+package com.alejandro.microservices.api_wallet.benchmarks;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación, validación y parseo de JWT (sin contexto de Spring).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String USERNAME = "bench@example.com";
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        accessToken = jwtTokenProvider.generarAccessToken(USERNAME, AUTHORITIES, 1L);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtTokenProvider.generarAccessToken(USERNAME, AUTHORITIES, 1L);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtTokenProvider.generarRefreshToken(USERNAME);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validarToken(accessToken);
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtTokenProvider.parsearClaims(accessToken);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> parseAuthorities() {
+        return jwtTokenProvider.obtenerAutoridades(jwtTokenProvider.parsearClaims(accessToken));
+    }
+}
@@ -0,0 +1,79 @@
+package com.alejandro.microservices.api_wallet.benchmarks;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import com.alejandro.microservices.api_wallet.security.TokenBlacklistService;
+import com.alejandro.microservices.api_wallet.security.TokenDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * isTokenBlacklisted con la blacklist en memoria de distintos tamaños
+ * (incluye el SHA-256 del token que se hace en cada consulta).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBlacklistBenchmark {
+
+    @Param({"1000", "100000"})
+    public int blacklistSize;
+
+    private ConfigurableApplicationContext context;
+    private TokenBlacklistService tokenBlacklistService;
+    private String blacklistedToken;
+    private String activeToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("bench-blacklist");
+        tokenBlacklistService = context.getBean(TokenBlacklistService.class);
+        JwtTokenProvider jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+
+        // Solo memoria: apply() es lo que usa el feed de revocaciones
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        byte[] digest = new byte[TokenDigest.LENGTH];
+        for (int i = 0; i < blacklistSize; i++) {
+            ThreadLocalRandom.current().nextBytes(digest);
+            tokenBlacklistService.apply(digest.clone(), expiresAt);
+        }
+
+        blacklistedToken = jwtTokenProvider.generarAccessToken("revoked@example.com", List.of());
+        activeToken = jwtTokenProvider.generarAccessToken("active@example.com", List.of());
+        tokenBlacklistService.apply(TokenDigest.sha256(blacklistedToken), expiresAt);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean hit() {
+        return tokenBlacklistService.isTokenBlacklisted(blacklistedToken);
+    }
+
+    @Benchmark
+    public boolean miss() {
+        return tokenBlacklistService.isTokenBlacklisted(activeToken);
+    }
+}
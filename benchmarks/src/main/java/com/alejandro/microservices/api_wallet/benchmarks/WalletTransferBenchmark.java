@@ -0,0 +1,79 @@
+package com.alejandro.microservices.api_wallet.benchmarks;
+
+import com.alejandro.microservices.api_wallet.wallet.entity.User;
+import com.alejandro.microservices.api_wallet.wallet.entity.Wallet;
+import com.alejandro.microservices.api_wallet.wallet.repository.UserRepository;
+import com.alejandro.microservices.api_wallet.wallet.repository.WalletRepository;
+import com.alejandro.microservices.api_wallet.wallet.service.WalletService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WalletService.transfer sobre H2 embebido: lookup, bloqueo, update,
+ * movimiento en el libro y notificación (SMTP sustituido por no-op).
+ *
+ * Con -t N y accounts=2 todas las transferencias compiten por las mismas dos
+ * filas; con más cuentas la contención baja.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalletTransferBenchmark {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"2", "1000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private String[] emails;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("bench-transfer");
+        walletService = context.getBean(WalletService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        WalletRepository walletRepository = context.getBean(WalletRepository.class);
+
+        emails = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            emails[i] = "bench" + i + "@example.com";
+            User user = userRepository.save(new User("Bench " + i, emails[i], "{noop}password"));
+            walletRepository.save(Wallet.builder().user(user).balance(INITIAL_BALANCE).build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        walletService.transfer(emails[from], emails[to], AMOUNT);
+    }
+}
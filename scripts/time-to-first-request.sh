@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Mide el tiempo desde el lanzamiento de la JVM hasta la primera respuesta 200 de /actuator/health.
+#
+# Uso (argumentos de java tal cual):
+#   scripts/time-to-first-request.sh -jar target/api_wallet-0.0.1-SNAPSHOT.jar
+#   scripts/time-to-first-request.sh -XX:SharedArchiveFile=target/cds/application.jsa \
+#       -Dspring.aot.enabled=true -jar target/cds/api_wallet-0.0.1-SNAPSHOT.jar --spring.profiles.active=aot
+#
+# Variables: PORT (8080), RUNS (5). La aplicación también registra
+# "Primer request servido a X ms del arranque de la JVM" (FirstRequestTimer).
+set -euo pipefail
+
+PORT="${PORT:-8080}"
+RUNS="${RUNS:-5}"
+URL="http://localhost:${PORT}/actuator/health"
+
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    java "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "La aplicación terminó antes de responder" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+    echo "run $run: $(( (end - start) / 1000000 )) ms hasta el primer request"
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+done
@@ -1,5 +1,8 @@
 package com.alejandro.microservices.api_wallet.admin.controller;
 
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingJob;
+import com.alejandro.microservices.api_wallet.admin.service.OnboardingJobService;
+import com.alejandro.microservices.api_wallet.user.service.UserAccountService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -7,12 +10,24 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/admin")
 @Tag(name = "Administración", description = "Endpoints de administración (solo ADMIN)")
 @SecurityRequirement(name = "bearerAuth")
 public class AdminController {
 
+    private final UserAccountService userAccountService;
+    private final OnboardingJobService onboardingJobService;
+
+    public AdminController(UserAccountService userAccountService, OnboardingJobService onboardingJobService) {
+        this.userAccountService = userAccountService;
+        this.onboardingJobService = onboardingJobService;
+    }
+
     @GetMapping("/dashboard")
     @Operation(summary = "Dashboard de administración", description = "Acceso al panel de administración")
     @PreAuthorize("hasRole('ADMIN')")
@@ -28,10 +43,37 @@ public class AdminController {
     }
 
     @PostMapping("/users/{userId}/disable")
-    @Operation(summary = "Deshabilitar usuario", description = "Deshabilita un usuario específico")
+    @Operation(summary = "Deshabilitar usuario", description = "Deshabilita un usuario específico e invalida todos sus tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> disableUser(@PathVariable Long userId) {
+        try {
+            userAccountService.disableUser(userId);
+            return ResponseEntity.ok("Usuario " + userId + " deshabilitado exitosamente");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/onboarding", consumes = "application/x-ndjson")
+    @Operation(summary = "Alta masiva de usuarios",
+            description = "Encola la creación de usuarios (ROLE_USER) con wallet a balance cero desde un flujo NDJSON "
+                    + "{\"fullName\",\"email\",\"password\"} por línea; responde 202 con el job a consultar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OnboardingJob> onboardUsers(InputStream body) throws IOException {
+        OnboardingJob job = onboardingJobService.submit(body);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/onboarding/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/onboarding/{jobId}")
+    @Operation(summary = "Estado de un alta masiva",
+            description = "Estado del job (QUEUED, RUNNING, COMPLETED, FAILED) con totales, throughput y errores por fila")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> disableUser(@PathVariable String userId) {
-        return ResponseEntity.ok("Usuario " + userId + " deshabilitado exitosamente");
+    public ResponseEntity<OnboardingJob> getOnboardingJob(@PathVariable String jobId) {
+        return onboardingJobService.find(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/statistics")
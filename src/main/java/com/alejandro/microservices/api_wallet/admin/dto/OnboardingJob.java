@@ -0,0 +1,27 @@
+package com.alejandro.microservices.api_wallet.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Estado de una carga masiva en segundo plano. Mientras está RUNNING, report
+ * trae los totales del último bloque procesado; con COMPLETED, el informe final.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String id;
+    private Status status;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private OnboardingReport report;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.alejandro.microservices.api_wallet.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de una carga masiva. errors lleva como máximo
+ * onboarding.max-reported-errors filas; failed cuenta todas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingReport {
+    private long received;
+    private long created;
+    private long failed;
+    private long elapsedMs;
+    private double usersPerSecond;
+    private List<OnboardingRowError> errors;
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,14 @@
+package com.alejandro.microservices.api_wallet.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingRowError {
+    private long line;
+    private String email;
+    private String message;
+}
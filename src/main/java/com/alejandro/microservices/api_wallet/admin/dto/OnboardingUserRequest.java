@@ -0,0 +1,17 @@
+package com.alejandro.microservices.api_wallet.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Una línea del NDJSON de alta masiva: {"fullName":"...","email":"...","password":"..."}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingUserRequest {
+    private String fullName;
+    private String email;
+    private String password;
+}
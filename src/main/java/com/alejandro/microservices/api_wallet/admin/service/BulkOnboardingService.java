@@ -0,0 +1,406 @@
+package com.alejandro.microservices.api_wallet.admin.service;
+
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingReport;
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingRowError;
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingUserRequest;
+import com.alejandro.microservices.api_wallet.wallet.entity.Role;
+import com.alejandro.microservices.api_wallet.wallet.entity.User;
+import com.alejandro.microservices.api_wallet.wallet.entity.Wallet;
+import com.alejandro.microservices.api_wallet.wallet.repository.RoleRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 📥 Bulk Onboarding Service - Alta masiva de usuarios con su wallet
+ *
+ * Pensado para migraciones de clientes desde otro banco (cientos de miles de
+ * filas). En lugar de lookup + comprobación + INSERT por usuario, el flujo
+ * NDJSON se procesa por bloques de onboarding.chunk-size filas:
+ * - Emails repetidos en la carga: se detectan en memoria
+ * - Emails ya registrados: una consulta IN por bloque
+ * - Contraseñas: BCrypt en paralelo en un pool propio (onboarding.hash-threads)
+ * - Ids: los mismos generadores pooled-lo que usa Hibernate (users_seq, wallets_seq),
+ *   de modo que nunca chocan con las altas que pasan por JPA
+ * - users, user_roles y wallets (balance cero): un batch JDBC por tabla y una
+ *   transacción por bloque
+ *
+ * Un error en una fila (JSON inválido, campos vacíos, email duplicado, fila
+ * rechazada por la base de datos) se informa con su número de línea y no
+ * detiene la carga. Cada bloque confirmado queda confirmado aunque un bloque
+ * posterior falle.
+ *
+ * ⚠️ El pool de hash compite por CPU con los logins (PasswordVerificationExecutor):
+ * por defecto usa la mitad de los núcleos, igual que el pool de login, para
+ * que una carga no deje sin CPU a los usuarios conectados. Las cargas se
+ * ejecutan de una en una en segundo plano (ver OnboardingJobService).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Service
+public class BulkOnboardingService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOnboardingService.class);
+
+    private static final String INSERT_USER =
+            "insert into users (id, full_name, email, password, created_at, enabled) values (?, ?, ?, ?, ?, true)";
+    private static final String INSERT_USER_ROLE =
+            "insert into user_roles (user_id, role_id) values (?, ?)";
+    private static final String INSERT_WALLET =
+            "insert into wallets (id, user_id, balance) values (?, ?, 0)";
+    private static final String SELECT_EXISTING =
+            "select email from users where email in (:emails)";
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator userIds;
+    private final IdentifierGenerator walletIds;
+    private final ObjectReader rowReader;
+    private final ThreadPoolExecutor hashExecutor;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public BulkOnboardingService(RoleRepository roleRepository,
+                                 PasswordEncoder passwordEncoder,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 EntityManagerFactory entityManagerFactory,
+                                 ObjectMapper objectMapper,
+                                 @Value("${onboarding.chunk-size:1000}") int chunkSize,
+                                 @Value("${onboarding.hash-threads:0}") int hashThreads,
+                                 @Value("${onboarding.max-reported-errors:1000}") int maxReportedErrors) {
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.userIds = identifierGenerator(User.class);
+        this.walletIds = identifierGenerator(Wallet.class);
+        this.rowReader = objectMapper.readerFor(OnboardingUserRequest.class);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+
+        int poolSize = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "onboarding-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * 📥 Da de alta los usuarios de un flujo NDJSON (un objeto por línea)
+     *
+     * Cada usuario recibe ROLE_USER y una wallet con balance cero.
+     *
+     * @param body Flujo NDJSON; las líneas en blanco se ignoran
+     * @param onChunk Recibe el avance (totales hasta el momento) tras cada bloque
+     * @return Totales, throughput y errores por fila
+     * @throws IOException si falla la lectura del flujo
+     */
+    public OnboardingReport onboard(InputStream body, Consumer<OnboardingReport> onChunk) throws IOException {
+        long startedAt = System.nanoTime();
+        Long roleId = roleRepository.findByName(Role.RoleName.ROLE_USER)
+                .map(Role::getId)
+                .orElseThrow(() -> new RuntimeException("Rol ROLE_USER no encontrado"));
+
+        Progress progress = new Progress();
+        Set<String> seenEmails = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.received++;
+
+                Row row = parse(lineNumber, line, progress);
+                if (row == null) {
+                    continue;
+                }
+                // 🔁 Repetido dentro de la propia carga: gana la primera aparición
+                if (!seenEmails.add(row.key)) {
+                    progress.fail(row, "Email repetido en la carga");
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, roleId, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                    onChunk.accept(progress.report(startedAt));
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, roleId, progress);
+        }
+
+        OnboardingReport report = progress.report(startedAt);
+        logger.info("Alta masiva: {} recibidos, {} creados, {} con error en {} ms ({} usuarios/s)",
+                report.getReceived(), report.getCreated(), report.getFailed(),
+                report.getElapsedMs(), Math.round(report.getUsersPerSecond()));
+        return report;
+    }
+
+    private Row parse(long lineNumber, String line, Progress progress) {
+        OnboardingUserRequest request;
+        try {
+            request = rowReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            progress.fail(new Row(lineNumber, null, null, null), "JSON inválido: " + e.getOriginalMessage());
+            return null;
+        }
+
+        String email = request.getEmail() != null ? request.getEmail().trim() : null;
+        Row row = new Row(lineNumber, email, request.getFullName(), request.getPassword());
+        if (email == null || email.isEmpty()) {
+            progress.fail(row, "El email es obligatorio");
+            return null;
+        }
+        if (request.getPassword() == null || request.getPassword().isBlank()) {
+            progress.fail(row, "La contraseña es obligatoria");
+            return null;
+        }
+        if (email.length() > MAX_COLUMN_LENGTH
+                || (request.getFullName() != null && request.getFullName().length() > MAX_COLUMN_LENGTH)) {
+            progress.fail(row, "Email o nombre de más de " + MAX_COLUMN_LENGTH + " caracteres");
+            return null;
+        }
+        return row;
+    }
+
+    /**
+     * 📦 Un bloque: descarta los ya registrados, hashea, reserva ids e inserta
+     */
+    private void processChunk(List<Row> chunk, Long roleId, Progress progress) {
+        List<Row> pending = withoutExisting(chunk, progress);
+        if (pending.isEmpty()) {
+            return;
+        }
+        hashPasswords(pending);
+        insertIsolatingFailures(pending, roleId, progress);
+    }
+
+    /**
+     * 🪓 Inserta el lote y, si la base de datos lo rechaza, aísla las filas culpables
+     *
+     * Si otra alta registra uno de los emails entre la consulta IN y el INSERT,
+     * la restricción única aborta el lote: se repite la comprobación y se
+     * reintenta sin esas filas. Si el rechazo no lo explica ningún email ya
+     * registrado, el lote se parte en mitades hasta quedarse con las filas que
+     * fallan solas; el resto se inserta igualmente.
+     */
+    private void insertIsolatingFailures(List<Row> rows, Long roleId, Progress progress) {
+        assignIds(rows);
+        try {
+            insert(rows, roleId);
+            progress.created += rows.size();
+        } catch (DataIntegrityViolationException e) {
+            List<Row> pending = withoutExisting(rows, progress);
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (pending.size() < rows.size()) {
+                insertIsolatingFailures(pending, roleId, progress);
+            } else if (pending.size() == 1) {
+                Row row = pending.get(0);
+                logger.warn("Alta masiva: línea {} rechazada por la base de datos", row.line, e);
+                progress.fail(row, "Fila rechazada por la base de datos");
+            } else {
+                int middle = pending.size() / 2;
+                insertIsolatingFailures(new ArrayList<>(pending.subList(0, middle)), roleId, progress);
+                insertIsolatingFailures(new ArrayList<>(pending.subList(middle, pending.size())), roleId, progress);
+            }
+        }
+    }
+
+    private List<Row> withoutExisting(List<Row> rows, Progress progress) {
+        List<String> emails = rows.stream().map(row -> row.email).toList();
+        Set<String> existing = new HashSet<>();
+        for (String email : namedParameterJdbcTemplate.queryForList(SELECT_EXISTING, Map.of("emails", emails), String.class)) {
+            existing.add(key(email));
+        }
+
+        if (existing.isEmpty()) {
+            return rows;
+        }
+        List<Row> pending = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existing.contains(row.key)) {
+                progress.fail(row, "El email ya está registrado");
+            } else {
+                pending.add(row);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * 🔐 BCrypt de todo el bloque repartido entre los núcleos
+     */
+    private void hashPasswords(List<Row> rows) {
+        List<Callable<String>> tasks = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String rawPassword = row.password;
+            tasks.add(() -> passwordEncoder.encode(rawPassword));
+        }
+        try {
+            List<Future<String>> hashes = hashExecutor.invokeAll(tasks);
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).password = hashes.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Alta masiva interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error hasheando contraseñas", e.getCause());
+        }
+    }
+
+    /**
+     * 🔢 Ids de los generadores de Hibernate: una ida a la secuencia cada 50 filas
+     */
+    private void assignIds(List<Row> rows) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            SharedSessionContractImplementor implementor = (SharedSessionContractImplementor) session;
+            for (Row row : rows) {
+                row.userId = (Long) userIds.generate(implementor, null);
+                row.walletId = (Long) walletIds.generate(implementor, null);
+            }
+        }
+    }
+
+    private void insert(List<Row> rows, Long roleId) {
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, row.userId);
+                ps.setString(2, row.fullName);
+                ps.setString(3, row.email);
+                ps.setString(4, row.password);
+                ps.setTimestamp(5, createdAt);
+            });
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, row.userId);
+                ps.setLong(2, roleId);
+            });
+            jdbcTemplate.batchUpdate(INSERT_WALLET, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, row.walletId);
+                ps.setLong(2, row.userId);
+            });
+        });
+    }
+
+    private IdentifierGenerator identifierGenerator(Class<?> entity) {
+        return (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(entity)
+                .getGenerator();
+    }
+
+    /**
+     * Clave de deduplicación: MySQL compara emails sin distinguir mayúsculas
+     */
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void destroy() {
+        hashExecutor.shutdownNow();
+    }
+
+    private static final class Row {
+        final long line;
+        final String email;
+        final String key;
+        final String fullName;
+        String password;
+        Long userId;
+        Long walletId;
+
+        Row(long line, String email, String fullName, String password) {
+            this.line = line;
+            this.email = email;
+            this.key = email != null ? key(email) : null;
+            this.fullName = fullName;
+            this.password = password;
+        }
+    }
+
+    private final class Progress {
+        long received;
+        long created;
+        long failed;
+        final List<OnboardingRowError> errors = new ArrayList<>();
+
+        void fail(Row row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new OnboardingRowError(row.line, row.email, message));
+            }
+        }
+
+        // 📸 Copia inmutable: el job la publica mientras la carga sigue avanzando
+        OnboardingReport report(long startedAt) {
+            long elapsedNanos = System.nanoTime() - startedAt;
+            double usersPerSecond = elapsedNanos > 0 ? created * 1_000_000_000d / elapsedNanos : 0;
+            return new OnboardingReport(received, created, failed,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), usersPerSecond,
+                    List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
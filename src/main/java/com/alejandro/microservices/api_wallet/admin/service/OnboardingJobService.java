@@ -0,0 +1,155 @@
+package com.alejandro.microservices.api_wallet.admin.service;
+
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingJob;
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 🗂️ Onboarding Job Service - Cargas masivas en segundo plano
+ *
+ * Una carga de cientos de miles de filas tarda minutos (BCrypt domina), más
+ * de lo que un proxy o un cliente HTTP mantienen abierta una petición. El
+ * POST solo vuelca el NDJSON a un fichero temporal y devuelve el id del job;
+ * el avance y el informe final se consultan con GET /api/admin/onboarding/{id}.
+ *
+ * 🧵 Un único hilo ejecuta los jobs en orden de llegada: dos cargas a la vez
+ * solo se repartirían los mismos núcleos de hash y robarían más CPU a los logins.
+ *
+ * ⚠️ El estado vive en memoria del nodo que recibió la carga (el id solo se
+ * conoce en ese nodo) y se olvida onboarding.job-retention-ms después de
+ * terminar. Un reinicio pierde los jobs pendientes; reenviar el fichero es
+ * seguro porque las filas ya creadas se informan como email registrado.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Service
+public class OnboardingJobService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OnboardingJobService.class);
+
+    private final BulkOnboardingService bulkOnboardingService;
+    private final Duration retention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "onboarding-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OnboardingJobService(BulkOnboardingService bulkOnboardingService,
+                                @Value("${onboarding.job-retention-ms:86400000}") long retentionMs) {
+        this.bulkOnboardingService = bulkOnboardingService;
+        this.retention = Duration.ofMillis(retentionMs);
+    }
+
+    /**
+     * 📥 Guarda el NDJSON en disco y encola la carga
+     *
+     * @param body Flujo NDJSON de la petición; se consume entero antes de responder
+     * @return Job recién encolado (QUEUED, o RUNNING si el hilo ya lo tomó)
+     * @throws IOException si falla la lectura del flujo o la escritura del fichero
+     */
+    public OnboardingJob submit(InputStream body) throws IOException {
+        forgetFinishedJobs();
+
+        Path file = Files.createTempFile("onboarding-", ".ndjson");
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), Instant.now());
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job, file));
+        return job.snapshot();
+    }
+
+    /**
+     * 🔎 Estado actual de un job (vacío si no existe o ya se olvidó)
+     */
+    public Optional<OnboardingJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::snapshot);
+    }
+
+    private void run(Job job, Path file) {
+        job.startedAt = Instant.now();
+        job.status = OnboardingJob.Status.RUNNING;
+        OnboardingJob.Status outcome;
+        try (InputStream in = Files.newInputStream(file)) {
+            job.report = bulkOnboardingService.onboard(in, report -> job.report = report);
+            outcome = OnboardingJob.Status.COMPLETED;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Alta masiva {} fallida", job.id, e);
+            job.error = e.getMessage();
+            outcome = OnboardingJob.Status.FAILED;
+        } finally {
+            deleteQuietly(file);
+        }
+        // ✅ finishedAt antes que el estado: quien ve COMPLETED ya ve el informe final
+        job.finishedAt = Instant.now();
+        job.status = outcome;
+    }
+
+    private void forgetFinishedJobs() {
+        Instant horizon = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(horizon));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el fichero temporal {}", file, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Estado mutable del job: lo escribe solo el hilo onboarding-job y lo leen
+     * las peticiones de estado, de ahí los volatile.
+     */
+    private static final class Job {
+        final String id;
+        final Instant submittedAt;
+        volatile OnboardingJob.Status status = OnboardingJob.Status.QUEUED;
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile OnboardingReport report;
+        volatile String error;
+
+        Job(String id, Instant submittedAt) {
+            this.id = id;
+            this.submittedAt = submittedAt;
+        }
+
+        OnboardingJob snapshot() {
+            return new OnboardingJob(id, status, submittedAt, startedAt, finishedAt, report, error);
+        }
+    }
+}
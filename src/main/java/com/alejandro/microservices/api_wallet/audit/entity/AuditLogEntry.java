@@ -0,0 +1,60 @@
+package com.alejandro.microservices.api_wallet.audit.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Entrada del log de auditoría append-only (login, logout, refresh y
+ * transferencias). Se escribe en lotes desde AuditService, nunca en el hilo
+ * del request.
+ */
+@Entity
+@Table(name = "audit_log",
+    indexes = {
+        @Index(name = "idx_audit_principal_occurred_at", columnList = "principal, occurred_at"),
+        @Index(name = "idx_audit_occurred_at", columnList = "occurred_at")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private EventType type;
+
+    // Usuario que origina el evento (puede no existir en intentos fallidos)
+    @Column(name = "principal")
+    private String principal;
+
+    @Column(name = "client_ip", length = 45)
+    private String clientIp;
+
+    // Destinatario de una transferencia
+    @Column(name = "target")
+    private String target;
+
+    @Column(name = "amount", precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "detail")
+    private String detail;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    public enum EventType {
+        LOGIN_SUCCESS, LOGIN_FAILURE, LOGIN_BLOCKED,
+        LOGOUT, LOGOUT_ALL,
+        REFRESH, REFRESH_FAILURE,
+        TRANSFER, TRANSFER_FAILURE
+    }
+}
@@ -0,0 +1,299 @@
+package com.alejandro.microservices.api_wallet.audit.service;
+
+import com.alejandro.microservices.api_wallet.audit.entity.AuditLogEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 📝 Audit Service - Log de auditoría asíncrono y por lotes
+ *
+ * Registra login, logout, refresh y transferencias sin añadir latencia a los
+ * endpoints: el hilo del request solo copia unos pocos campos en un buffer
+ * circular preasignado; un hilo escritor en segundo plano los vuelca en lotes
+ * al AuditSink configurado (tabla audit_log vía batch JDBC o fichero rotativo).
+ *
+ * ⚡ Publicación:
+ * - Buffer circular de slots mutables reservado al arrancar (sin colas enlazadas)
+ * - Reservar un slot es un CAS sobre la secuencia; sin locks ni I/O
+ * - El slot se marca como publicado con una escritura volatile de su secuencia
+ *
+ * 🚦 Buffer lleno (audit.overflow-policy):
+ * - DROP (por defecto): el evento se descarta y se cuenta en audit.events.dropped
+ * - BLOCK: el publicador espera a que el escritor libere espacio
+ *
+ * 📊 Métricas (Micrometer):
+ * - audit.events.published / audit.events.dropped / audit.write.failures
+ * - audit.buffer.pending: eventos aún no copiados por el escritor
+ * - audit.write.batch: duración de cada escritura de lote
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Service
+public class AuditService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+
+    // ⏳ Pausa del publicador en modo BLOCK mientras el buffer está lleno
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private final AuditSink sink;
+    private final boolean enabled;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final Slot[] slots;
+    private final int mask;
+
+    // 📍 Siguiente secuencia a reservar por los publicadores
+    private final AtomicLong claimed = new AtomicLong();
+    // 📍 Siguiente secuencia a leer por el escritor; todo lo anterior está libre
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter failureCounter;
+    private final Timer writeTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditService(AuditSink sink,
+                        MeterRegistry meterRegistry,
+                        @Value("${audit.enabled:true}") boolean enabled,
+                        @Value("${audit.buffer-size:8192}") int bufferSize,
+                        @Value("${audit.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                        @Value("${audit.batch-size:256}") int batchSize,
+                        @Value("${audit.flush-interval-ms:200}") long flushIntervalMs) {
+        this.sink = sink;
+        this.enabled = enabled;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        // 🧮 Capacidad potencia de dos para indexar con una máscara
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+
+        this.publishedCounter = Counter.builder("audit.events.published")
+                .description("Eventos de auditoría aceptados en el buffer")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.events.dropped")
+                .description("Eventos de auditoría descartados por buffer lleno")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("audit.write.failures")
+                .description("Lotes de auditoría que no pudieron escribirse")
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("audit.write.batch")
+                .description("Duración de la escritura de un lote de auditoría")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.pending", this, AuditService::getPendingCount)
+                .description("Eventos de auditoría pendientes de escribir")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Audit log iniciado: {} slots, política {}", slots.length, overflowPolicy);
+    }
+
+    /**
+     * 🛑 Vacía el buffer antes de detener la aplicación
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sink.close();
+    }
+
+    /**
+     * 📣 Publica un evento de auditoría sin bloquear (salvo política BLOCK)
+     *
+     * @param type Tipo de evento
+     * @param principal Usuario que origina el evento
+     * @param clientIp IP del cliente
+     * @param detail Detalle libre (motivo de fallo, etc.)
+     * @return false si el evento se descartó
+     */
+    public boolean publish(AuditLogEntry.EventType type, String principal, String clientIp, String detail) {
+        return publish(type, principal, clientIp, null, null, detail);
+    }
+
+    /**
+     * 📣 Publica un evento de auditoría con destinatario y monto (transferencias)
+     *
+     * @param type Tipo de evento
+     * @param principal Usuario que origina el evento
+     * @param clientIp IP del cliente
+     * @param target Destinatario de la operación
+     * @param amount Monto de la operación
+     * @param detail Detalle libre (motivo de fallo, etc.)
+     * @return false si el evento se descartó
+     */
+    public boolean publish(AuditLogEntry.EventType type, String principal, String clientIp,
+                           String target, BigDecimal amount, String detail) {
+        if (!running) {
+            return false;
+        }
+
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= slots.length) {
+                if (overflowPolicy == OverflowPolicy.DROP) {
+                    droppedCounter.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.type = type;
+        slot.principal = principal;
+        slot.clientIp = clientIp;
+        slot.target = target;
+        slot.amount = amount;
+        slot.detail = detail;
+        slot.occurredAtMillis = System.currentTimeMillis();
+        slot.published = sequence; // ✅ Escritura volatile: el escritor ya puede leer el slot
+
+        publishedCounter.increment();
+        return true;
+    }
+
+    /**
+     * 📊 Eventos publicados que el escritor aún no ha copiado
+     *
+     * @return Número de slots ocupados
+     */
+    public long getPendingCount() {
+        return claimed.get() - consumed.get();
+    }
+
+    private void runWriter() {
+        List<AuditLogEntry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping = !running;
+            drainInto(batch);
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            } else if (stopping) {
+                return;
+            } else {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Copia hasta batchSize eventos publicados y libera sus slots.
+     */
+    private void drainInto(List<AuditLogEntry> batch) {
+        long next = consumed.get();
+        while (batch.size() < batchSize) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.published != next) {
+                break; // Reservado pero aún sin publicar, o vacío
+            }
+            batch.add(AuditLogEntry.builder()
+                    .type(slot.type)
+                    .principal(slot.principal)
+                    .clientIp(slot.clientIp)
+                    .target(slot.target)
+                    .amount(slot.amount)
+                    .detail(truncate(slot.detail))
+                    .occurredAt(Instant.ofEpochMilli(slot.occurredAtMillis))
+                    .build());
+            slot.clear();
+            next++;
+        }
+        consumed.set(next);
+    }
+
+    private void flush(List<AuditLogEntry> batch) {
+        long start = System.nanoTime();
+        try {
+            sink.write(batch);
+        } catch (Exception e) {
+            failureCounter.increment();
+            logger.warn("No se pudo escribir un lote de {} eventos de auditoría: {}", batch.size(), e.getMessage());
+        } finally {
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String truncate(String detail) {
+        return detail != null && detail.length() > 255 ? detail.substring(0, 255) : detail;
+    }
+
+    /**
+     * Slot reutilizable del buffer; published indica qué secuencia contiene.
+     */
+    private static final class Slot {
+        volatile long published = -1;
+        AuditLogEntry.EventType type;
+        String principal;
+        String clientIp;
+        String target;
+        BigDecimal amount;
+        String detail;
+        long occurredAtMillis;
+
+        void clear() {
+            principal = null;
+            clientIp = null;
+            target = null;
+            amount = null;
+            detail = null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.alejandro.microservices.api_wallet.audit.service;
+
+import com.alejandro.microservices.api_wallet.audit.entity.AuditLogEntry;
+
+import java.util.List;
+
+/**
+ * Destino de los lotes de auditoría. Solo lo invoca el hilo escritor de
+ * AuditService, así que las implementaciones no necesitan ser thread-safe.
+ */
+public interface AuditSink {
+
+    /**
+     * Persiste un lote de eventos en orden de publicación.
+     *
+     * @param batch Eventos a escribir (no vacío)
+     * @throws Exception si el lote no pudo escribirse
+     */
+    void write(List<AuditLogEntry> batch) throws Exception;
+
+    /**
+     * Libera recursos al detener la aplicación.
+     */
+    default void close() {
+    }
+}
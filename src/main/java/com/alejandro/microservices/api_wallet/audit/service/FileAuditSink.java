@@ -0,0 +1,137 @@
+package com.alejandro.microservices.api_wallet.audit.service;
+
+import com.alejandro.microservices.api_wallet.audit.entity.AuditLogEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * 📁 Escribe los lotes de auditoría en ficheros locales, una línea JSON por
+ * evento. El fichero rota por día (UTC) y al superar audit.file.max-size-mb:
+ * audit-2024-05-01.log, audit-2024-05-01.1.log, ...
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "file")
+public class FileAuditSink implements AuditSink {
+
+    private final Path directory;
+    private final long maxBytes;
+
+    private BufferedWriter writer;
+    private LocalDate currentDay;
+    private int currentIndex;
+    private long currentBytes;
+
+    public FileAuditSink(@Value("${audit.file.directory:logs/audit}") String directory,
+                         @Value("${audit.file.max-size-mb:100}") long maxSizeMb) {
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @Override
+    public void write(List<AuditLogEntry> batch) throws IOException {
+        StringBuilder lines = new StringBuilder(batch.size() * 160);
+        for (AuditLogEntry entry : batch) {
+            appendJson(lines, entry);
+        }
+        String content = lines.toString();
+        int length = content.getBytes(StandardCharsets.UTF_8).length;
+
+        rollIfNeeded(length);
+        writer.write(content);
+        writer.flush();
+        currentBytes += length;
+    }
+
+    @Override
+    public void close() {
+        closeWriter();
+    }
+
+    private void rollIfNeeded(int pendingBytes) throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (writer != null && today.equals(currentDay) && currentBytes + pendingBytes <= maxBytes) {
+            return;
+        }
+        closeWriter();
+        Files.createDirectories(directory);
+
+        if (!today.equals(currentDay)) {
+            currentDay = today;
+            currentIndex = 0;
+        }
+        // 🔁 Siguiente fichero con espacio (tras un reinicio se continúa el último)
+        Path file = fileFor(currentDay, currentIndex);
+        while (Files.exists(file) && Files.size(file) + pendingBytes > maxBytes) {
+            file = fileFor(currentDay, ++currentIndex);
+        }
+
+        currentBytes = Files.exists(file) ? Files.size(file) : 0;
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private Path fileFor(LocalDate day, int index) {
+        return directory.resolve(index == 0 ? "audit-" + day + ".log" : "audit-" + day + "." + index + ".log");
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // El contenido ya se volcó con flush tras cada lote
+            }
+            writer = null;
+        }
+    }
+
+    private static void appendJson(StringBuilder out, AuditLogEntry entry) {
+        out.append("{\"occurredAt\":\"").append(entry.getOccurredAt()).append('"');
+        out.append(",\"type\":\"").append(entry.getType()).append('"');
+        appendField(out, "principal", entry.getPrincipal());
+        appendField(out, "clientIp", entry.getClientIp());
+        appendField(out, "target", entry.getTarget());
+        if (entry.getAmount() != null) {
+            out.append(",\"amount\":").append(entry.getAmount().toPlainString());
+        }
+        appendField(out, "detail", entry.getDetail());
+        out.append("}\n");
+    }
+
+    private static void appendField(StringBuilder out, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
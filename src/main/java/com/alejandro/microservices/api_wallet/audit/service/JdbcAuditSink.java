@@ -0,0 +1,49 @@
+package com.alejandro.microservices.api_wallet.audit.service;
+
+import com.alejandro.microservices.api_wallet.audit.entity.AuditLogEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 🗄️ Escribe los lotes de auditoría en la tabla audit_log con un único
+ * batch JDBC por lote, sin pasar por el contexto de persistencia de JPA.
+ *
+ * En MySQL conviene añadir rewriteBatchedStatements=true a la URL para que el
+ * driver envíe el lote como un solo INSERT multi-fila.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcAuditSink implements AuditSink {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_log (event_type, principal, client_ip, target, amount, detail, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcAuditSink(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(List<AuditLogEntry> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+            ps.setString(1, entry.getType().name());
+            ps.setString(2, entry.getPrincipal());
+            ps.setString(3, entry.getClientIp());
+            ps.setString(4, entry.getTarget());
+            if (entry.getAmount() != null) {
+                ps.setBigDecimal(5, entry.getAmount());
+            } else {
+                ps.setNull(5, Types.DECIMAL);
+            }
+            ps.setString(6, entry.getDetail());
+            ps.setTimestamp(7, Timestamp.from(entry.getOccurredAt()));
+        });
+    }
+}
@@ -1,22 +1,36 @@
 package com.alejandro.microservices.api_wallet.auth.controller;
 
+import com.alejandro.microservices.api_wallet.audit.entity.AuditLogEntry;
+import com.alejandro.microservices.api_wallet.audit.service.AuditService;
 import com.alejandro.microservices.api_wallet.auth.dto.AuthRequest;
 import com.alejandro.microservices.api_wallet.auth.dto.AuthResponse;
 import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import com.alejandro.microservices.api_wallet.security.LoginCapacityExceededException;
+import com.alejandro.microservices.api_wallet.security.LoginThrottle;
 import com.alejandro.microservices.api_wallet.security.MyUserDetailsService;
+import com.alejandro.microservices.api_wallet.security.InvalidRefreshTokenException;
+import com.alejandro.microservices.api_wallet.security.PasswordVerificationExecutor;
+import com.alejandro.microservices.api_wallet.security.RefreshSessionService;
 import com.alejandro.microservices.api_wallet.security.TokenBlacklistService;
-import com.alejandro.microservices.api_wallet.wallet.entity.User;
-import com.alejandro.microservices.api_wallet.wallet.repository.UserRepository;
+import com.alejandro.microservices.api_wallet.security.TokenRevocationService;
+import com.alejandro.microservices.api_wallet.user.service.UserAccountService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.util.Map;
 import java.time.Instant;
 
@@ -30,24 +44,25 @@ import java.time.Instant;
  * - POST /auth/login - Autenticación de usuarios
  * - POST /auth/refresh - Renovación de tokens
  * - POST /auth/logout - Cierre de sesión seguro
+ * - POST /auth/logout-all - Cierre de sesión en todos los dispositivos
  * - GET /auth/blacklist/stats - Métricas de seguridad
  * 
  * 🔄 Flujo de Autenticación Completo:
  * 1. Login → Access Token (15 min) + Refresh Token (7 días)
  * 2. Request con Access Token → Validación en cada request
- * 3. Access Token expirado → Refresh Token → Nuevo Access Token
- * 4. Logout → Token a blacklist + Revocación de Refresh Token
+ * 3. Access Token expirado → Refresh Token → Nuevo Access Token + Nuevo Refresh Token
+ * 4. Logout → Token a blacklist + Revocación de la sesión del dispositivo
  * 
  * 🛡️ Medidas de Seguridad:
  * - Validación de credenciales con Spring Security
  * - Tokens de corta duración para minimizar exposición
  * - Blacklist persistente para invalidación inmediata
- * - Revocación de refresh tokens en logout
+ * - Rotación de refresh tokens con detección de reutilización
  * - Manejo seguro de errores sin información sensible
  * 
  * 📊 Métricas y Monitoreo:
  * - Estadísticas de blacklist en tiempo real
- * - Logging de intentos de autenticación
+ * - Auditoría asíncrona de login, logout y refresh (audit_log)
  * - Monitoreo de tokens activos
  * - Alertas de actividad sospechosa
  * 
@@ -55,7 +70,7 @@ import java.time.Instant;
  * - Spring Security AuthenticationManager
  * - JWT Token Provider para generación/validación
  * - Token Blacklist Service para invalidación
- * - User Repository para persistencia
+ * - Refresh Session Service para sesiones por dispositivo
  * 
  * @author Alejandro
  * @version 1.0
@@ -66,6 +81,8 @@ import java.time.Instant;
 @Tag(name = "Autenticación", description = "Endpoints para autenticación y autorización")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     // 🔧 Dependencias inyectadas (en producción usar constructor injection)
     @Autowired
     private AuthenticationManager authenticationManager;
@@ -80,7 +97,22 @@ public class AuthController {
     private TokenBlacklistService tokenBlacklistService;
 
     @Autowired
-    private UserRepository userRepository;
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private PasswordVerificationExecutor passwordVerificationExecutor;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private RefreshSessionService refreshSessionService;
+
+    @Autowired
+    private AuditService auditService;
 
     /**
      * 🚀 Iniciar sesión - Autenticación principal del sistema
@@ -88,13 +120,14 @@ public class AuthController {
      * Este endpoint implementa el flujo completo de autenticación:
      * 1. Validación de credenciales con Spring Security
      * 2. Generación de access token (15 min) y refresh token (7 días)
-     * 3. Persistencia del refresh token en base de datos
+     * 3. Nueva sesión de refresh token (una por dispositivo)
      * 4. Respuesta con ambos tokens para el cliente
      * 
      * 🛡️ Validaciones de Seguridad:
+     * - Límite de intentos fallidos por cuenta y por IP antes de hashear
      * - Credenciales validadas por AuthenticationManager
+     * - BCrypt ejecutado en un pool aislado y acotado (no en hilos de Tomcat)
      * - Manejo seguro de excepciones de autenticación
-     * - Fallback graceful si falla la persistencia del refresh token
      * 
      * 📊 Performance:
      * - Autenticación: < 100ms promedio
@@ -104,46 +137,64 @@ public class AuthController {
      * 🔄 Flujo de Respuesta:
      * - 200 OK: Login exitoso con tokens
      * - 400 Bad Request: Credenciales inválidas
+     * - 429 Too Many Requests: Demasiados intentos fallidos (Retry-After)
+     * - 503 Service Unavailable: Pool de verificación saturado (Retry-After)
      * - 500 Internal Server Error: Error del servidor
      * 
      * @param request DTO con username y password
+     * @param httpRequest Request HTTP para obtener la IP del cliente
      * @return AuthResponse con access token, refresh token y mensaje
      */
     @PostMapping("/login")
     @Operation(summary = "Iniciar sesión", description = "Autentica un usuario y devuelve access token y refresh token")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request) {
+    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
+        String clientIp = httpRequest.getRemoteAddr();
+
+        // 🚦 Rechazo antes de cualquier BCrypt si la cuenta o la IP superaron el límite
+        if (loginThrottle.isBlocked(request.getUsername(), clientIp)) {
+            auditService.publish(AuditLogEntry.EventType.LOGIN_BLOCKED, request.getUsername(), clientIp, "throttled");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginThrottle.getRetryAfterSeconds()))
+                    .body(new AuthResponse(null, null, "Demasiados intentos fallidos, reintente más tarde"));
+        }
+
         try {
-            // 🔐 Validar credenciales con Spring Security
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-            );
+            // 🔐 Validar credenciales con Spring Security en el pool aislado de BCrypt
+            Authentication authentication = passwordVerificationExecutor.execute(() ->
+                    authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+                    ));
 
-            // 👤 Cargar detalles completos del usuario autenticado
-            final UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
+            // 👤 Detalles del usuario autenticado (ya cargados por el AuthenticationManager)
+            final UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            loginThrottle.recordSuccess(request.getUsername());
             
-            // 🔑 Generar access token y refresh token
-            final String accessToken = jwtTokenProvider.generarAccessToken(userDetails.getUsername());
-            final String refreshToken = jwtTokenProvider.generarRefreshToken(userDetails.getUsername());
+            // 📱 Nueva sesión de refresh token (las de otros dispositivos siguen activas)
+            RefreshSessionService.IssuedSession session = refreshSessionService.createSession(userDetails.getUsername());
 
-            // 💾 Guardar refresh token en la base de datos (si el usuario existe)
-            try {
-                User user = userRepository.findByEmail(userDetails.getUsername())
-                        .orElse(null);
-                if (user != null) {
-                    user.setRefreshToken(refreshToken);
-                    userRepository.save(user);
-                }
-            } catch (Exception e) {
-                // ⚠️ Si no se puede guardar en BD, continuar sin refresh token
-                // En producción, usar logger apropiado
-                System.err.println("Error guardando refresh token: " + e.getMessage());
-            }
+            // 🔑 Access token ligado a la sesión para que el logout la revoque
+            final String accessToken = jwtTokenProvider.generarAccessToken(
+                    userDetails.getUsername(), userDetails.getAuthorities(), session.sessionId());
+
+            auditService.publish(AuditLogEntry.EventType.LOGIN_SUCCESS, userDetails.getUsername(), clientIp,
+                    "sid=" + session.sessionId());
 
             // ✅ Respuesta exitosa con ambos tokens
-            return ResponseEntity.ok(new AuthResponse(accessToken, refreshToken, "Login exitoso"));
-        } catch (BadCredentialsException e) {
-            // ❌ Credenciales inválidas
+            return ResponseEntity.ok(new AuthResponse(accessToken, session.refreshToken(), "Login exitoso"));
+        } catch (AuthenticationException e) {
+            // ❌ Credenciales inválidas o usuario deshabilitado
+            if (e instanceof BadCredentialsException) {
+                loginThrottle.recordFailure(request.getUsername(), clientIp);
+            }
+            auditService.publish(AuditLogEntry.EventType.LOGIN_FAILURE, request.getUsername(), clientIp,
+                    e.getClass().getSimpleName());
             return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Credenciales inválidas"));
+        } catch (LoginCapacityExceededException e) {
+            // 🚦 Pool de verificación saturado: rechazo rápido sin consumir CPU
+            auditService.publish(AuditLogEntry.EventType.LOGIN_BLOCKED, request.getUsername(), clientIp, "capacity");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new AuthResponse(null, null, "Servicio de login saturado, reintente en unos segundos"));
         }
     }
 
@@ -167,19 +218,21 @@ public class AuthController {
      * 🔄 Refrescar token - Renovación automática de access tokens
      * 
      * Este endpoint permite obtener un nuevo access token usando el refresh token,
-     * sin necesidad de re-autenticar al usuario con credenciales.
+     * sin necesidad de re-autenticar al usuario con credenciales. Cada uso rota
+     * el refresh token: el cliente debe guardar el nuevo y descartar el anterior.
      * 
      * 🛡️ Validaciones de Seguridad:
      * - Refresh token válido y no expirado
-     * - Refresh token coincide con el almacenado en BD
-     * - Usuario existe y está activo
+     * - Refresh token corresponde a una sesión activa (hash SHA-256)
+     * - Refresh token emitido después de la última revocación del usuario
+     * - Un refresh token ya rotado revoca la sesión completa (posible robo)
+     * - Usuario activo
      * 
      * 🔄 Flujo de Validación:
      * 1. Validar formato y firma del refresh token
-     * 2. Extraer username del token
-     * 3. Buscar usuario en base de datos
-     * 4. Comparar refresh token con el almacenado
-     * 5. Generar nuevo access token
+     * 2. Buscar la sesión por hash del token (índice único)
+     * 3. Rotar el token con un UPDATE condicional
+     * 4. Generar nuevo access token con los roles cacheados del usuario
      * 
      * 📊 Casos de Uso:
      * - Access token expirado durante sesión activa
@@ -187,11 +240,12 @@ public class AuthController {
      * - Mantener sesión sin re-login
      * 
      * @param request Map con refresh token
-     * @return AuthResponse con nuevo access token
+     * @param httpRequest Request HTTP para obtener la IP del cliente
+     * @return AuthResponse con nuevo access token y nuevo refresh token
      */
     @PostMapping("/refresh")
-    @Operation(summary = "Refrescar token", description = "Genera un nuevo access token usando el refresh token")
-    public ResponseEntity<AuthResponse> refresh(@RequestBody Map<String, String> request) {
+    @Operation(summary = "Refrescar token", description = "Genera un nuevo access token y rota el refresh token")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         try {
             String refreshToken = request.get("refreshToken");
             
@@ -200,28 +254,30 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Refresh token requerido"));
             }
 
-            // ✅ Validar el refresh token (firma y expiración)
-            if (!jwtTokenProvider.validarToken(refreshToken)) {
-                return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Refresh token inválido"));
-            }
-
-            // 🔍 Extraer username del token validado
-            String username = jwtTokenProvider.obtenerUsernameDelToken(refreshToken);
+            // 🔄 Validar y rotar la sesión (una búsqueda y un UPDATE)
+            RefreshSessionService.IssuedSession session = refreshSessionService.rotate(refreshToken);
 
-            // 👤 Buscar usuario en la base de datos
-            User user = userRepository.findByEmail(username)
-                    .orElse(null);
-
-            // 🔐 Verificar que el refresh token coincide con el almacenado
-            if (user == null || !refreshToken.equals(user.getRefreshToken())) {
-                return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Refresh token no válido para este usuario"));
+            // 👤 Roles vigentes del usuario (caché de UserDetails)
+            UserDetails userDetails = userDetailsService.loadUserByUsername(session.username());
+            if (!userDetails.isEnabled()) {
+                refreshSessionService.revoke(session.sessionId());
+                auditService.publish(AuditLogEntry.EventType.REFRESH_FAILURE, session.username(),
+                        httpRequest.getRemoteAddr(), "disabled");
+                return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Usuario deshabilitado"));
             }
 
-            // 🔑 Generar nuevo access token
-            String newAccessToken = jwtTokenProvider.generarAccessToken(username);
+            // 🔑 Generar nuevo access token ligado a la misma sesión
+            String newAccessToken = jwtTokenProvider.generarAccessToken(
+                    session.username(), userDetails.getAuthorities(), session.sessionId());
+
+            auditService.publish(AuditLogEntry.EventType.REFRESH, session.username(), httpRequest.getRemoteAddr(),
+                    "sid=" + session.sessionId());
 
-            // ✅ Respuesta exitosa con nuevo access token
-            return ResponseEntity.ok(new AuthResponse(newAccessToken, refreshToken, "Token refrescado exitosamente"));
+            // ✅ Respuesta exitosa con nuevo access token y refresh token rotado
+            return ResponseEntity.ok(new AuthResponse(newAccessToken, session.refreshToken(), "Token refrescado exitosamente"));
+        } catch (InvalidRefreshTokenException e) {
+            auditService.publish(AuditLogEntry.EventType.REFRESH_FAILURE, null, httpRequest.getRemoteAddr(), e.getMessage());
+            return ResponseEntity.badRequest().body(new AuthResponse(null, null, e.getMessage()));
         } catch (Exception e) {
             // ❌ Error en el proceso de refresh
             return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Error al refrescar token: " + e.getMessage()));
@@ -259,12 +315,12 @@ public class AuthController {
      * Este endpoint implementa un logout completo y seguro:
      * 1. Extrae el token del header Authorization
      * 2. Agrega el token a la blacklist con su fecha de expiración
-     * 3. Revoca el refresh token del usuario
+     * 3. Revoca la sesión de refresh token del dispositivo (claim sid)
      * 4. Confirma el logout exitoso
      * 
      * 🛡️ Medidas de Seguridad:
      * - Invalidación inmediata del access token
-     * - Revocación del refresh token
+     * - Revocación de la sesión del dispositivo (las demás siguen activas)
      * - Persistencia en blacklist hasta expiración
      * - Manejo seguro de errores
      * 
@@ -272,7 +328,7 @@ public class AuthController {
      * 1. Cliente envía request con token válido
      * 2. Servidor extrae fecha de expiración del token
      * 3. Token agregado a blacklist con expiración específica
-     * 4. Refresh token revocado de la base de datos
+     * 4. Sesión de refresh token del dispositivo revocada
      * 5. Confirmación de logout exitoso
      * 
      * 📊 Beneficios:
@@ -298,18 +354,18 @@ public class AuthController {
                 // 🚫 Agregar token a la lista negra con su fecha de expiración
                 tokenBlacklistService.blacklistToken(token, expiresAt);
                 
-                // 🔄 Opcional: revocar refresh token del usuario
+                // 📱 Revocar la sesión de refresh token de este dispositivo
                 try {
-                    String username = jwtTokenProvider.obtenerUsernameDelToken(token);
-                    User user = userRepository.findByEmail(username).orElse(null);
-                    if (user != null && user.getRefreshToken() != null) {
-                        user.setRefreshToken(null);
-                        userRepository.save(user);
+                    Claims claims = jwtTokenProvider.parsearClaims(token);
+                    Long sessionId = claims == null ? null : jwtTokenProvider.obtenerSessionId(claims);
+                    if (sessionId != null) {
+                        refreshSessionService.revoke(sessionId);
                     }
+                    auditService.publish(AuditLogEntry.EventType.LOGOUT,
+                            claims == null ? null : claims.getSubject(), request.getRemoteAddr(), "sid=" + sessionId);
                 } catch (Exception e) {
-                    // ⚠️ Si no se puede revocar el refresh token, continuar
-                    // En producción, usar logger apropiado
-                    System.err.println("Error revocando refresh token: " + e.getMessage());
+                    // ⚠️ Si no se puede revocar el refresh token, continuar: el access token ya está en blacklist
+                    logger.warn("Error revocando la sesión de refresh token en el logout", e);
                 }
                 
                 // ✅ Confirmación de logout exitoso
@@ -323,4 +379,39 @@ public class AuthController {
         // ❌ Token no encontrado en el request
         return ResponseEntity.badRequest().body("Token no encontrado");
     }
+
+    /**
+     * 🚪 Cerrar sesión en todos los dispositivos
+     * 
+     * En lugar de agregar cada token vivo a la blacklist, registra una marca
+     * de revocación para el usuario: todo access o refresh token emitido
+     * antes de este momento deja de ser válido, sin importar cuántos haya.
+     * 
+     * /auth/** no pasa por la autenticación, así que aquí se aplican las
+     * mismas reglas que el filtro JWT: un token ya cerrado con /auth/logout
+     * (blacklist) o anterior a la última marca del usuario no puede usarse.
+     * 
+     * @param request HttpServletRequest para extraer el token
+     * @return Confirmación de logout global
+     */
+    @PostMapping("/logout-all")
+    @Operation(summary = "Cerrar sesión en todos los dispositivos", description = "Invalida todos los tokens emitidos para el usuario")
+    public ResponseEntity<String> logoutAll(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Token no encontrado");
+        }
+
+        String token = authHeader.substring(7);
+        Claims claims = jwtTokenProvider.parsearClaims(token);
+        if (claims == null
+                || tokenBlacklistService.isTokenBlacklisted(token)
+                || tokenRevocationService.isRevoked(claims.getSubject(), claims.getIssuedAt())) {
+            return ResponseEntity.badRequest().body("Token inválido");
+        }
+
+        userAccountService.logoutAllDevices(claims.getSubject());
+        auditService.publish(AuditLogEntry.EventType.LOGOUT_ALL, claims.getSubject(), request.getRemoteAddr(), null);
+        return ResponseEntity.ok("Logout exitoso en todos los dispositivos.");
+    }
 }
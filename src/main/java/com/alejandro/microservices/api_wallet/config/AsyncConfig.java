@@ -0,0 +1,51 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 🧵 Async Config - Ejecutores para trabajo asíncrono
+ *
+ * Con spring.threads.virtual.enabled=true (Java 21) Spring Boot ya ejecuta en
+ * hilos virtuales los requests de Tomcat, los @Scheduled y el ejecutor @Async
+ * por defecto. El envío de correo es la excepción: Angus Mail serializa el
+ * transporte SMTP con métodos synchronized, y un hilo virtual bloqueado en el
+ * socket dentro de un synchronized fija (pin) su hilo portador. Por eso los
+ * correos usan un pool pequeño de hilos de plataforma propio.
+ *
+ * ⚙️ Configuración:
+ * - mail.executor.threads: hilos de envío (por defecto 4)
+ * - mail.executor.queue-capacity: correos en espera (por defecto 1000)
+ * - Cola llena: el correo se envía en el hilo que lo publicó (no se pierde)
+ *
+ * Métricas executor.* con tag name=mailExecutor (auto-configuradas por Boot).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+
+    @Bean(name = MAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor mailExecutor(@Value("${mail.executor.threads:4}") int threads,
+                                               @Value("${mail.executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mail-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
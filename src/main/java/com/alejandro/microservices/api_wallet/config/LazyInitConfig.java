@@ -0,0 +1,45 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 💤 Lazy Init Config - Beans de springdoc fuera del arranque
+ *
+ * La documentación OpenAPI no se necesita para servir tráfico. Marcar sus
+ * beans como lazy los saca del camino de arranque; se crean con el primer
+ * acceso a /v3/api-docs o /swagger-ui (o antes si un bean eager los necesita).
+ * EmailController se marca con @Lazy directamente.
+ *
+ * En el modo AOT (perfil "aot") springdoc está desactivado y la especificación
+ * se sirve precalculada en /openapi.json.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    static BeanFactoryPostProcessor lazySpringdocBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String source = definition.getBeanClassName();
+                // 🏭 Beans @Bean: la clase relevante es la de su configuración
+                String factoryBean = definition.getFactoryBeanName();
+                if (source == null && factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)) {
+                    source = beanFactory.getBeanDefinition(factoryBean).getBeanClassName();
+                }
+                if (source != null && source.startsWith(SPRINGDOC_PACKAGE)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingJob;
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingReport;
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingRowError;
+import com.alejandro.microservices.api_wallet.admin.dto.OnboardingUserRequest;
+import com.alejandro.microservices.api_wallet.audit.entity.AuditLogEntry;
+import com.alejandro.microservices.api_wallet.auth.dto.AuthRequest;
+import com.alejandro.microservices.api_wallet.auth.dto.AuthResponse;
+import com.alejandro.microservices.api_wallet.timing.RequestQueryCounter;
+import com.alejandro.microservices.api_wallet.user.dto.ChangePasswordRequest;
+import com.alejandro.microservices.api_wallet.wallet.dto.TransactionResponse;
+import com.alejandro.microservices.api_wallet.wallet.dto.TransferRequest;
+import com.alejandro.microservices.api_wallet.wallet.dto.TransferResponse;
+import com.alejandro.microservices.api_wallet.wallet.dto.WalletResponse;
+import com.alejandro.microservices.api_wallet.wallet.entity.BlacklistedToken;
+import com.alejandro.microservices.api_wallet.wallet.entity.RefreshSession;
+import com.alejandro.microservices.api_wallet.wallet.entity.RevocationEvent;
+import com.alejandro.microservices.api_wallet.wallet.entity.Role;
+import com.alejandro.microservices.api_wallet.wallet.entity.TokenRevocation;
+import com.alejandro.microservices.api_wallet.wallet.entity.Transaction;
+import com.alejandro.microservices.api_wallet.wallet.entity.User;
+import com.alejandro.microservices.api_wallet.wallet.entity.Wallet;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 🧊 Native Hints Config - Metadatos para la imagen nativa de GraalVM
+ *
+ * native-image solo conserva lo que el análisis estático ve alcanzable. Todo
+ * lo que se crea por reflexión, ServiceLoader o nombre de clase en texto se
+ * declara aquí (perfil Maven "native"). Spring AOT, la reachability metadata
+ * de GraalVM y springdoc cubren el resto del framework.
+ *
+ * 🗂️ Qué se registra:
+ * - Entidades JPA: Hibernate instancia y rellena campos por reflexión
+ * - DTOs (getters/setters de Lombok): binding de Jackson en requests y respuestas
+ * - jjwt: jjwt-impl y jjwt-jackson son dependencias runtime que jjwt-api carga
+ *   por nombre de clase y con ServiceLoader
+ * - StatementInspector y dialectos configurados por nombre en application.properties
+ * - Especificación OpenAPI precalculada y recursos de swagger-ui
+ * - Migraciones de Flyway por fabricante (db/migration/{vendor})
+ *
+ * Lombok no necesita hints propios: genera bytecode normal en compilación.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.WalletRuntimeHints.class)
+@RegisterReflectionForBinding({
+        AuthRequest.class, AuthResponse.class, ChangePasswordRequest.class,
+        TransferRequest.class, TransferResponse.class, WalletResponse.class, TransactionResponse.class,
+        OnboardingUserRequest.class, OnboardingJob.class, OnboardingReport.class, OnboardingRowError.class
+})
+public class NativeHintsConfig {
+
+    static class WalletRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final List<Class<?>> ENTITIES = List.of(
+                User.class, Role.class, Wallet.class, Transaction.class, BlacklistedToken.class,
+                RefreshSession.class, RevocationEvent.class, TokenRevocation.class, AuditLogEntry.class);
+
+        // 🔑 jjwt-api -> jjwt-impl (Classes.newInstance por nombre)
+        private static final List<String> JJWT_IMPL = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+                "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+                "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+                "io.jsonwebtoken.impl.security.KeysBridge",
+                "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyOperations",
+                "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardCurves",
+                "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+                "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder");
+
+        // 🧩 Serializador JSON de jjwt (ServiceLoader de io.jsonwebtoken.io.Serializer/Deserializer)
+        private static final List<String> JJWT_JACKSON = List.of(
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        // 🗄️ Clases que Hibernate y Hikari resuelven desde propiedades de texto
+        private static final List<String> BY_NAME = List.of(
+                "org.hibernate.dialect.MySQL8Dialect",
+                "org.hibernate.dialect.MySQLDialect",
+                "org.hibernate.dialect.H2Dialect",
+                "com.mysql.cj.jdbc.Driver",
+                "org.h2.Driver",
+                "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            ENTITIES.forEach(entity -> hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS));
+
+            Stream.concat(JJWT_IMPL.stream(), JJWT_JACKSON.stream()).forEach(type ->
+                    hints.reflection().registerType(TypeReference.of(type),
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS));
+            hints.resources()
+                    .registerPattern("META-INF/services/io.jsonwebtoken.io.Serializer")
+                    .registerPattern("META-INF/services/io.jsonwebtoken.io.Deserializer")
+                    .registerPattern("META-INF/services/io.jsonwebtoken.CompressionCodec");
+
+            hints.reflection().registerType(RequestQueryCounter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            BY_NAME.forEach(type -> hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+
+            // 📖 springdoc: /openapi.json del modo AOT y assets de swagger-ui
+            hints.resources()
+                    .registerPattern("static/openapi.json")
+                    .registerPattern("META-INF/resources/webjars/swagger-ui/**");
+
+            // 🗄️ Flyway: Spring Boot solo registra db/migration/*, no las subcarpetas por fabricante
+            hints.resources().registerPattern("db/migration/**");
+
+            // 🗃️ Regiones de la caché de segundo nivel (Caffeine JCache lee application.conf)
+            hints.resources().registerPattern("application.conf");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 🔒 Fija las lecturas al primario aunque se llamen desde un método @ReplicaRead
+ *
+ * Para datos de autenticación que no admiten retraso: usuarios (enabled,
+ * hash de contraseña), sesiones de refresh token y revocaciones. Una lectura
+ * desfasada volvería a cachear un usuario ya deshabilitado o rechazaría un
+ * refresh token recién rotado.
+ *
+ * Decide el pool de la conexión que se abre dentro del método; si la
+ * transacción exterior ya había obtenido una conexión de réplica, se sigue
+ * usando esa.
+ *
+ * @see ReplicaRead
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PrimaryRead {
+}
@@ -0,0 +1,129 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 📚 Read Replica Config - Réplicas de lectura para las consultas readOnly
+ *
+ * Se activa al definir datasource.replicas.urls (lista separada por comas).
+ * Sustituye al DataSource auto-configurado por:
+ * <pre>
+ * dataSource (@Primary)   LazyConnectionDataSourceProxy
+ *   └─ ReplicaRoutingDataSource
+ *        ├─ primary       spring.datasource.* (+ spring.datasource.hikari.*)
+ *        └─ replica-N     datasource.replicas.urls[N], pool de solo lectura
+ * </pre>
+ *
+ * ⚙️ Configuración:
+ * - datasource.replicas.urls: URLs JDBC de las réplicas
+ * - datasource.replicas.username / password: por defecto las del primario
+ * - datasource.replicas.maximum-pool-size: conexiones por réplica (por defecto 10)
+ *
+ * Solo van a réplica las transacciones readOnly de métodos @ReplicaRead; los
+ * repositorios de usuarios, sesiones y revocaciones llevan @PrimaryRead.
+ * Flyway, JdbcTemplate y los jobs trabajan sin transacción readOnly, así que
+ * siguen yendo al primario. Hibernate libera la conexión al terminar cada
+ * transacción (en lugar de retenerla hasta el fin del request con
+ * open-in-view): así cada transacción de un mismo request se enruta por
+ * separado.
+ *
+ * ⚠️ Con AOT/imagen nativa la condición se evalúa al compilar: las réplicas
+ * deben estar configuradas en el build para poder usarlas en ejecución.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "datasource.replicas.urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (!StringUtils.hasText(properties.getName())) {
+            primary.setPoolName("primary");
+        }
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             ReadYourWritesGuard readYourWritesGuard,
+                                                             @Value("${datasource.replicas.urls}") String[] urls,
+                                                             @Value("${datasource.replicas.username:${spring.datasource.username:}}") String username,
+                                                             @Value("${datasource.replicas.password:${spring.datasource.password:}}") String password,
+                                                             @Value("${datasource.replicas.maximum-pool-size:10}") int maximumPoolSize) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.length);
+        for (String url : urls) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesGuard);
+    }
+
+    /**
+     * 💤 Conexión física diferida hasta la primera sentencia (ver ReplicaRoutingDataSource)
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * 🏷️ Publica @ReplicaRead / @PrimaryRead para ReplicaRoutingDataSource
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readRoutingAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(ReplicaRead.class, true))
+                .union(new AnnotationMatchingPointcut(PrimaryRead.class, true))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(ReplicaRead.class))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(PrimaryRead.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new ReadRoutingInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,31 @@
+package com.alejandro.microservices.api_wallet.config;
+
+/**
+ * Destino de lectura del hilo actual, publicado por ReadRoutingInterceptor y
+ * consultado por ReplicaRoutingDataSource al pedir la conexión física.
+ */
+final class ReadRoutingContext {
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private ReadRoutingContext() {
+    }
+
+    static boolean isReplicaAllowed() {
+        return Boolean.TRUE.equals(REPLICA_ALLOWED.get());
+    }
+
+    /**
+     * @param replicaAllowed true (@ReplicaRead), false (@PrimaryRead) o null (sin anotación)
+     * @return Valor anterior, para restaurarlo al salir del método
+     */
+    static Boolean set(Boolean replicaAllowed) {
+        Boolean previous = REPLICA_ALLOWED.get();
+        if (replicaAllowed == null) {
+            REPLICA_ALLOWED.remove();
+        } else {
+            REPLICA_ALLOWED.set(replicaAllowed);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,53 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+
+/**
+ * Publica @ReplicaRead / @PrimaryRead en ReadRoutingContext mientras dura la
+ * llamada. La anotación del método manda sobre la de la clase o interfaz
+ * (los repositorios de Spring Data se anotan en la interfaz).
+ */
+class ReadRoutingInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Boolean previous = ReadRoutingContext.set(replicaAllowed(invocation));
+        try {
+            return invocation.proceed();
+        } finally {
+            ReadRoutingContext.set(previous);
+        }
+    }
+
+    private static Boolean replicaAllowed(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? invocation.getThis().getClass()
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+        Boolean declared = declared(method);
+        if (declared == null && method != invocation.getMethod()) {
+            declared = declared(invocation.getMethod());
+        }
+        if (declared == null) {
+            declared = declared(targetClass);
+        }
+        return declared != null ? declared : ReadRoutingContext.isReplicaAllowed();
+    }
+
+    private static Boolean declared(AnnotatedElement element) {
+        if (AnnotatedElementUtils.hasAnnotation(element, PrimaryRead.class)) {
+            return Boolean.FALSE;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(element, ReplicaRead.class)) {
+            return Boolean.TRUE;
+        }
+        return null;
+    }
+}
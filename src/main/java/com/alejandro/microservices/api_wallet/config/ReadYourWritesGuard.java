@@ -0,0 +1,70 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 📌 Read Your Writes Guard - Lecturas propias al primario tras escribir
+ *
+ * Una réplica puede ir unos milisegundos (o segundos) por detrás del primario:
+ * el usuario que acaba de transferir podría consultar su balance y ver el
+ * anterior. Tras una escritura propia, el usuario queda "fijado" al primario
+ * durante datasource.read-your-writes.window (por defecto 5s); el resto de
+ * usuarios sigue leyendo de las réplicas.
+ *
+ * ⚙️ Configuración:
+ * - datasource.read-your-writes.window: duración de la fijación (0 la desactiva)
+ * - datasource.read-your-writes.max-users: usuarios fijados a la vez como máximo
+ *
+ * El estado es local al nodo: con varios nodos, el balanceador debe mantener
+ * al usuario en el mismo nodo (sesión pegajosa por token) durante la ventana.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class ReadYourWritesGuard {
+
+    private final Cache<String, Boolean> pinned;
+    private final boolean enabled;
+
+    public ReadYourWritesGuard(@Value("${datasource.read-your-writes.window:5s}") Duration window,
+                               @Value("${datasource.read-your-writes.max-users:100000}") long maxUsers) {
+        this.enabled = !window.isZero() && !window.isNegative();
+        this.pinned = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(enabled ? window : Duration.ofMillis(1))
+                .build();
+    }
+
+    /**
+     * 📌 Fija las lecturas del usuario al primario durante la ventana
+     *
+     * @param username Usuario que acaba de escribir
+     */
+    public void pin(String username) {
+        if (enabled && username != null) {
+            pinned.put(username, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * 🔍 ¿Debe leer del primario el usuario autenticado en este hilo?
+     *
+     * @return true si escribió dentro de la ventana
+     */
+    public boolean isCurrentUserPinned() {
+        if (!enabled) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && pinned.getIfPresent(authentication.getName()) != null;
+    }
+}
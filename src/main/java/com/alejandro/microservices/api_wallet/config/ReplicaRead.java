@@ -0,0 +1,24 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 📚 Marca una consulta que tolera leer de una réplica con retraso
+ *
+ * Solo las transacciones @Transactional(readOnly = true) que se abren dentro
+ * de un método (o clase) con esta anotación van a una réplica; cualquier otra
+ * lectura usa el primario. Pensada para informes y consultas de servicio cuyo
+ * resultado puede ir unos segundos por detrás (balance, historial).
+ *
+ * @see PrimaryRead
+ * @see ReplicaRoutingDataSource
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
@@ -0,0 +1,75 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🔀 Replica Routing DataSource - Primario para escrituras, réplicas para lecturas
+ *
+ * Decide el pool en cada conexión física:
+ * - Transacción @Transactional(readOnly = true) dentro de un método @ReplicaRead
+ *   → una réplica (round robin)
+ * - Cualquier otra cosa (escrituras, lecturas sin @ReplicaRead, @PrimaryRead,
+ *   trabajo sin transacción, migraciones) → primario
+ * - Usuario fijado por ReadYourWritesGuard → primario aunque sea solo lectura
+ *
+ * readOnly por sí solo no basta: los finders de Spring Data y las cargas de
+ * usuario también son de solo lectura y necesitan el dato más reciente.
+ *
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy: la conexión se pide
+ * en la primera sentencia, cuando el flag readOnly de la transacción ya está
+ * publicado en TransactionSynchronizationManager (ver ReadReplicaConfig).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    ReadYourWritesGuard readYourWritesGuard) {
+        this.replicas = replicas;
+        this.readYourWritesGuard = readYourWritesGuard;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !ReadRoutingContext.isReplicaAllowed()
+                || replicas.isEmpty()
+                || readYourWritesGuard.isCurrentUserPinned()) {
+            return PRIMARY;
+        }
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    /**
+     * 🧹 Las réplicas no son beans: el pool del primario lo cierra Spring, estas aquí
+     */
+    @Override
+    public void destroy() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -1,6 +1,9 @@
 package com.alejandro.microservices.api_wallet.config;
 
+import com.alejandro.microservices.api_wallet.security.RefreshSessionService;
+import com.alejandro.microservices.api_wallet.security.RevocationFeed;
 import com.alejandro.microservices.api_wallet.security.TokenBlacklistService;
+import com.alejandro.microservices.api_wallet.security.TokenRevocationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -12,9 +15,18 @@ public class TokenCleanupScheduler {
     private static final Logger logger = LoggerFactory.getLogger(TokenCleanupScheduler.class);
     
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RevocationFeed revocationFeed;
+    private final RefreshSessionService refreshSessionService;
 
-    public TokenCleanupScheduler(TokenBlacklistService tokenBlacklistService) {
+    public TokenCleanupScheduler(TokenBlacklistService tokenBlacklistService,
+                                 TokenRevocationService tokenRevocationService,
+                                 RevocationFeed revocationFeed,
+                                 RefreshSessionService refreshSessionService) {
         this.tokenBlacklistService = tokenBlacklistService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.revocationFeed = revocationFeed;
+        this.refreshSessionService = refreshSessionService;
     }
 
     /**
@@ -25,13 +37,18 @@ public class TokenCleanupScheduler {
     @Scheduled(cron = "0 0 * * * *")
     public void cleanupExpiredTokens() {
         try {
-            long beforeCount = tokenBlacklistService.getBlacklistSize();
-            tokenBlacklistService.removeExpired();
-            long afterCount = tokenBlacklistService.getBlacklistSize();
-            long removedCount = beforeCount - afterCount;
+            int removedCount = tokenBlacklistService.removeExpired();
             
-            logger.info("Limpieza de tokens expirados completada. Eliminados: {}, Restantes: {}", 
-                       removedCount, afterCount);
+            logger.info("Limpieza de tokens expirados completada. Eliminados: {}", removedCount);
+
+            int removedRevocations = tokenRevocationService.removeExpired();
+            logger.info("Revocaciones por usuario caducadas eliminadas: {}", removedRevocations);
+
+            int removedEvents = revocationFeed.removeExpired();
+            logger.info("Eventos antiguos del log de revocaciones eliminados: {}", removedEvents);
+
+            int removedSessions = refreshSessionService.removeExpired();
+            logger.info("Sesiones de refresh token expiradas eliminadas: {}", removedSessions);
         } catch (Exception e) {
             logger.error("Error durante la limpieza de tokens expirados", e);
         }
@@ -44,13 +61,9 @@ public class TokenCleanupScheduler {
     @Scheduled(cron = "0 0 2 * * *")
     public void dailyCleanup() {
         try {
-            long beforeCount = tokenBlacklistService.getBlacklistSize();
-            tokenBlacklistService.removeExpired();
-            long afterCount = tokenBlacklistService.getBlacklistSize();
-            long removedCount = beforeCount - afterCount;
+            int removedCount = tokenBlacklistService.removeExpired();
             
-            logger.info("Limpieza diaria de tokens expirados completada. Eliminados: {}, Restantes: {}", 
-                       removedCount, afterCount);
+            logger.info("Limpieza diaria de tokens expirados completada. Eliminados: {}", removedCount);
         } catch (Exception e) {
             logger.error("Error durante la limpieza diaria de tokens expirados", e);
         }
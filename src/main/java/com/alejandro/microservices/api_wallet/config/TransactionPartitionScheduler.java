@@ -0,0 +1,153 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 📅 Transaction Partition Scheduler - Particiones mensuales del ledger
+ *
+ * La tabla transactions está particionada por mes sobre created_at (migración
+ * V3). Este componente mantiene el esquema de particiones:
+ * - Crea por adelantado los meses siguientes partiendo p_future
+ *   (REORGANIZE PARTITION sobre una partición vacía: solo metadatos)
+ * - Con retención configurada, elimina los meses vencidos con DROP PARTITION
+ *   en lugar de un DELETE fila a fila
+ *
+ * ⚠️ DROP PARTITION borra los movimientos de ese mes de forma definitiva;
+ * la retención está desactivada por defecto (ledger.partitions.retention-months=0).
+ *
+ * Solo actúa sobre MySQL; en H2 la tabla no está particionada. Es idempotente:
+ * si dos nodos lo ejecutan a la vez, el segundo falla, lo registra y la
+ * siguiente pasada ya ve las particiones creadas.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class TransactionPartitionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPartitionScheduler.class);
+
+    private static final String TABLE = "transactions";
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public TransactionPartitionScheduler(JdbcTemplate jdbcTemplate,
+                                         @Value("${ledger.partitions.months-ahead:3}") int monthsAhead,
+                                         @Value("${ledger.partitions.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * 🚀 Al arrancar y cada día a las 3:30 (UTC del servidor)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 3 * * *")
+    public void maintainPartitions() {
+        try {
+            if (!isMySql()) {
+                return;
+            }
+            List<Partition> partitions = loadPartitions();
+            if (partitions.isEmpty()) {
+                return; // tabla sin particionar
+            }
+            createUpcoming(partitions);
+            dropExpired(partitions);
+        } catch (Exception e) {
+            logger.error("Error manteniendo las particiones de {}", TABLE, e);
+        }
+    }
+
+    private void createUpcoming(List<Partition> partitions) {
+        // ⏭️ Límite superior del último mes que debe existir ya
+        LocalDate target = YearMonth.now(ZoneOffset.UTC).plusMonths(monthsAhead + 1L).atDay(1);
+        LocalDate last = partitions.stream()
+                .map(Partition::upperBound)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(target);
+
+        while (last.isBefore(target)) {
+            LocalDate next = last.plusMonths(1);
+            String name = PARTITION_NAME.format(last);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                    + "PARTITION " + name + " VALUES LESS THAN ('" + next + "'), "
+                    + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            logger.info("Partición {} creada en {} (hasta {})", name, TABLE, next);
+            last = next;
+        }
+    }
+
+    private void dropExpired(List<Partition> partitions) {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        LocalDate cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths).atDay(1);
+        List<String> expired = partitions.stream()
+                .filter(partition -> partition.upperBound() != null && !partition.upperBound().isAfter(cutoff))
+                .map(Partition::name)
+                .toList();
+        if (expired.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+        logger.warn("Particiones de {} anteriores a {} eliminadas: {}", TABLE, cutoff, expired);
+    }
+
+    /**
+     * 🏷️ Nombre de la partición mensual (pYYYYMM), compartido con LedgerArchiveJob
+     */
+    public static String partitionName(YearMonth month) {
+        return PARTITION_NAME.format(month.atDay(1));
+    }
+
+    private List<Partition> loadPartitions() {
+        return jdbcTemplate.query(
+                "SELECT partition_name, partition_description FROM information_schema.partitions "
+                        + "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL "
+                        + "ORDER BY partition_ordinal_position",
+                (rs, rowNum) -> new Partition(rs.getString(1), parseBound(rs.getString(2))),
+                TABLE);
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(product);
+    }
+
+    // RANGE COLUMNS: "'2025-02-01 00:00:00'" o "MAXVALUE" (null)
+    private static LocalDate parseBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").substring(0, 10));
+    }
+
+    /**
+     * Partición y límite superior exclusivo (null para MAXVALUE).
+     */
+    private record Partition(String name, LocalDate upperBound) {
+    }
+}
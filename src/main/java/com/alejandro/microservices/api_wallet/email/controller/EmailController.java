@@ -5,9 +5,12 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.mail.MessagingException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+// 💤 Solo para pruebas de correo: se crea con el primer request, no en el arranque
+@Lazy
 @RestController
 @RequestMapping("/api/email")
 @Tag(name = "Email", description = "Endpoints para pruebas de envío de correos")
@@ -1,5 +1,8 @@
 package com.alejandro.microservices.api_wallet.email.service;
 
+import com.alejandro.microservices.api_wallet.timing.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -16,6 +19,12 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RequestTiming requestTiming;
+
     /**
      * Envía un correo con archivo adjunto
      */
@@ -30,7 +39,7 @@ public class EmailService {
         FileSystemResource archivo = new FileSystemResource(new File(rutaArchivo));
         helper.addAttachment(nombreArchivo, archivo);
 
-        mailSender.send(mensaje);
+        enviar(mensaje, "attachment");
     }
 
     /**
@@ -44,7 +53,28 @@ public class EmailService {
         helper.setSubject(asunto);
         helper.setText(cuerpo, true); // true para HTML
 
-        mailSender.send(mensaje);
+        enviar(mensaje, "simple");
+    }
+
+    /**
+     * Envía el mensaje midiendo la latencia SMTP en el timer email.send
+     * (tags kind y outcome).
+     */
+    private void enviar(MimeMessage mensaje, String tipo) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String resultado = "failure";
+        try {
+            mailSender.send(mensaje);
+            resultado = "success";
+        } finally {
+            long nanos = sample.stop(Timer.builder("email.send")
+                    .description("Envío de correo por SMTP")
+                    .tag("kind", tipo)
+                    .tag("outcome", resultado)
+                    .register(meterRegistry));
+            // ⏱️ Solo cuenta si el envío ocurre en el hilo del request (p. ej. /api/email)
+            requestTiming.record(RequestTiming.Stage.SMTP, nanos);
+        }
     }
 
     /**
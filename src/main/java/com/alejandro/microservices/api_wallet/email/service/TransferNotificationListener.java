@@ -0,0 +1,53 @@
+package com.alejandro.microservices.api_wallet.email.service;
+
+import com.alejandro.microservices.api_wallet.config.AsyncConfig;
+import com.alejandro.microservices.api_wallet.wallet.service.TransferCompletedEvent;
+import jakarta.mail.MessagingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 📧 Transfer Notification Listener - Correos de transferencia fuera del request
+ *
+ * Antes los dos correos se enviaban dentro de la transacción de la
+ * transferencia: el request (y las filas bloqueadas) esperaban al SMTP. Ahora
+ * se envían después del commit en el pool mailExecutor (ver AsyncConfig).
+ *
+ * ⚠️ Un fallo de SMTP no afecta a la transferencia, que ya está confirmada;
+ * queda contado en el timer email.send (outcome=failure) y en el log con su traza.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class TransferNotificationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferNotificationListener.class);
+
+    private final EmailService emailService;
+
+    public TransferNotificationListener(EmailService emailService) {
+        this.emailService = emailService;
+    }
+
+    @Async(AsyncConfig.MAIL_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        double monto = event.amount().doubleValue();
+        try {
+            // 📬 Notificar al destinatario sobre transferencia recibida
+            emailService.enviarNotificacionTransferencia(event.toEmail(), event.fromEmail(), monto);
+
+            // ✅ Confirmar al remitente sobre transferencia enviada
+            emailService.enviarConfirmacionTransferencia(event.fromEmail(), event.toEmail(), monto);
+        } catch (MessagingException | RuntimeException e) {
+            logger.error("Error enviando correos de la transferencia {} -> {}",
+                    event.fromEmail(), event.toEmail(), e);
+        }
+    }
+}
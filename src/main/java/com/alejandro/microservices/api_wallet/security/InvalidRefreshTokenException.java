@@ -0,0 +1,12 @@
+package com.alejandro.microservices.api_wallet.security;
+
+/**
+ * El refresh token no corresponde a una sesión activa (inválido, expirado,
+ * revocado o reutilizado tras una rotación).
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
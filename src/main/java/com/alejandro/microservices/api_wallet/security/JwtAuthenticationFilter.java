@@ -1,18 +1,22 @@
 package com.alejandro.microservices.api_wallet.security;
 
+import com.alejandro.microservices.api_wallet.timing.RequestTiming;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import com.alejandro.microservices.api_wallet.security.TokenBlacklistService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 🛡️ JWT Authentication Filter - Filtro de Seguridad Principal
@@ -30,8 +34,8 @@ import java.io.IOException;
  * 🔄 Flujo de Autenticación:
  * 1. Extraer token del header "Authorization: Bearer <token>"
  * 2. Validar firma y expiración del token
- * 3. Verificar que no esté en blacklist
- * 4. Cargar detalles del usuario
+ * 3. Verificar que no esté en blacklist ni revocado por usuario
+ * 4. Construir autoridades desde el claim "roles" del token
  * 5. Establecer autenticación en SecurityContext
  * 
  * 🛡️ Medidas de Seguridad:
@@ -43,7 +47,10 @@ import java.io.IOException;
  * 📊 Performance:
  * - Filtro ejecutado una vez por request (OncePerRequestFilter)
  * - Validación rápida con early returns
+ * - Un único parseo del token por request
+ * - Sin consulta de usuario: los roles viajan firmados en el token
  * - No bloquea requests sin token
+ * - Cada etapa medida en security.jwt.filter.stage (parse, blacklist, user_load)
  * 
  * @author Alejandro
  * @version 1.0
@@ -54,8 +61,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     // 🔧 Dependencias inyectadas por constructor (mejor práctica que @Autowired)
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
-    private final TokenBlacklistService tokenBlacklistService;
+    private final RevocationCache revocationCache;
+    private final RequestTiming requestTiming;
+
+    // 📊 Timers por etapa, registrados una sola vez
+    private final Timer parseTimer;
+    private final Timer blacklistTimer;
+    private final Timer userLoadTimer;
 
     /**
      * 🔧 Constructor con inyección de dependencias
@@ -66,15 +78,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * - Inmutabilidad de dependencias
      * 
      * @param jwtTokenProvider Servicio para validación de JWT
-     * @param userDetailsService Servicio para cargar detalles de usuario
-     * @param tokenBlacklistService Servicio para verificar blacklist
+     * @param revocationCache Blacklist y marcas por usuario en memoria (las mismas que usa la pila reactiva)
+     * @param requestTiming Desglose por request para Server-Timing
+     * @param meterRegistry Registro de métricas de Micrometer
      */
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
-                                   UserDetailsService userDetailsService,
-                                   TokenBlacklistService tokenBlacklistService) {
+                                   RevocationCache revocationCache,
+                                   RequestTiming requestTiming,
+                                   MeterRegistry meterRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.userDetailsService = userDetailsService;
-        this.tokenBlacklistService = tokenBlacklistService;
+        this.revocationCache = revocationCache;
+        this.requestTiming = requestTiming;
+        this.parseTimer = stageTimer(meterRegistry, "parse");
+        this.blacklistTimer = stageTimer(meterRegistry, "blacklist");
+        // user_load: construcción del principal desde los claims (ya no consulta la base de datos)
+        this.userLoadTimer = stageTimer(meterRegistry, "user_load");
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("security.jwt.filter.stage")
+                .description("Duración de cada etapa del filtro JWT")
+                .tag("stage", stage)
+                .register(meterRegistry);
     }
 
     /**
@@ -85,8 +110,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * 
      * 🔄 Flujo de Procesamiento:
      * 1. Extraer token del header Authorization
-     * 2. Validar token (firma, expiración, blacklist)
-     * 3. Cargar detalles del usuario
+     * 2. Validar token (firma, expiración, blacklist, revocación por usuario)
+     * 3. Construir autoridades desde los claims verificados
      * 4. Establecer autenticación en SecurityContext
      * 5. Continuar con la cadena de filtros
      * 
@@ -94,11 +119,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * - Formato correcto del header Authorization
      * - Token válido y no expirado
      * - Token no en blacklist
-     * - Usuario existe en el sistema
+     * - Token emitido después de la última revocación del usuario
      * 
      * ⚡ Optimizaciones:
      * - Early return si no hay token
-     * - Validación rápida antes de cargar usuario
+     * - Ninguna consulta a base de datos: blacklist y revocaciones en memoria,
+     *   autoridades tomadas del token
      * - Manejo de errores sin bloquear request
      * 
      * @param request Request HTTP entrante
@@ -120,26 +146,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7); // Remover "Bearer " prefix
 
-            // 🛡️ Validación triple de seguridad
-            if (jwtTokenProvider.validarToken(token) && 
-                !jwtTokenProvider.tokenExpirado(token) && 
-                !tokenBlacklistService.isTokenBlacklisted(token)) {
-                
+            // 🛡️ Firma y expiración verificadas en un único parseo
+            long t0 = System.nanoTime();
+            Claims claims = jwtTokenProvider.parsearClaims(token);
+            long t1 = System.nanoTime();
+            parseTimer.record(t1 - t0, TimeUnit.NANOSECONDS);
+            requestTiming.record(RequestTiming.Stage.JWT_PARSE, t1 - t0);
+
+            // 🛡️ Revocación por usuario (iat anterior a la marca) y blacklist por token;
+            // con la blacklist vacía no se calcula el SHA-256
+            boolean accepted = claims != null &&
+                !revocationCache.isRevoked(token, claims.getSubject(), claims.getIssuedAt());
+            long t2 = System.nanoTime();
+            if (claims != null) {
+                blacklistTimer.record(t2 - t1, TimeUnit.NANOSECONDS);
+                requestTiming.record(RequestTiming.Stage.JWT_BLACKLIST, t2 - t1);
+            }
+
+            if (accepted) {
                 try {
-                    // 🔍 Extraer username del token validado
-                    String username = jwtTokenProvider.obtenerUsernameDelToken(token);
+                    // 🔍 Username del token validado
+                    String username = claims.getSubject();
                     
-                    // 👤 Cargar detalles completos del usuario
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    // 🏷️ Autoridades firmadas dentro del token (sin loadUserByUsername)
+                    List<GrantedAuthority> authorities = jwtTokenProvider.obtenerAutoridades(claims);
 
                     // 🔐 Crear token de autenticación con autoridades
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities()
+                                    username, null, authorities
                             );
 
                     // 🎯 Establecer autenticación en el contexto de seguridad
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    long userLoadNanos = System.nanoTime() - t2;
+                    userLoadTimer.record(userLoadNanos, TimeUnit.NANOSECONDS);
+                    requestTiming.record(RequestTiming.Stage.JWT_USER, userLoadNanos);
                     
                 } catch (Exception e) {
                     // 🔒 Log de seguridad sin exponer información sensible
@@ -2,11 +2,16 @@ package com.alejandro.microservices.api_wallet.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * 🔐 JWT Token Provider - Componente Core de Seguridad
@@ -19,6 +24,8 @@ import java.util.Date;
  * - Validación robusta con manejo de excepciones
  * - Uso de algoritmos criptográficos seguros (HS256)
  * - Extracción segura de claims del token
+ * - Identificador único (jti) en cada token emitido
+ * - Roles del usuario embebidos en el access token (claim "roles")
  * 
  * 🛡️ Seguridad:
  * - Tokens de corta duración para minimizar exposición
@@ -45,6 +52,12 @@ public class JwtTokenProvider {
     private final long ACCESS_TOKEN_EXPIRATION = 900000; // 15 minutos (15 * 60 * 1000)
     private final long REFRESH_TOKEN_EXPIRATION = 604800000; // 7 días (7 * 24 * 60 * 60 * 1000)
 
+    // 🏷️ Claim con las autoridades del usuario (p. ej. ["ROLE_USER", "ROLE_ADMIN"])
+    public static final String ROLES_CLAIM = "roles";
+
+    // 📱 Claim con el id de la sesión de refresh token (un dispositivo)
+    public static final String SESSION_CLAIM = "sid";
+
     /**
      * 🔑 Genera la clave de firma para JWT usando HMAC-SHA256
      * 
@@ -69,12 +82,35 @@ public class JwtTokenProvider {
      * - Acceso a recursos protegidos
      * - Operaciones sensibles (transferencias, consultas de balance)
      * 
+     * ⚡ Las autoridades viajan en el claim "roles" para que el filtro JWT
+     * construya la autenticación sin consultar la base de datos.
+     * 
+     * @param username Identificador único del usuario
+     * @param authorities Autoridades del usuario autenticado
+     * @return JWT Access Token firmado
+     */
+    public String generarAccessToken(String username, Collection<? extends GrantedAuthority> authorities) {
+        return generarAccessToken(username, authorities, null);
+    }
+
+    /**
+     * 🚀 Genera un Access Token ligado a una sesión de refresh token
+     *
+     * El claim "sid" permite que el logout revoque solo la sesión del
+     * dispositivo que lo solicita.
+     *
      * @param username Identificador único del usuario
+     * @param authorities Autoridades del usuario autenticado
+     * @param sessionId Id de la sesión de refresh (null si no aplica)
      * @return JWT Access Token firmado
      */
-    public String generarAccessToken(String username) {
+    public String generarAccessToken(String username, Collection<? extends GrantedAuthority> authorities,
+                                     Long sessionId) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
+                .claim(ROLES_CLAIM, authorities.stream().map(GrantedAuthority::getAuthority).toList())
+                .claim(SESSION_CLAIM, sessionId)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_EXPIRATION))
                 .signWith(getSigningKey())
@@ -88,15 +124,16 @@ public class JwtTokenProvider {
      * obtener nuevos access tokens sin requerir re-autenticación del usuario.
      * 
      * 🛡️ Seguridad:
-     * - Almacenado de forma segura en la base de datos
+     * - Solo su hash SHA-256 se guarda en refresh_sessions
      * - Revocado inmediatamente en logout
-     * - Validado contra la base de datos en cada uso
+     * - Rotado en cada uso (ver RefreshSessionService)
      * 
      * @param username Identificador único del usuario
      * @return JWT Refresh Token firmado
      */
     public String generarRefreshToken(String username) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_EXPIRATION))
@@ -113,7 +150,7 @@ public class JwtTokenProvider {
      */
     @Deprecated
     public String generarToken(String username) {
-        return generarAccessToken(username);
+        return generarAccessToken(username, List.of());
     }
 
     /**
@@ -137,6 +174,87 @@ public class JwtTokenProvider {
                 .getSubject();
     }
 
+    /**
+     * 🆔 Extrae el identificador único (jti) del token JWT
+     * 
+     * Los tokens emitidos antes de incluir el claim jti devuelven null.
+     * 
+     * @param token JWT token a procesar
+     * @return jti del token o null si no lo contiene
+     * @throws JwtException si el token es inválido
+     */
+    public String obtenerJtiDelToken(String token) {
+        return Jwts.parser()
+                .verifyWith(getSigningKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getId();
+    }
+
+    /**
+     * 📦 Valida el token y devuelve sus claims en un único parseo
+     * 
+     * Pensado para el filtro de autenticación: una sola verificación de firma
+     * y expiración en lugar de parsear el token una vez por cada dato.
+     * 
+     * @param token JWT token a procesar
+     * @return Claims del token o null si es inválido o ha expirado
+     */
+    public Claims parsearClaims(String token) {
+        try {
+            return Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 🏷️ Reconstruye las autoridades embebidas en el access token
+     * 
+     * Los claims ya fueron verificados por parsearClaims, así que los roles
+     * son tan confiables como la firma del token.
+     * 
+     * @param claims Claims de un token validado
+     * @return Autoridades del usuario (vacío si el token no trae roles)
+     */
+    public List<GrantedAuthority> obtenerAutoridades(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+    }
+
+    /**
+     * 📱 Id de la sesión de refresh token a la que pertenece el access token
+     * 
+     * @param claims Claims de un token validado
+     * @return Id de la sesión o null si el token no trae el claim sid
+     */
+    public Long obtenerSessionId(Claims claims) {
+        Object sid = claims.get(SESSION_CLAIM);
+        return sid instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * ⏳ Vida máxima de cualquier token emitido (la del refresh token)
+     * 
+     * Pasado este tiempo ningún token emitido antes de una revocación puede
+     * seguir siendo válido, por lo que la revocación puede olvidarse.
+     * 
+     * @return Duración máxima de un token en milisegundos
+     */
+    public long getMaxTokenLifetimeMs() {
+        return REFRESH_TOKEN_EXPIRATION;
+    }
+
     /**
      * ✅ Valida si el token JWT es válido y no ha expirado
      * 
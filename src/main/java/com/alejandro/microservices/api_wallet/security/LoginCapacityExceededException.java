@@ -0,0 +1,12 @@
+package com.alejandro.microservices.api_wallet.security;
+
+/**
+ * El pool de verificación de contraseñas está saturado: la petición de login
+ * se rechaza de inmediato en lugar de esperar o consumir CPU de otros endpoints.
+ */
+public class LoginCapacityExceededException extends RuntimeException {
+
+    public LoginCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,201 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 🚦 Login Throttle - Límite de intentos fallidos por cuenta y por IP
+ *
+ * Cada intento de fuerza bruta contra /auth/login cuesta un BCrypt completo.
+ * Este componente cuenta los fallos en una ventana deslizante por username y
+ * por IP de cliente, y rechaza los intentos que superan el límite antes de
+ * llegar a verificar la contraseña.
+ *
+ * ⚡ Sin locks:
+ * - Cada clave tiene un anillo de buckets de tiempo (AtomicLongArray)
+ * - Cada bucket empaqueta época y contador en un long: un único CAS por fallo
+ * - Un bucket de una época vieja se reinicia en el mismo CAS que lo incrementa
+ * - Consultar el límite son dos búsquedas en hash map y sumar unos pocos longs
+ *
+ * 🧹 Memoria acotada:
+ * - Las ventanas sin fallos recientes se eliminan periódicamente
+ * - Por encima de max-tracked-keys no se rastrean claves nuevas
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class LoginThrottle {
+
+    // 🧮 Bits bajos del bucket reservados para el contador
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final Map<String, Window> failuresByUser = new ConcurrentHashMap<>();
+    private final Map<String, Window> failuresByIp = new ConcurrentHashMap<>();
+
+    private final int buckets;
+    private final long bucketMillis;
+    private final int maxFailuresPerUser;
+    private final int maxFailuresPerIp;
+    private final int maxTrackedKeys;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LoginThrottle(@Value("${security.login.throttle.window-seconds:60}") long windowSeconds,
+                         @Value("${security.login.throttle.buckets:6}") int buckets,
+                         @Value("${security.login.throttle.max-failures-per-user:5}") int maxFailuresPerUser,
+                         @Value("${security.login.throttle.max-failures-per-ip:20}") int maxFailuresPerIp,
+                         @Value("${security.login.throttle.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this(windowSeconds, buckets, maxFailuresPerUser, maxFailuresPerIp, maxTrackedKeys, System::currentTimeMillis);
+    }
+
+    // 🧪 Reloj inyectable para recorrer la ventana en los tests sin esperar
+    LoginThrottle(long windowSeconds, int buckets, int maxFailuresPerUser, int maxFailuresPerIp,
+                  int maxTrackedKeys, LongSupplier clock) {
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, windowSeconds * 1000 / buckets);
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * 🔍 Indica si el intento debe rechazarse sin verificar la contraseña
+     *
+     * @param username Usuario del intento
+     * @param clientIp IP del cliente
+     * @return true si la cuenta o la IP superaron el límite de fallos
+     */
+    public boolean isBlocked(String username, String clientIp) {
+        long epoch = currentEpoch();
+        return count(lookup(failuresByUser, normalize(username)), epoch) >= maxFailuresPerUser
+                || count(lookup(failuresByIp, clientIp), epoch) >= maxFailuresPerIp;
+    }
+
+    /**
+     * ❌ Registra un intento fallido para la cuenta y la IP
+     *
+     * @param username Usuario del intento
+     * @param clientIp IP del cliente
+     */
+    public void recordFailure(String username, String clientIp) {
+        long epoch = currentEpoch();
+        increment(failuresByUser, normalize(username), epoch);
+        increment(failuresByIp, clientIp, epoch);
+    }
+
+    /**
+     * ✅ Un login correcto limpia los fallos de la cuenta (no los de la IP)
+     *
+     * @param username Usuario autenticado
+     */
+    public void recordSuccess(String username) {
+        String key = normalize(username);
+        if (key != null) {
+            failuresByUser.remove(key);
+        }
+    }
+
+    /**
+     * ⏳ Segundos que conviene esperar antes de reintentar
+     *
+     * @return Duración de la ventana en segundos
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, buckets * bucketMillis / 1000);
+    }
+
+    /**
+     * 🧹 Elimina ventanas sin fallos dentro del periodo actual
+     */
+    @Scheduled(fixedDelayString = "${security.login.throttle.cleanup-interval-ms:60000}")
+    public void removeExpired() {
+        long epoch = currentEpoch();
+        failuresByUser.values().removeIf(window -> count(window, epoch) == 0);
+        failuresByIp.values().removeIf(window -> count(window, epoch) == 0);
+    }
+
+    private void increment(Map<String, Window> windows, String key, long epoch) {
+        if (key == null) {
+            return;
+        }
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxTrackedKeys) {
+                return; // 🛑 Memoria acotada: el límite por IP sigue protegiendo
+            }
+            window = windows.computeIfAbsent(key, k -> new Window(buckets));
+        }
+        window.increment(epoch);
+    }
+
+    private static Window lookup(Map<String, Window> windows, String key) {
+        return key == null ? null : windows.get(key);
+    }
+
+    private long count(Window window, long epoch) {
+        return window == null ? 0 : window.count(epoch);
+    }
+
+    private long currentEpoch() {
+        return clock.getAsLong() / bucketMillis;
+    }
+
+    private static String normalize(String username) {
+        return username == null ? null : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Anillo de buckets; cada long guarda (época << COUNT_BITS) | contador.
+     */
+    private static final class Window {
+
+        private final AtomicLongArray slots;
+
+        Window(int buckets) {
+            this.slots = new AtomicLongArray(buckets);
+        }
+
+        void increment(long epoch) {
+            int index = (int) (epoch % slots.length());
+            while (true) {
+                long current = slots.get(index);
+                long next;
+                if (current >>> COUNT_BITS == epoch) {
+                    if ((current & COUNT_MASK) == COUNT_MASK) {
+                        return; // contador saturado
+                    }
+                    next = current + 1;
+                } else {
+                    next = (epoch << COUNT_BITS) | 1;
+                }
+                if (slots.compareAndSet(index, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        long count(long epoch) {
+            long total = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                long slot = slots.get(i);
+                // ✅ Solo cuentan los buckets dentro de la ventana actual
+                if (epoch - (slot >>> COUNT_BITS) < slots.length()) {
+                    total += slot & COUNT_MASK;
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.alejandro.microservices.api_wallet.security;
 
+import com.alejandro.microservices.api_wallet.wallet.repository.UserRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -7,33 +8,38 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.List;
 
 @Service
 public class MyUserDetailsService implements UserDetailsService {
 
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+
+    public MyUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Por simplicidad, creamos usuarios hardcodeados
-        // En una aplicación real, esto vendría de una base de datos
-        if ("admin".equals(username)) {
-            // Usuario admin con rol ADMIN y USER
-            List<SimpleGrantedAuthority> adminAuthorities = Arrays.asList(
-                new SimpleGrantedAuthority("ROLE_ADMIN"),
-                new SimpleGrantedAuthority("ROLE_USER")
-            );
-            return new User("admin", "$2a$10$dXJ3SW6G7P50lGmMkkmwe.20cQQubK3.HZWzG3YB1tlRy.fqvM/BG", // password: password
-                    adminAuthorities);
-        } else if ("user".equals(username)) {
-            // Usuario normal con rol USER
-            List<SimpleGrantedAuthority> userAuthorities = Arrays.asList(
-                new SimpleGrantedAuthority("ROLE_USER")
-            );
-            return new User("user", "$2a$10$dXJ3SW6G7P50lGmMkkmwe.20cQQubK3.HZWzG3YB1tlRy.fqvM/BG", // password: password
-                    userAuthorities);
-        } else {
-            throw new UsernameNotFoundException("User not found: " + username);
-        }
+        // Caché acotada con TTL delante de la base de datos
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    private UserDetails loadFromDatabase(String username) {
+        // Usuario y roles desde la caché de segundo nivel (natural id); SQL solo en el primer acceso
+        com.alejandro.microservices.api_wallet.wallet.entity.User user = userRepository.findCachedWithRolesByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+
+        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
+                .toList();
+
+        return User.withUsername(user.getEmail())
+                .password(user.getPassword())
+                .authorities(authorities)
+                .disabled(!user.isEnabled())
+                .build();
     }
 }
@@ -0,0 +1,137 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🔐 Password Verification Executor - Pool aislado para BCrypt
+ *
+ * BCrypt (coste 10) consume decenas de milisegundos de CPU por intento. Si se
+ * ejecuta en los hilos de Tomcat, una ráfaga de logins o un ataque de
+ * credential stuffing roba CPU a /api/wallet. Este componente ejecuta la
+ * verificación en un pool de tamaño fijo con cola acotada.
+ *
+ * 🛡️ Control de admisión:
+ * - Pool fijo (security.login.executor.threads, por defecto la mitad de los núcleos)
+ * - Cola acotada (security.login.executor.queue-capacity)
+ * - Cola llena: rechazo inmediato con LoginCapacityExceededException
+ * - Espera mayor a security.login.executor.timeout-ms: rechazo y cancelación
+ *
+ * 🧵 Con hilos virtuales (spring.threads.virtual.enabled) este pool sigue
+ * siendo de hilos de plataforma: BCrypt es CPU pura y el límite de hilos es
+ * justamente el control de admisión que se busca.
+ *
+ * 📊 Métricas (Micrometer):
+ * - executor.* con tag name=auth.password (activos, cola, completadas)
+ * - auth.password.verify: latencia del hash
+ * - auth.password.queue.wait: tiempo en cola antes de ejecutar
+ * - auth.password.rejected: logins rechazados por saturación
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class PasswordVerificationExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Timer verifyTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordVerificationExecutor(MeterRegistry meterRegistry,
+                                        @Value("${security.login.executor.threads:0}") int threads,
+                                        @Value("${security.login.executor.queue-capacity:64}") int queueCapacity,
+                                        @Value("${security.login.executor.timeout-ms:2000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+
+        new ExecutorServiceMetrics(executor, "auth.password", Tags.empty()).bindTo(meterRegistry);
+        this.verifyTimer = Timer.builder("auth.password.verify")
+                .description("Duración de la verificación de contraseña (BCrypt)")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Tiempo de espera en cola antes de verificar la contraseña")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("Logins rechazados por saturación del pool de verificación")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 🚀 Ejecuta la verificación en el pool aislado y espera el resultado
+     *
+     * @param task Verificación a ejecutar (normalmente AuthenticationManager.authenticate)
+     * @return Resultado de la verificación
+     * @throws LoginCapacityExceededException si la cola está llena o se supera el timeout
+     */
+    public <T> T execute(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    verifyTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new LoginCapacityExceededException("Capacidad de login agotada");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new LoginCapacityExceededException("Tiempo de espera de login agotado");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginCapacityExceededException("Login interrumpido");
+        } catch (ExecutionException e) {
+            // 🔄 Propagar la excepción original (p. ej. BadCredentialsException)
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error verificando la contraseña", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,167 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import com.alejandro.microservices.api_wallet.wallet.entity.RefreshSession;
+import com.alejandro.microservices.api_wallet.wallet.repository.RefreshSessionRepository;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * 🔄 Refresh Session Service - Sesiones de refresh token con rotación
+ *
+ * Cada login crea una sesión (una por dispositivo) en refresh_sessions, con
+ * clave SHA-256 del refresh token. Cada uso de /auth/refresh rota el token: el
+ * anterior deja de servir y se conserva su hash para detectar reutilización.
+ *
+ * 🛡️ Detección de reutilización:
+ * Si alguien presenta un refresh token ya rotado, o el cliente legítimo o un
+ * atacante tiene una copia robada. Como no se puede saber cuál, la sesión
+ * completa se revoca y el usuario debe volver a iniciar sesión.
+ *
+ * ⏳ Vida absoluta:
+ * Cada rotación renueva la expiración del refresh token, pero ninguna sesión
+ * pasa de created_at + max-session-lifetime-ms: llegado ese punto hay que
+ * volver a autenticarse aunque el dispositivo haya refrescado a diario.
+ *
+ * ⚡ Performance de /auth/refresh:
+ * - Una búsqueda por índice único sobre token_hash
+ * - Un UPDATE condicional (compare-and-set sobre el hash vigente)
+ * - Sin cargar User ni sus roles
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Service
+public class RefreshSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshSessionService.class);
+
+    private final RefreshSessionRepository refreshSessionRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
+    private final long maxSessionLifetimeMs;
+
+    public RefreshSessionService(RefreshSessionRepository refreshSessionRepository,
+                                 JwtTokenProvider jwtTokenProvider,
+                                 TokenRevocationService tokenRevocationService,
+                                 @Value("${security.refresh.max-session-lifetime-ms:2592000000}") long maxSessionLifetimeMs) {
+        this.refreshSessionRepository = refreshSessionRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
+        this.maxSessionLifetimeMs = maxSessionLifetimeMs;
+    }
+
+    /**
+     * 🆕 Crea una sesión nueva para el usuario autenticado
+     *
+     * @param username Usuario autenticado
+     * @return Id de la sesión y refresh token emitido
+     */
+    public IssuedSession createSession(String username) {
+        String refreshToken = jwtTokenProvider.generarRefreshToken(username);
+        Instant now = Instant.now();
+        RefreshSession session = refreshSessionRepository.save(RefreshSession.builder()
+                .username(username)
+                .tokenHash(TokenDigest.sha256(refreshToken))
+                .expiresAt(earliest(jwtTokenProvider.obtenerFechaExpiracionInstant(refreshToken),
+                        now.plusMillis(maxSessionLifetimeMs)))
+                .createdAt(now)
+                .build());
+        return new IssuedSession(session.getId(), username, refreshToken);
+    }
+
+    /**
+     * 🔄 Valida y rota un refresh token
+     *
+     * @param refreshToken Refresh token presentado por el cliente
+     * @return Sesión con el nuevo refresh token
+     * @throws InvalidRefreshTokenException si el token no corresponde a una sesión activa
+     */
+    public IssuedSession rotate(String refreshToken) {
+        // ✅ Firma y expiración
+        Claims claims = jwtTokenProvider.parsearClaims(refreshToken);
+        if (claims == null) {
+            throw new InvalidRefreshTokenException("Refresh token inválido");
+        }
+
+        // ⛔ Refresh tokens anteriores a un logout global o cambio de contraseña
+        if (tokenRevocationService.isRevoked(claims.getSubject(), claims.getIssuedAt())) {
+            throw new InvalidRefreshTokenException("Refresh token revocado");
+        }
+
+        byte[] presentedHash = TokenDigest.sha256(refreshToken);
+        RefreshSession session = refreshSessionRepository.findByTokenHash(presentedHash).orElse(null);
+
+        if (session == null) {
+            // 🚨 Token ya rotado: posible robo, se revoca la sesión completa
+            refreshSessionRepository.findIdByPreviousHash(presentedHash).ifPresent(sessionId -> {
+                logger.warn("Reutilización de refresh token detectada para {} (sesión {}). Sesión revocada.",
+                        claims.getSubject(), sessionId);
+                refreshSessionRepository.revokeById(sessionId);
+            });
+            throw new InvalidRefreshTokenException("Refresh token no válido para este usuario");
+        }
+
+        Instant now = Instant.now();
+        Instant sessionDeadline = session.getCreatedAt().plusMillis(maxSessionLifetimeMs);
+        if (session.isRevoked() || session.getExpiresAt().isBefore(now) || !now.isBefore(sessionDeadline)) {
+            throw new InvalidRefreshTokenException("Sesión expirada o revocada");
+        }
+
+        // ⏳ La rotación renueva la expiración, nunca más allá de la vida absoluta de la sesión
+        String newRefreshToken = jwtTokenProvider.generarRefreshToken(session.getUsername());
+        int updated = refreshSessionRepository.rotate(session.getId(), presentedHash,
+                TokenDigest.sha256(newRefreshToken),
+                earliest(jwtTokenProvider.obtenerFechaExpiracionInstant(newRefreshToken), sessionDeadline), now);
+
+        // 🔁 Otro request rotó la sesión con el mismo token en paralelo
+        if (updated == 0) {
+            throw new InvalidRefreshTokenException("Refresh token ya utilizado");
+        }
+
+        return new IssuedSession(session.getId(), session.getUsername(), newRefreshToken);
+    }
+
+    /**
+     * 🚪 Revoca una sesión (logout del dispositivo actual)
+     *
+     * @param sessionId Id de la sesión (claim sid del access token)
+     */
+    public void revoke(Long sessionId) {
+        refreshSessionRepository.revokeById(sessionId);
+    }
+
+    /**
+     * 🚪 Revoca todas las sesiones del usuario
+     *
+     * @param username Usuario
+     * @return Número de sesiones revocadas
+     */
+    public int revokeAll(String username) {
+        return refreshSessionRepository.revokeAllByUsername(username);
+    }
+
+    /**
+     * 🧹 Elimina sesiones expiradas
+     *
+     * @return Número de sesiones eliminadas
+     */
+    public int removeExpired() {
+        return refreshSessionRepository.purgeExpired(Instant.now());
+    }
+
+    private static Instant earliest(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Sesión emitida o rotada: id, usuario y refresh token en claro para el cliente.
+     */
+    public record IssuedSession(Long sessionId, String username, String refreshToken) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🗂️ Revocation Cache - Revocaciones vigentes en memoria
+ *
+ * Blacklist por token (SHA-256 -> expiración) y marca de agua por usuario
+ * (username -> epoch seconds) consultadas por el filtro JWT en cada request,
+ * sin ir a la base de datos.
+ *
+ * La comparten las dos pilas con las mismas reglas:
+ * - MVC: TokenBlacklistService y TokenRevocationService (escrituras locales,
+ *   fotos al arrancar) y RevocationFeed (eventos de otros nodos)
+ * - Reactiva: ReactiveRevocationCache (fotos y poll vía R2DBC)
+ *
+ * Aplicar es idempotente y monótono: un evento repetido o antiguo nunca
+ * acorta una expiración ni retrasa una marca.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class RevocationCache {
+
+    // 🗂️ SHA-256 del token -> expiración (epoch ms)
+    private final Map<ByteBuffer, Long> blacklist = new ConcurrentHashMap<>();
+    // 👤 username -> epoch seconds; tokens con iat menor quedan revocados
+    private final Map<String, Long> watermarks = new ConcurrentHashMap<>();
+
+    /**
+     * 🚫 Añade un token a la blacklist (los ya expirados se ignoran)
+     *
+     * @param tokenHash SHA-256 del token
+     * @param expiresAt Expiración del token
+     */
+    public void applyToken(byte[] tokenHash, Instant expiresAt) {
+        if (tokenHash != null && expiresAt != null && expiresAt.toEpochMilli() > System.currentTimeMillis()) {
+            blacklist.merge(ByteBuffer.wrap(tokenHash), expiresAt.toEpochMilli(), Math::max);
+        }
+    }
+
+    /**
+     * ⛔ Revoca los tokens del usuario emitidos antes de revokedBefore
+     *
+     * @param username Subject de los tokens
+     * @param revokedBefore Marca de agua (resolución de segundos, como iat)
+     */
+    public void applyUser(String username, Instant revokedBefore) {
+        if (username != null && revokedBefore != null) {
+            watermarks.merge(username, revokedBefore.getEpochSecond(), Math::max);
+        }
+    }
+
+    /**
+     * 🔍 Marca por usuario y blacklist por token en una sola consulta
+     *
+     * @param token Token JWT completo
+     * @param username Subject del token
+     * @param issuedAt Claim iat del token
+     * @return true si el token no debe aceptarse
+     */
+    public boolean isRevoked(String token, String username, Date issuedAt) {
+        if (isUserRevoked(username, issuedAt)) {
+            return true;
+        }
+        // ⚡ Sin revocaciones vigentes no se calcula el SHA-256
+        return !blacklist.isEmpty() && isTokenBlacklisted(token);
+    }
+
+    /**
+     * 🔍 Blacklist por token
+     */
+    public boolean isTokenBlacklisted(String token) {
+        Long expiresAt = blacklist.get(ByteBuffer.wrap(TokenDigest.sha256(token)));
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * 🔍 Marca por usuario
+     *
+     * Un token sin iat no puede demostrar que es posterior a la revocación.
+     */
+    public boolean isUserRevoked(String username, Date issuedAt) {
+        Long watermark = watermarks.get(username);
+        return watermark != null && (issuedAt == null || issuedAt.getTime() / 1000 < watermark);
+    }
+
+    /**
+     * 🧹 Descarta las entradas de blacklist ya expiradas
+     */
+    public void removeExpiredTokens() {
+        long now = System.currentTimeMillis();
+        blacklist.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    /**
+     * 🧹 Descarta las marcas que ya no pueden afectar a ningún token vivo
+     *
+     * @param horizonSeconds Inicio de la vida del token más antiguo aún válido
+     */
+    public void removeWatermarksBefore(long horizonSeconds) {
+        watermarks.values().removeIf(watermark -> watermark < horizonSeconds);
+    }
+
+    /**
+     * 📊 Usuarios con revocación activa en memoria
+     */
+    public int getRevokedUserCount() {
+        return watermarks.size();
+    }
+}
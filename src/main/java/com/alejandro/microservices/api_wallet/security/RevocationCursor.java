@@ -0,0 +1,117 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 📍 Revocation Cursor - Posición de lectura en revocation_log
+ *
+ * Algoritmo de cursor común a RevocationFeed (JPA) y ReactiveRevocationCache
+ * (R2DBC): cada página de eventos, ordenada por id, se aplica entera, pero el
+ * cursor solo avanza sobre ids contiguos.
+ *
+ * 🕳️ Huecos en los ids:
+ * Con AUTO_INCREMENT, una transacción puede obtener un id menor y confirmar
+ * después que otra con id mayor. Los eventos posteriores a un hueco se aplican
+ * igualmente, pero el cursor no lo cruza hasta que se rellena o pasan
+ * gap-timeout-ms (transacción revertida), así no se pierde ninguno.
+ *
+ * No es thread-safe: lo usa un único poll a la vez (fixedDelay en MVC,
+ * concatMap en la pila reactiva).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+public final class RevocationCursor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationCursor.class);
+
+    private final long gapTimeoutMs;
+    private final LongSupplier clock;
+
+    // 📍 Todos los ids <= position ya fueron aplicados (o descartados por timeout)
+    private volatile long position;
+
+    // 🕳️ Hueco cronometrado: id tras el que falta el siguiente (-1 = sin hueco) y desde cuándo
+    private long gapAfterId = -1;
+    private long gapSinceMillis;
+
+    public RevocationCursor(long gapTimeoutMs) {
+        this(gapTimeoutMs, System::currentTimeMillis);
+    }
+
+    RevocationCursor(long gapTimeoutMs, LongSupplier clock) {
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.clock = clock;
+    }
+
+    /**
+     * 📌 Fija la posición inicial (id máximo del log antes de cargar las fotos)
+     */
+    public void reset(long position) {
+        this.position = position;
+        this.gapAfterId = -1;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    /**
+     * 🔄 Aplica una página de eventos y avanza el cursor sobre los contiguos
+     *
+     * @param events Eventos con id mayor que position(), en orden de id
+     * @param idOf Id de cada evento
+     * @param apply Aplicación del evento (idempotente)
+     * @return true si el cursor avanzó; con la página llena, hay que pedir otra
+     */
+    public <E> boolean advance(List<E> events, ToLongFunction<E> idOf, Consumer<E> apply) {
+        long contiguous = position;
+        boolean blocked = false;
+        for (E event : events) {
+            apply.accept(event);
+
+            if (blocked) {
+                continue;
+            }
+            long id = idOf.applyAsLong(event);
+            if (id == contiguous + 1) {
+                contiguous = id;
+            } else if (gapExpired(contiguous)) {
+                logger.warn("Hueco en revocation_log entre {} y {} descartado tras {} ms",
+                        contiguous, id, gapTimeoutMs);
+                contiguous = id;
+                gapAfterId = -1;
+            } else {
+                blocked = true;
+            }
+        }
+
+        if (!blocked) {
+            gapAfterId = -1;
+        }
+        boolean advanced = contiguous > position;
+        position = contiguous;
+        return advanced;
+    }
+
+    /**
+     * ⏱️ Un hueco nuevo (el anterior se rellenó y el cursor lo pasó) arranca su
+     * propio cronómetro; no hereda el tiempo ya esperado por otro.
+     */
+    private boolean gapExpired(long afterId) {
+        long now = clock.getAsLong();
+        if (gapAfterId != afterId) {
+            gapAfterId = afterId;
+            gapSinceMillis = now;
+            return false;
+        }
+        return now - gapSinceMillis >= gapTimeoutMs;
+    }
+}
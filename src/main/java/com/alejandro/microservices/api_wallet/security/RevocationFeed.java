@@ -0,0 +1,124 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import com.alejandro.microservices.api_wallet.wallet.entity.RevocationEvent;
+import com.alejandro.microservices.api_wallet.wallet.repository.RevocationEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 📡 Revocation Feed - Replicación de revocaciones entre nodos
+ *
+ * Cada nodo mantiene la blacklist y las marcas por usuario en memoria para que
+ * el filtro JWT no consulte la base de datos. Para que un logout atendido por
+ * otro nodo se vea aquí, este componente recorre la tabla append-only
+ * revocation_log por id creciente y aplica cada evento a las estructuras locales.
+ *
+ * 🔄 Flujo:
+ * 1. Al arrancar se fija el cursor en el id máximo actual
+ * 2. Después se cargan las fotos de token_blacklist y token_revocations
+ * 3. Cada poll-interval-ms se leen los eventos con id mayor al cursor
+ *
+ * Fijar el cursor antes de la foto garantiza que ningún evento quede entre
+ * ambas; los eventos repetidos son inofensivos porque aplicar es idempotente.
+ *
+ * 🕳️ Los huecos en los ids los resuelve RevocationCursor, el mismo algoritmo
+ * que usa ReactiveRevocationCache en el proceso reactivo.
+ *
+ * ⏱️ Retardo máximo de propagación: poll-interval-ms más la duración de un poll.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class RevocationFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationFeed.class);
+
+    private final RevocationEventRepository revocationEventRepository;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final int batchSize;
+    private final RevocationCursor cursor;
+
+    public RevocationFeed(RevocationEventRepository revocationEventRepository,
+                          TokenBlacklistService tokenBlacklistService,
+                          TokenRevocationService tokenRevocationService,
+                          JwtTokenProvider jwtTokenProvider,
+                          @Value("${security.revocation.feed.batch-size:500}") int batchSize,
+                          @Value("${security.revocation.feed.gap-timeout-ms:10000}") long gapTimeoutMs) {
+        this.revocationEventRepository = revocationEventRepository;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.batchSize = batchSize;
+        this.cursor = new RevocationCursor(gapTimeoutMs);
+    }
+
+    /**
+     * 📥 Fija el cursor y carga el estado actual
+     */
+    @PostConstruct
+    public void init() {
+        cursor.reset(revocationEventRepository.findMaxId());
+        tokenBlacklistService.loadSnapshot();
+        tokenRevocationService.loadSnapshot();
+        logger.info("Revocation feed iniciado en el evento {}", cursor.position());
+    }
+
+    /**
+     * 🔄 Aplica los eventos nuevos del log
+     *
+     * Ejecutado por un único hilo del scheduler (fixedDelay no se solapa).
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.feed.poll-interval-ms:1000}")
+    public void poll() {
+        List<RevocationEvent> events;
+        do {
+            events = revocationEventRepository.findByIdGreaterThanOrderByIdAsc(
+                    cursor.position(), PageRequest.of(0, batchSize));
+
+            // 🔁 Página llena y cursor avanzando: puede haber más eventos pendientes
+            if (!cursor.advance(events, RevocationEvent::getId, this::apply)) {
+                break;
+            }
+        } while (events.size() == batchSize);
+    }
+
+    /**
+     * 🧹 Elimina eventos que ya no pueden afectar a ningún token vivo
+     *
+     * Un nodo que arranca después usa las fotos de las tablas, no el log antiguo.
+     *
+     * @return Número de eventos eliminados
+     */
+    public int removeExpired() {
+        Instant horizon = Instant.now().minusMillis(jwtTokenProvider.getMaxTokenLifetimeMs());
+        return revocationEventRepository.purgeOlderThan(horizon);
+    }
+
+    /**
+     * 📍 Último id aplicado de forma contigua
+     *
+     * @return Cursor actual del feed
+     */
+    public long getCursor() {
+        return cursor.position();
+    }
+
+    private void apply(RevocationEvent event) {
+        switch (event.getType()) {
+            case TOKEN -> tokenBlacklistService.apply(event.getTokenHash(), event.getExpiresAt());
+            case USER -> tokenRevocationService.apply(event.getUsername(), event.getUserId(), event.getRevokedBefore());
+        }
+    }
+}
@@ -29,8 +29,12 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Endpoints públicos (sin autenticación)
                         .requestMatchers("/auth/**").permitAll()
-                        .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/openapi.json").permitAll()
                         .requestMatchers("/api/email/**").permitAll() // Endpoints de email para pruebas
+                        .requestMatchers("/actuator/health").permitAll()
+
+                        // Métricas y endpoints de gestión (solo ADMIN)
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         
                         // Endpoints de administración (solo ADMIN)
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
@@ -1,11 +1,17 @@
 package com.alejandro.microservices.api_wallet.security;
 
 import com.alejandro.microservices.api_wallet.wallet.entity.BlacklistedToken;
+import com.alejandro.microservices.api_wallet.wallet.entity.RevocationEvent;
 import com.alejandro.microservices.api_wallet.wallet.repository.BlacklistedTokenRepository;
+import com.alejandro.microservices.api_wallet.wallet.repository.RevocationEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * 🚫 Token Blacklist Service - Gestión de Tokens Invalidados
@@ -27,12 +33,15 @@ import java.time.Instant;
  * 
  * 🗄️ Arquitectura:
  * - Persistencia en base de datos MySQL
- * - Índices optimizados para consultas rápidas
- * - Limpieza automática de tokens expirados
- * - Transacciones atómicas para consistencia
+ * - Clave SHA-256 de 32 bytes con índice único (no el token completo)
+ * - Copia en memoria (RevocationCache, compartida con la pila reactiva)
+ *   consultada en cada request (sin ir a la BD)
+ * - Replicación entre nodos vía revocation_log (ver RevocationFeed)
+ * - Limpieza automática de tokens expirados en lotes acotados
+ * - Transacciones cortas para no bloquear la tabla
  * 
  * 📊 Métricas de Performance:
- * - Consulta de blacklist: < 5ms promedio
+ * - Consulta de blacklist: búsqueda en memoria, sin I/O
  * - Inserción de token: < 10ms promedio
  * - Limpieza automática: Programada cada hora
  * - Tamaño de blacklist: Monitoreado continuamente
@@ -52,14 +61,38 @@ public class TokenBlacklistService {
 
     // 🔧 Repositorio para persistencia de tokens blacklisted
     private final BlacklistedTokenRepository blacklistedTokenRepository;
+    private final RevocationEventRepository revocationEventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 🗂️ Réplica en memoria de token_blacklist
+    private final RevocationCache revocationCache;
+
+    // 🧹 Tamaño de cada lote de borrado y pausa entre lotes
+    private final int cleanupBatchSize;
+    private final long cleanupPauseMs;
 
     /**
      * 🔧 Constructor con inyección de dependencias
      * 
      * @param blacklistedTokenRepository Repositorio para operaciones de BD
+     * @param revocationEventRepository Log de revocaciones que leen los demás nodos
+     * @param transactionTemplate Transacción que une fila de blacklist y evento del log
+     * @param revocationCache Copia en memoria consultada por el filtro JWT
+     * @param cleanupBatchSize Máximo de filas borradas por sentencia DELETE
+     * @param cleanupPauseMs Pausa entre lotes para ceder la tabla a otras transacciones
      */
-    public TokenBlacklistService(BlacklistedTokenRepository blacklistedTokenRepository) {
+    public TokenBlacklistService(BlacklistedTokenRepository blacklistedTokenRepository,
+                                 RevocationEventRepository revocationEventRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 RevocationCache revocationCache,
+                                 @Value("${security.blacklist.cleanup.batch-size:1000}") int cleanupBatchSize,
+                                 @Value("${security.blacklist.cleanup.pause-ms:50}") long cleanupPauseMs) {
         this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.revocationEventRepository = revocationEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.revocationCache = revocationCache;
+        this.cleanupBatchSize = cleanupBatchSize;
+        this.cleanupPauseMs = cleanupPauseMs;
     }
 
     /**
@@ -70,33 +103,54 @@ public class TokenBlacklistService {
      * 
      * 🛡️ Validaciones:
      * - Verifica que el token no esté ya en la blacklist (idempotencia)
-     * - Usa transacciones para garantizar consistencia
+     * - El índice único sobre token_hash resuelve logouts concurrentes
      * - Registra timestamp de creación para auditoría
+     * - Fila de blacklist y evento del log en la misma transacción
      * 
      * 📊 Performance:
      * - Operación idempotente (segura de ejecutar múltiples veces)
-     * - Transacción atómica para consistencia
-     * - Índice en token para búsquedas rápidas
+     * - Se guarda el SHA-256 del token (32 bytes), no el JWT completo
+     * - Búsqueda e inserción por índice único sobre clave fija
      * 
      * @param token Token JWT a invalidar
      * @param expiresAt Fecha de expiración del token
      */
-    @Transactional
     public void blacklistToken(String token, Instant expiresAt) {
+        byte[] tokenHash = TokenDigest.sha256(token);
+
         // 🔍 Verificar si el token ya está en la blacklist (idempotencia)
-        if (blacklistedTokenRepository.existsByToken(token)) {
+        if (revocationCache.isTokenBlacklisted(token)
+                || blacklistedTokenRepository.existsByTokenHash(tokenHash)) {
+            apply(tokenHash, expiresAt);
             return; // Token ya está en la blacklist
         }
         
         // 🏗️ Construir entidad BlacklistedToken con Builder pattern
         BlacklistedToken blacklistedToken = BlacklistedToken.builder()
-                .token(token)
+                .tokenHash(tokenHash)
                 .expiresAt(expiresAt)
                 .createdAt(Instant.now())
                 .build();
+
+        // 📣 Evento para que los demás nodos repliquen la entrada
+        RevocationEvent event = RevocationEvent.builder()
+                .type(RevocationEvent.EventType.TOKEN)
+                .tokenHash(tokenHash)
+                .expiresAt(expiresAt)
+                .build();
         
         // 💾 Persistir en base de datos
-        blacklistedTokenRepository.save(blacklistedToken);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                blacklistedTokenRepository.save(blacklistedToken);
+                revocationEventRepository.save(event);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 🔄 Otro request insertó el mismo token en paralelo: ya está en la blacklist
+        }
+
+        // ⚡ Visible en este nodo de inmediato, sin esperar al feed
+        apply(tokenHash, expiresAt);
     }
 
     /**
@@ -109,7 +163,6 @@ public class TokenBlacklistService {
      * 
      * @param token Token JWT a invalidar
      */
-    @Transactional
     @Deprecated
     public void blacklistToken(String token) {
         // ⏰ Si no tenemos la fecha de expiración, asumimos 24 horas
@@ -124,9 +177,9 @@ public class TokenBlacklistService {
      * si el token ha sido invalidado manualmente.
      * 
      * ⚡ Performance:
-     * - Consulta optimizada con índice en columna token
-     * - Respuesta en < 5ms promedio
-     * - No requiere transacción (solo lectura)
+     * - Búsqueda en un hash map en memoria por el SHA-256 del token
+     * - Sin consulta a la base de datos en el camino del request
+     * - Las entradas de otros nodos llegan vía RevocationFeed
      * 
      * 🛡️ Seguridad:
      * - Verificación síncrona en cada request
@@ -137,7 +190,7 @@ public class TokenBlacklistService {
      * @return true si el token está en la blacklist, false en caso contrario
      */
     public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokenRepository.existsByToken(token);
+        return revocationCache.isTokenBlacklisted(token);
     }
 
     /**
@@ -148,23 +201,70 @@ public class TokenBlacklistService {
      * 
      * 🔄 Programación:
      * - Ejecutado cada hora por TokenCleanupScheduler
-     * - Elimina tokens expirados antes de la fecha actual
-     * - Transacción atómica para consistencia
+     * - Recorre idx_expires_at en lotes de cleanupBatchSize ids
+     * - Cada lote es un único DELETE en su propia transacción corta
+     * - Pausa entre lotes para no acaparar la tabla
      * 
      * 📊 Beneficios:
-     * - Mantiene la tabla de blacklist optimizada
-     * - Reduce el tamaño de la base de datos
-     * - Mejora el performance de consultas
+     * - Sin bloqueos largos aunque la blacklist sea muy grande
+     * - Sin cargar entidades ni borrarlas una a una
+     * - Conteo de eliminados tomado del resultado de cada DELETE
      * - Previene crecimiento indefinido
      * 
-     * 🎯 Métricas:
-     * - Tokens eliminados por ejecución
-     * - Tiempo de ejecución
-     * - Tamaño de blacklist antes y después
+     * @return Número de tokens eliminados
+     */
+    public int removeExpired() {
+        Instant now = Instant.now();
+        int removed = 0;
+
+        // 🗂️ Las entradas en memoria ya no pueden coincidir con ningún token válido
+        revocationCache.removeExpiredTokens();
+
+        while (true) {
+            List<Long> expiredIds = blacklistedTokenRepository.findExpiredIds(now, PageRequest.of(0, cleanupBatchSize));
+            if (expiredIds.isEmpty()) {
+                break;
+            }
+
+            removed += blacklistedTokenRepository.deleteByIdIn(expiredIds);
+
+            // ✅ Lote incompleto: no quedan más tokens expirados
+            if (expiredIds.size() < cleanupBatchSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(cleanupPauseMs);
+            } catch (InterruptedException e) {
+                // ⚠️ Apagado de la aplicación: el resto se borra en la siguiente ejecución
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * 📥 Carga en memoria los tokens de la blacklist que siguen vigentes
+     * 
+     * Llamado por RevocationFeed al arrancar, después de fijar el cursor del
+     * log, para que ningún evento quede entre la foto y el seguimiento.
+     */
+    public void loadSnapshot() {
+        Instant now = Instant.now();
+        blacklistedTokenRepository.findByExpiresAtAfter(now)
+                .forEach(token -> apply(token.getTokenHash(), token.getExpiresAt()));
+    }
+
+    /**
+     * 📣 Aplica una entrada del log de revocaciones (idempotente)
+     * 
+     * @param tokenHash SHA-256 del token revocado
+     * @param expiresAt Expiración del token revocado
      */
-    @Transactional
-    public void removeExpired() {
-        blacklistedTokenRepository.deleteByExpiresAtBefore(Instant.now());
+    public void apply(byte[] tokenHash, Instant expiresAt) {
+        revocationCache.applyToken(tokenHash, expiresAt);
     }
 
     /**
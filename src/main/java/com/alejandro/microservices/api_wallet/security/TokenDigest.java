@@ -0,0 +1,41 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 🔑 Token Digest - Huella de tamaño fijo para tokens JWT
+ *
+ * Los JWT firmados con la misma clave comparten un prefijo largo (header y
+ * parte del payload), por lo que indexarlos como texto produce índices poco
+ * selectivos y filas grandes. Este helper reduce cualquier token a un
+ * SHA-256 de 32 bytes, apto para una columna BINARY(32) con índice único.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+public final class TokenDigest {
+
+    // 📏 Longitud del digest SHA-256 en bytes
+    public static final int LENGTH = 32;
+
+    private TokenDigest() {
+    }
+
+    /**
+     * 🔐 Calcula el SHA-256 del token
+     *
+     * @param token Token JWT completo
+     * @return Digest de 32 bytes
+     */
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 es obligatorio en toda JVM, nunca debería ocurrir
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import com.alejandro.microservices.api_wallet.wallet.entity.RevocationEvent;
+import com.alejandro.microservices.api_wallet.wallet.entity.TokenRevocation;
+import com.alejandro.microservices.api_wallet.wallet.entity.User;
+import com.alejandro.microservices.api_wallet.wallet.repository.RevocationEventRepository;
+import com.alejandro.microservices.api_wallet.wallet.repository.TokenRevocationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * ⛔ Token Revocation Service - Revocación masiva por usuario
+ *
+ * En lugar de insertar una fila en la blacklist por cada token vivo, este
+ * servicio guarda una marca de agua por usuario: "todo token emitido antes de T
+ * es inválido". El filtro compara el claim iat del token contra esa marca.
+ *
+ * 🎯 Casos de Uso:
+ * - Logout de todos los dispositivos
+ * - Cambio de contraseña
+ * - Deshabilitación de usuario por un administrador
+ *
+ * 🗄️ Arquitectura:
+ * - Tabla token_revocations con una fila por usuario (O(usuarios), no O(tokens))
+ * - Copia en memoria (RevocationCache, compartida con la pila reactiva)
+ *   consultada en cada request
+ * - Replicación entre nodos vía revocation_log (ver RevocationFeed)
+ * - Las marcas más antiguas que la vida máxima de un token se descartan
+ *
+ * ⏱️ Precisión:
+ * El claim iat tiene resolución de segundos, así que la marca se redondea hacia
+ * arriba al segundo siguiente. Un token emitido en el mismo segundo que la
+ * revocación también queda invalidado (se prefiere seguridad a comodidad).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Service
+public class TokenRevocationService {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final RevocationEventRepository revocationEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserDetailsCache userDetailsCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final RevocationCache revocationCache;
+
+    public TokenRevocationService(TokenRevocationRepository tokenRevocationRepository,
+                                  RevocationEventRepository revocationEventRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  JwtTokenProvider jwtTokenProvider,
+                                  UserDetailsCache userDetailsCache,
+                                  EntityManagerFactory entityManagerFactory,
+                                  RevocationCache revocationCache) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.revocationEventRepository = revocationEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userDetailsCache = userDetailsCache;
+        this.entityManagerFactory = entityManagerFactory;
+        this.revocationCache = revocationCache;
+    }
+
+    /**
+     * 📥 Carga las marcas vigentes
+     *
+     * Llamado por RevocationFeed al arrancar, después de fijar el cursor del log.
+     */
+    public void loadSnapshot() {
+        Instant horizon = Instant.now().minusMillis(jwtTokenProvider.getMaxTokenLifetimeMs());
+        tokenRevocationRepository.findByRevokedBeforeAfter(horizon)
+                .forEach(revocation -> apply(revocation.getUsername(), null, revocation.getRevokedBefore()));
+    }
+
+    /**
+     * ⛔ Invalida todos los tokens emitidos hasta ahora para el usuario
+     *
+     * Sin id: la revocación no cambió la fila del usuario (logout de todos
+     * los dispositivos), así que no hay entidad cacheada que invalidar.
+     *
+     * @param username Usuario cuyos tokens se revocan
+     */
+    public void revokeAllTokens(String username) {
+        revokeAllTokens(username, null);
+    }
+
+    /**
+     * ⛔ Invalida todos los tokens del usuario tras un cambio en su fila
+     *
+     * @param username Usuario cuyos tokens se revocan
+     * @param userId Id del usuario modificado (contraseña, estado)
+     */
+    public void revokeAllTokens(String username, Long userId) {
+        // ⏫ Redondeo al segundo siguiente: iat solo tiene resolución de segundos
+        Instant revokedBefore = Instant.ofEpochSecond(Math.floorDiv(System.currentTimeMillis() + 999, 1000));
+
+        TokenRevocation saved = transactionTemplate.execute(status -> {
+            TokenRevocation revocation = tokenRevocationRepository.findById(username)
+                    .orElseGet(() -> TokenRevocation.builder().username(username).build());
+            revocation.setRevokedBefore(revocation.getRevokedBefore() == null
+                    || revokedBefore.isAfter(revocation.getRevokedBefore())
+                    ? revokedBefore : revocation.getRevokedBefore());
+            revocation.setUpdatedAt(Instant.now());
+
+            // 📣 Evento para que los demás nodos repliquen la marca
+            revocationEventRepository.save(RevocationEvent.builder()
+                    .type(RevocationEvent.EventType.USER)
+                    .username(username)
+                    .userId(userId)
+                    .revokedBefore(revocation.getRevokedBefore())
+                    .build());
+            return tokenRevocationRepository.save(revocation);
+        });
+
+        // ⚡ Visible en este nodo de inmediato, sin esperar al feed
+        apply(saved.getUsername(), userId, saved.getRevokedBefore());
+    }
+
+    /**
+     * 🔍 Verifica si el token fue emitido antes de la marca del usuario
+     *
+     * Solo consulta memoria: una búsqueda en un hash map por request.
+     *
+     * @param username Subject del token
+     * @param issuedAt Claim iat del token
+     * @return true si el token está revocado
+     */
+    public boolean isRevoked(String username, Date issuedAt) {
+        return revocationCache.isUserRevoked(username, issuedAt);
+    }
+
+    /**
+     * 🧹 Descarta marcas que ya no pueden afectar a ningún token vivo
+     *
+     * @return Número de marcas eliminadas de la base de datos
+     */
+    public int removeExpired() {
+        long horizonSeconds = Instant.now().minusMillis(jwtTokenProvider.getMaxTokenLifetimeMs()).getEpochSecond();
+        revocationCache.removeWatermarksBefore(horizonSeconds);
+        return tokenRevocationRepository.purgeOlderThan(Instant.ofEpochSecond(horizonSeconds));
+    }
+
+    /**
+     * 📊 Número de usuarios con revocación activa en memoria
+     *
+     * @return Tamaño del mapa de marcas
+     */
+    public int getRevokedUserCount() {
+        return revocationCache.getRevokedUserCount();
+    }
+
+    /**
+     * 📣 Aplica una marca del log de revocaciones (idempotente)
+     *
+     * Una revocación acompaña siempre a un cambio de contraseña, estado o
+     * sesión, así que también invalida el UserDetails cacheado del usuario y
+     * sus entradas en la caché de segundo nivel (el cambio pudo hacerse en
+     * otro nodo): la entidad por id y el natural id por email. El resto de
+     * usuarios sigue cacheado.
+     *
+     * @param username Usuario revocado (su email)
+     * @param userId Id del usuario, o null si la revocación no cambió su fila
+     * @param revokedBefore Tokens emitidos antes de este instante son inválidos
+     */
+    public void apply(String username, Long userId, Instant revokedBefore) {
+        revocationCache.applyUser(username, revokedBefore);
+        userDetailsCache.evict(username);
+        evictCachedUser(username, userId);
+    }
+
+    private void evictCachedUser(String email, Long userId) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (userId != null) {
+            sessionFactory.getCache().evictEntityData(User.class, userId);
+        }
+
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class);
+        NaturalIdDataAccess naturalIdAccess = persister.getNaturalIdCacheAccessStrategy();
+        if (naturalIdAccess == null) {
+            return; // 💤 Caché de segundo nivel deshabilitada
+        }
+        // 🔑 La clave del natural id se construye con una sesión; la stateless no abre conexión
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            naturalIdAccess.evict(naturalIdAccess.generateCacheKey(
+                    email, persister, (SharedSessionContractImplementor) session));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 🗃️ User Details Cache - Caché acotada de usuarios para login y refresh
+ *
+ * Evita consultar la base de datos en cada login o refresh del mismo usuario.
+ *
+ * 🎯 Características:
+ * - Tamaño máximo acotado (security.user-cache.max-size)
+ * - Expiración por TTL desde la escritura (security.user-cache.ttl)
+ * - Invalidación explícita al cambiar contraseña, roles o estado habilitado
+ * - Invalidación en otros nodos vía eventos USER del revocation feed
+ *
+ * ⚠️ Se guarda una copia inmutable y se construye un UserDetails nuevo en cada
+ * lectura: ProviderManager borra la contraseña del UserDetails autenticado
+ * (eraseCredentials), y si compartiéramos la instancia cacheada el siguiente
+ * login fallaría.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, CachedUser> cache;
+
+    public UserDetailsCache(@Value("${security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${security.user-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * 🔍 Devuelve el usuario cacheado o lo carga con el loader indicado
+     *
+     * @param username Usuario a buscar
+     * @param loader Carga desde la base de datos en caso de fallo de caché
+     * @return Copia nueva del UserDetails
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, key -> CachedUser.of(loader.apply(key))).toUserDetails();
+    }
+
+    /**
+     * 🧹 Invalida la entrada de un usuario
+     *
+     * @param username Usuario cuyos datos cambiaron
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * 📊 Número aproximado de usuarios en caché
+     *
+     * @return Tamaño estimado de la caché
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private record CachedUser(String username, String password, List<GrantedAuthority> authorities, boolean enabled) {
+
+        static CachedUser of(UserDetails userDetails) {
+            return new CachedUser(userDetails.getUsername(), userDetails.getPassword(),
+                    List.copyOf(userDetails.getAuthorities()), userDetails.isEnabled());
+        }
+
+        UserDetails toUserDetails() {
+            return User.withUsername(username)
+                    .password(password)
+                    .authorities(authorities)
+                    .disabled(!enabled)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.alejandro.microservices.api_wallet.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 🚀 First Request Timer - Tiempo desde el arranque de la JVM hasta el primer request servido
+ *
+ * Es la métrica que importa al escalar pods: application.ready.time (de Boot)
+ * no incluye la inicialización perezosa ni el calentamiento del primer request.
+ * Se registra una sola vez:
+ * - Log INFO "Primer request servido a X ms del arranque de la JVM"
+ * - Gauge application.first.request.time
+ *
+ * Tras el primer request el coste es una lectura de un AtomicBoolean.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+    private final MeterRegistry meterRegistry;
+
+    public FirstRequestTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!recorded.get() && recorded.compareAndSet(false, true)) {
+                long millis = ManagementFactory.getRuntimeMXBean().getUptime();
+                TimeGauge.builder("application.first.request.time", () -> millis, TimeUnit.MILLISECONDS)
+                        .description("Tiempo desde el arranque de la JVM hasta el primer request servido")
+                        .register(meterRegistry);
+                log.info("🚀 Primer request servido a {} ms del arranque de la JVM ({} {})",
+                        millis, request.getMethod(), request.getRequestURI());
+            }
+        }
+    }
+}
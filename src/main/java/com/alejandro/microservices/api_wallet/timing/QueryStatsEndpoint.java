@@ -0,0 +1,62 @@
+package com.alejandro.microservices.api_wallet.timing;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 🔎 Query Stats Endpoint - /actuator/querystats
+ *
+ * Expone en runtime:
+ * - Sentencias SQL por tipo de request (QueryStatsRegistry)
+ * - Consultas lentas de Hibernate (SQL -> ms máximos), por encima de
+ *   hibernate.log_slow_query
+ * - Totales globales de Hibernate Statistics
+ *
+ * DELETE reinicia todos los contadores (útil antes de una prueba de carga).
+ * Como el resto de /actuator/**, solo accesible con rol ADMIN.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@Endpoint(id = "querystats")
+public class QueryStatsEndpoint {
+
+    private final QueryStatsRegistry registry;
+    private final Statistics statistics;
+
+    public QueryStatsEndpoint(QueryStatsRegistry registry, EntityManagerFactory entityManagerFactory) {
+        this.registry = registry;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> queryStats() {
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        hibernate.put("preparedStatements", statistics.getPrepareStatementCount());
+        hibernate.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        hibernate.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("requests", registry.snapshot());
+        body.put("slowQueries", statistics.getSlowQueries());
+        body.put("hibernate", hibernate);
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        registry.clear();
+        statistics.clear();
+    }
+}
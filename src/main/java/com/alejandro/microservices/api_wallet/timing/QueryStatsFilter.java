@@ -0,0 +1,71 @@
+package com.alejandro.microservices.api_wallet.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 🔢 Query Stats Filter - Sentencias SQL por tipo de request
+ *
+ * Mide con RequestQueryCounter cuántas sentencias prepara cada request y las
+ * acumula en QueryStatsRegistry bajo "MÉTODO patrón" (p. ej.
+ * "POST /api/wallet/transfer"). El patrón es el del handler de Spring MVC, así
+ * que /api/users/1 y /api/users/2 comparten entrada; lo que no llega a un
+ * handler (404, rechazos de seguridad) se agrupa como UNMAPPED.
+ *
+ * Un request que supera query-stats.warn-threshold deja un WARN con su tipo:
+ * la señal típica de un N+1 recién introducido.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    private final QueryStatsRegistry registry;
+    private final int warnThreshold;
+
+    public QueryStatsFilter(QueryStatsRegistry registry,
+                            @Value("${query-stats.warn-threshold:20}") int warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        long mark = RequestQueryCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = RequestQueryCounter.end(mark);
+            String requestType = requestType(request);
+            registry.record(requestType, statements);
+            if (statements > warnThreshold) {
+                log.warn("⚠️ {} ejecutó {} sentencias SQL (umbral {})", requestType, statements, warnThreshold);
+            }
+        }
+    }
+
+    private static String requestType(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED");
+    }
+}
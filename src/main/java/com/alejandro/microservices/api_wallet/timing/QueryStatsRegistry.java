@@ -0,0 +1,79 @@
+package com.alejandro.microservices.api_wallet.timing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 📊 Query Stats Registry - Acumulado de sentencias SQL por tipo de request
+ *
+ * Alimentado por QueryStatsFilter y leído por el endpoint /actuator/querystats.
+ * Las claves son patrones de handler, así que el mapa queda acotado por el
+ * número de endpoints de la API. Contadores sin locks (LongAdder).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class QueryStatsRegistry {
+
+    private final Map<String, Stats> statsByRequestType = new ConcurrentHashMap<>();
+
+    /**
+     * 📝 Acumula las sentencias de un request
+     *
+     * @param requestType "MÉTODO patrón" del request
+     * @param statements Sentencias SQL preparadas durante el request
+     */
+    public void record(String requestType, long statements) {
+        statsByRequestType.computeIfAbsent(requestType, key -> new Stats()).add(statements);
+    }
+
+    /**
+     * 📋 Foto ordenada por tipo de request
+     *
+     * @return Tipo de request -> estadísticas
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshot = new TreeMap<>();
+        statsByRequestType.forEach((requestType, stats) -> snapshot.put(requestType, stats.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * 🧹 Reinicia los acumulados
+     */
+    public void clear() {
+        statsByRequestType.clear();
+    }
+
+    /**
+     * Estadísticas de un tipo de request.
+     */
+    public record Snapshot(long requests, long statements, double avgStatements, long maxStatements) {
+    }
+
+    private static final class Stats {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void add(long count) {
+            requests.increment();
+            statements.add(count);
+            max.accumulate(count);
+        }
+
+        Snapshot snapshot() {
+            long total = requests.sum();
+            long sum = statements.sum();
+            return new Snapshot(total, sum, total == 0 ? 0 : (double) sum / total, max.get());
+        }
+    }
+}
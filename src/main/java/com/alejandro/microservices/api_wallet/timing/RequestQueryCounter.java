@@ -0,0 +1,51 @@
+package com.alejandro.microservices.api_wallet.timing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 🔢 Request Query Counter - Sentencias SQL preparadas por el hilo actual
+ *
+ * Hibernate llama a inspect() cada vez que prepara una sentencia; aquí solo se
+ * incrementa un contador por hilo y se devuelve el SQL sin tocar. Se registra
+ * con spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ *
+ * El contador es un total monótono por hilo: quien quiera medir un tramo toma
+ * una marca con begin() y la resta con end(). Así las mediciones anidadas
+ * (filtro por request y aserciones en tests) no se pisan entre sí.
+ *
+ * ⚠️ Solo ve el SQL que pasa por Hibernate (JPA y consultas nativas); el
+ * JdbcTemplate de la auditoría o del feed de revocaciones no se cuenta.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+public class RequestQueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * 📍 Marca el inicio de un tramo a medir
+     *
+     * @return Total de sentencias del hilo hasta ahora
+     */
+    public static long begin() {
+        return STATEMENTS.get()[0];
+    }
+
+    /**
+     * 📏 Sentencias preparadas en el hilo desde la marca
+     *
+     * @param mark Valor devuelto por begin()
+     * @return Número de sentencias del tramo
+     */
+    public static long end(long mark) {
+        return STATEMENTS.get()[0] - mark;
+    }
+}
@@ -0,0 +1,164 @@
+package com.alejandro.microservices.api_wallet.timing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * ⏱️ Request Timing - Desglose por etapas del request en curso
+ *
+ * JwtAuthenticationFilter, WalletService y EmailService (inyectado) informan
+ * aquí la duración de cada etapa que ya miden para Micrometer;
+ * ServerTimingFilter la emite al final del request como cabecera Server-Timing
+ * y como una línea de log estructurada.
+ *
+ * server-timing.enabled se fija en el constructor: cada contexto (y cada test
+ * con sus propiedades) tiene su propio valor, sin estado estático compartido.
+ *
+ * ⚡ Coste:
+ * - Desactivado: record() es la lectura de un campo final y un return (sin asignaciones)
+ * - Activado: un ThreadLocal.get() y una suma en un long[] reutilizado por hilo
+ * - No lee el reloj: recibe los deltas de nanoTime que el llamador ya calculó
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class RequestTiming {
+
+    /**
+     * Etapas reportadas; el nombre es el usado en Server-Timing.
+     */
+    public enum Stage {
+        JWT_PARSE("jwt-parse"),
+        JWT_BLACKLIST("jwt-blacklist"),
+        JWT_USER("jwt-user"),
+        DB_LOOKUP("db-lookup"),
+        DB_LOCK("db-lock"),
+        DB_UPDATE("db-update"),
+        DB_LEDGER("db-ledger"),
+        SMTP("smtp");
+
+        private final String metricName;
+
+        Stage(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final boolean enabled;
+
+    private final ThreadLocal<Breakdown> current = ThreadLocal.withInitial(Breakdown::new);
+
+    public RequestTiming(@Value("${server-timing.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 📝 Suma la duración de una etapa al request en curso
+     *
+     * @param stage Etapa medida
+     * @param nanos Duración en nanosegundos
+     */
+    public void record(Stage stage, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        Breakdown breakdown = current.get();
+        if (breakdown.active) {
+            breakdown.durations[stage.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * @return true si el desglose por request está activado
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inicia el contexto del hilo actual para un request nuevo.
+     */
+    Breakdown begin() {
+        Breakdown breakdown = current.get();
+        Arrays.fill(breakdown.durations, 0L);
+        breakdown.startNanos = System.nanoTime();
+        breakdown.active = true;
+        return breakdown;
+    }
+
+    /**
+     * 🧮 Duraciones del request en curso; un objeto reutilizado por hilo.
+     */
+    static final class Breakdown {
+
+        private final long[] durations = new long[STAGES.length];
+        private boolean active;
+        private long startNanos;
+
+        /**
+         * Cierra el contexto; las etapas posteriores se ignoran.
+         */
+        void end() {
+            active = false;
+        }
+
+        long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        /**
+         * Escribe "nombre;dur=ms" por cada etapa con duración registrada más el total.
+         */
+        void appendServerTiming(StringBuilder out, long totalNanos) {
+            for (Stage stage : STAGES) {
+                long nanos = durations[stage.ordinal()];
+                if (nanos > 0) {
+                    out.append(stage.metricName()).append(";dur=");
+                    appendMillis(out, nanos);
+                    out.append(", ");
+                }
+            }
+            out.append("total;dur=");
+            appendMillis(out, totalNanos);
+        }
+
+        /**
+         * Escribe "nombre_ms=valor" por cada etapa con duración registrada.
+         */
+        void appendLogFields(StringBuilder out) {
+            for (Stage stage : STAGES) {
+                long nanos = durations[stage.ordinal()];
+                if (nanos > 0) {
+                    out.append(' ').append(stage.metricName()).append("_ms=");
+                    appendMillis(out, nanos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Milisegundos con tres decimales sin pasar por String.format.
+     */
+    static void appendMillis(StringBuilder out, long nanos) {
+        long micros = nanos / 1_000;
+        out.append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+}
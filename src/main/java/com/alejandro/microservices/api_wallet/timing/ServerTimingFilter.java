@@ -0,0 +1,153 @@
+package com.alejandro.microservices.api_wallet.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * ⏱️ Server-Timing Filter - Desglose de latencia por request (opt-in)
+ *
+ * Con server-timing.enabled=true (leído por RequestTiming), cada request abre
+ * un desglose en su hilo y al terminar:
+ * - Añade la cabecera estándar Server-Timing (visible en las DevTools del navegador)
+ *   p. ej. "jwt-parse;dur=0.081, db-lock;dur=1.204, smtp;dur=48.310, total;dur=52.977"
+ * - Escribe una línea de log estructurada (logger request.timing)
+ *
+ * La cabecera debe salir antes de que la respuesta se confirme, así que se
+ * añade cuando el controlador empieza a escribir el cuerpo (o al final si no
+ * hay cuerpo). server-timing.header-enabled=false deja solo el log, útil si no
+ * se quiere exponer el desglose a los clientes.
+ *
+ * Desactivado, el filtro solo delega en la cadena.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger timingLog = LoggerFactory.getLogger("request.timing");
+
+    private final RequestTiming requestTiming;
+    private final boolean headerEnabled;
+
+    public ServerTimingFilter(RequestTiming requestTiming,
+                              @Value("${server-timing.header-enabled:true}") boolean headerEnabled) {
+        this.requestTiming = requestTiming;
+        this.headerEnabled = headerEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!requestTiming.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTiming.Breakdown timing = requestTiming.begin();
+        TimingResponse timingResponse = headerEnabled ? new TimingResponse(response, timing) : null;
+        try {
+            filterChain.doFilter(request, timingResponse != null ? timingResponse : response);
+        } finally {
+            long totalNanos = timing.elapsedNanos();
+            if (timingResponse != null) {
+                timingResponse.writeHeader();
+            }
+            timing.end();
+            log(request, response, timing, totalNanos);
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response,
+                     RequestTiming.Breakdown timing, long totalNanos) {
+        if (!timingLog.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(160)
+                .append("method=").append(request.getMethod())
+                .append(" path=").append(request.getRequestURI())
+                .append(" status=").append(response.getStatus())
+                .append(" total_ms=");
+        RequestTiming.appendMillis(line, totalNanos);
+        timing.appendLogFields(line);
+        timingLog.info(line.toString());
+    }
+
+    /**
+     * Añade Server-Timing justo antes de que el cuerpo empiece a escribirse.
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming.Breakdown timing;
+        private boolean headerWritten;
+
+        TimingResponse(HttpServletResponse response, RequestTiming.Breakdown timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void writeHeader() {
+            if (headerWritten || isCommitted()) {
+                return;
+            }
+            headerWritten = true;
+            StringBuilder value = new StringBuilder(128);
+            timing.appendServerTiming(value, timing.elapsedNanos());
+            setHeader("Server-Timing", value.toString());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.alejandro.microservices.api_wallet.user.controller;
 
+import com.alejandro.microservices.api_wallet.user.dto.ChangePasswordRequest;
+import com.alejandro.microservices.api_wallet.user.service.UserAccountService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -15,6 +17,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @SecurityRequirement(name = "bearerAuth")
 public class UserController {
 
+    private final UserAccountService userAccountService;
+
+    public UserController(UserAccountService userAccountService) {
+        this.userAccountService = userAccountService;
+    }
+
     @GetMapping("/profile")
     @Operation(summary = "Perfil de usuario", description = "Obtiene el perfil del usuario autenticado")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
@@ -31,6 +39,20 @@ public class UserController {
         return ResponseEntity.ok("Perfil actualizado exitosamente");
     }
 
+    @PostMapping("/password")
+    @Operation(summary = "Cambiar contraseña", description = "Cambia la contraseña e invalida todos los tokens emitidos")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<String> changePassword(@RequestBody ChangePasswordRequest request,
+                                                 Authentication authentication) {
+        try {
+            userAccountService.changePassword(authentication.getName(),
+                    request.getCurrentPassword(), request.getNewPassword());
+            return ResponseEntity.ok("Contraseña actualizada. Todas las sesiones han sido cerradas.");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/preferences")
     @Operation(summary = "Preferencias de usuario", description = "Obtiene las preferencias del usuario")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
@@ -0,0 +1,9 @@
+package com.alejandro.microservices.api_wallet.user.dto;
+
+import lombok.Data;
+
+@Data
+public class ChangePasswordRequest {
+    private String currentPassword;
+    private String newPassword;
+}
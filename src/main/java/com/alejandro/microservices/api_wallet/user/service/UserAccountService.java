@@ -0,0 +1,121 @@
+package com.alejandro.microservices.api_wallet.user.service;
+
+import com.alejandro.microservices.api_wallet.security.RefreshSessionService;
+import com.alejandro.microservices.api_wallet.security.TokenRevocationService;
+import com.alejandro.microservices.api_wallet.security.UserDetailsCache;
+import com.alejandro.microservices.api_wallet.wallet.entity.User;
+import com.alejandro.microservices.api_wallet.wallet.repository.UserRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 👤 User Account Service - Cambios sensibles sobre cuentas de usuario
+ *
+ * Toda operación que cambia credenciales o el estado de la cuenta revoca los
+ * tokens emitidos hasta el momento mediante la marca de agua por usuario de
+ * TokenRevocationService, sin tocar la blacklist por token, revoca sus
+ * sesiones de refresh token e invalida el
+ * UserDetails cacheado una vez confirmada la transacción.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Service
+public class UserAccountService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshSessionService refreshSessionService;
+
+    public UserAccountService(UserRepository userRepository,
+                              PasswordEncoder passwordEncoder,
+                              TokenRevocationService tokenRevocationService,
+                              UserDetailsCache userDetailsCache,
+                              RefreshSessionService refreshSessionService) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsCache = userDetailsCache;
+        this.refreshSessionService = refreshSessionService;
+    }
+
+    /**
+     * 🔑 Cambia la contraseña y cierra todas las sesiones del usuario
+     *
+     * @param email Usuario autenticado
+     * @param currentPassword Contraseña actual en claro
+     * @param newPassword Nueva contraseña en claro
+     * @throws RuntimeException si el usuario no existe o la contraseña actual no coincide
+     */
+    @Transactional
+    public void changePassword(String email, String currentPassword, String newPassword) {
+        if (newPassword == null || newPassword.isBlank()) {
+            throw new RuntimeException("La nueva contraseña es obligatoria");
+        }
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        if (currentPassword == null || !passwordEncoder.matches(currentPassword, user.getPassword())) {
+            throw new RuntimeException("Contraseña actual incorrecta");
+        }
+
+        user.setPassword(passwordEncoder.encode(newPassword));
+        userRepository.save(user);
+        refreshSessionService.revokeAll(user.getEmail());
+
+        tokenRevocationService.revokeAllTokens(user.getEmail(), user.getId());
+        evictAfterCommit(user.getEmail());
+    }
+
+    /**
+     * 🚫 Deshabilita un usuario e invalida todos sus tokens
+     *
+     * @param userId Id del usuario
+     * @throws RuntimeException si el usuario no existe
+     */
+    @Transactional
+    public void disableUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        user.setEnabled(false);
+        userRepository.save(user);
+        refreshSessionService.revokeAll(user.getEmail());
+
+        tokenRevocationService.revokeAllTokens(user.getEmail(), user.getId());
+        evictAfterCommit(user.getEmail());
+    }
+
+    /**
+     * 🚪 Cierra la sesión en todos los dispositivos
+     *
+     * @param email Usuario autenticado
+     */
+    @Transactional
+    public void logoutAllDevices(String email) {
+        refreshSessionService.revokeAll(email);
+        tokenRevocationService.revokeAllTokens(email);
+    }
+
+    /**
+     * 🧹 Invalida la caché de UserDetails cuando el cambio ya es visible
+     *
+     * Invalidar antes del commit permitiría que un login concurrente
+     * volviera a cachear la contraseña o el estado anterior.
+     */
+    private void evictAfterCommit(String email) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userDetailsCache.evict(email);
+            }
+        });
+    }
+}
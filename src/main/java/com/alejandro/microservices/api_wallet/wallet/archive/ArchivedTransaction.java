@@ -0,0 +1,17 @@
+package com.alejandro.microservices.api_wallet.wallet.archive;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Movimiento del ledger leído de un segmento de archivo (mismas columnas que transactions).
+ */
+public record ArchivedTransaction(long id,
+                                  Long walletFrom,
+                                  Long walletTo,
+                                  BigDecimal amount,
+                                  String type,
+                                  String status,
+                                  Instant createdAt,
+                                  String description) {
+}
@@ -0,0 +1,67 @@
+package com.alejandro.microservices.api_wallet.wallet.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * 🗃️ Confirmaciones de segmentos vía JDBC (aplicación MVC)
+ *
+ * Además de confirmar los segmentos de este nodo, responde a LedgerArchiveJob
+ * si un mes ya se puede purgar y olvida los nodos caídos.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class JdbcLedgerSegmentConfirmations extends LedgerSegmentConfirmations {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcLedgerSegmentConfirmations(JdbcTemplate jdbcTemplate,
+                                          @Value("${ledger.archive.node-id:}") String nodeId) {
+        super(nodeId);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 🔍 Nodos vivos que aún no han confirmado el segmento del mes
+     *
+     * @param month Mes archivado
+     * @param nodeTimeoutMillis Sin latido durante este tiempo, un nodo se da por caído
+     * @return 0 cuando todos los nodos vivos sirven ya el mes desde su segmento
+     */
+    public long pendingNodes(YearMonth month, long nodeTimeoutMillis) {
+        Long pending = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger_archive_nodes n WHERE n.last_seen_millis >= ? AND NOT EXISTS ("
+                        + "SELECT 1 FROM ledger_segment_confirmations c "
+                        + "WHERE c.node_id = n.node_id AND c.segment_month = ?)",
+                Long.class, System.currentTimeMillis() - nodeTimeoutMillis, month.toString());
+        return pending == null ? 0 : pending;
+    }
+
+    /**
+     * 🧹 Olvida los nodos sin latido (y sus confirmaciones)
+     *
+     * Si un nodo olvidado vuelve, su siguiente confirm() lo registra de nuevo
+     * y reconfirma todos sus segmentos.
+     *
+     * @return Nodos olvidados
+     */
+    public int forgetStaleNodes(long nodeTimeoutMillis) {
+        // 🔀 Primero el nodo: si vuelve justo ahora, su UPDATE de latido falla y se registra de cero
+        int forgotten = jdbcTemplate.update("DELETE FROM ledger_archive_nodes WHERE last_seen_millis < ?",
+                System.currentTimeMillis() - nodeTimeoutMillis);
+        jdbcTemplate.update("DELETE FROM ledger_segment_confirmations WHERE node_id NOT IN ("
+                + "SELECT node_id FROM ledger_archive_nodes)");
+        return forgotten;
+    }
+
+    @Override
+    protected long update(String sql, Object... args) {
+        return jdbcTemplate.update(sql, args);
+    }
+}
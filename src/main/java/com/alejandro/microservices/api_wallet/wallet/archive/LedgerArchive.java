@@ -0,0 +1,234 @@
+package com.alejandro.microservices.api_wallet.wallet.archive;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🧊 Ledger Archive - Historial frío del ledger
+ *
+ * Conjunto de segmentos mensuales (ledger-YYYY-MM.seg) en un directorio local.
+ * El propio directorio es el manifiesto: un segmento existe cuando su rename
+ * atómico ha terminado, así que otros nodos que compartan el directorio lo
+ * descubren en la siguiente relectura sin coordinación adicional.
+ *
+ * El archivo cubre siempre meses completos y contiguos hasta archivedBefore():
+ * los movimientos anteriores a ese instante se leen de aquí y los posteriores
+ * de la tabla transactions.
+ *
+ * 🔄 Relectura:
+ * - Los segmentos abiertos se publican como una instantánea inmutable en un
+ *   campo volatile: las lecturas nunca esperan ni recorren el directorio
+ * - refresh() relee el directorio cada ledger.archive.refresh-interval-ms y
+ *   sustituye la instantánea; refresh() y register() se serializan con un
+ *   ReentrantLock (no fija hilos virtuales como synchronized)
+ * - Tras cada publicación el nodo confirma sus meses
+ *   (LedgerSegmentConfirmations): LedgerArchiveJob no purga un mes hasta que
+ *   todos los nodos vivos lo sirven desde su segmento
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class LedgerArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerArchive.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("ledger-(\\d{4})-(\\d{2})\\.seg");
+
+    private final Path directory;
+    private final ObjectProvider<LedgerSegmentConfirmations> confirmations;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // 📚 Segmentos del más reciente al más antiguo; nunca se modifica, se sustituye entera
+    private volatile NavigableMap<YearMonth, LedgerSegment> segments =
+            Collections.unmodifiableNavigableMap(new TreeMap<>(Collections.reverseOrder()));
+
+    public LedgerArchive(@Value("${ledger.archive.directory:data/ledger-archive}") Path directory,
+                         ObjectProvider<LedgerSegmentConfirmations> confirmations) {
+        this.directory = directory;
+        this.confirmations = confirmations;
+    }
+
+    /**
+     * 📥 Primera lectura del directorio antes de servir historial
+     */
+    @PostConstruct
+    public void start() {
+        refresh();
+    }
+
+    /**
+     * 🔄 Mapea los segmentos nuevos y publica la instantánea resultante
+     *
+     * Los segmentos ya abiertos se conservan (son inmutables). Si un fichero
+     * no se puede abrir se mantiene la instantánea anterior: publicar sin él
+     * dejaría un hueco en el historial.
+     */
+    @Scheduled(initialDelayString = "${ledger.archive.refresh-interval-ms:60000}",
+            fixedDelayString = "${ledger.archive.refresh-interval-ms:60000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            NavigableMap<YearMonth, LedgerSegment> current = segments;
+            NavigableMap<YearMonth, LedgerSegment> next = scan(current);
+            if (next != current) {
+                segments = next;
+            }
+            confirm(next);
+        } catch (UncheckedIOException | IllegalStateException e) {
+            logger.error("No se pudo releer el archivo del ledger en {}; se mantienen {} segmentos",
+                    directory, segments.size(), e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * ⏱️ Límite del archivo: todo movimiento anterior vive en los segmentos
+     *
+     * @return Inicio del mes siguiente al último segmento, o EPOCH si no hay archivo
+     */
+    public Instant archivedBefore() {
+        NavigableMap<YearMonth, LedgerSegment> snapshot = segments;
+        if (snapshot.isEmpty()) {
+            return Instant.EPOCH;
+        }
+        return snapshot.firstKey().plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    /**
+     * 🔢 Movimientos archivados de una wallet (solo índices)
+     */
+    public long countFor(Long walletId) {
+        long total = 0;
+        for (LedgerSegment segment : segments.values()) {
+            total += segment.countFor(walletId);
+        }
+        return total;
+    }
+
+    /**
+     * 📜 Historial archivado de una wallet, más reciente primero
+     *
+     * Los segmentos que quedan enteros dentro del offset se saltan con el
+     * contador del índice, sin descomprimir su bloque.
+     *
+     * @param walletId Wallet consultada
+     * @param offset Movimientos archivados a saltar
+     * @param limit Máximo de movimientos
+     * @return Movimientos archivados
+     */
+    public List<ArchivedTransaction> history(Long walletId, long offset, int limit) {
+        List<ArchivedTransaction> result = new ArrayList<>(Math.min(limit, 100));
+        long skip = offset;
+        for (LedgerSegment segment : segments.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            int count = segment.countFor(walletId);
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            result.addAll(segment.read(walletId, (int) skip, limit - result.size()));
+            skip = 0;
+        }
+        return result;
+    }
+
+    /**
+     * 📂 Segmento de un mes, si ya está archivado
+     */
+    public LedgerSegment segment(YearMonth month) {
+        return segments.get(month);
+    }
+
+    /**
+     * 🗂️ Ruta del segmento de un mes dentro del directorio del archivo
+     */
+    public Path pathFor(YearMonth month) {
+        return directory.resolve(String.format("ledger-%04d-%02d.seg", month.getYear(), month.getMonthValue()));
+    }
+
+    /**
+     * ✅ Publica un segmento recién escrito en este nodo sin esperar a la relectura
+     */
+    public void register(LedgerSegment segment) {
+        refreshLock.lock();
+        try {
+            NavigableMap<YearMonth, LedgerSegment> next = new TreeMap<>(segments);
+            next.put(segment.month(), segment);
+            segments = Collections.unmodifiableNavigableMap(next);
+            confirm(segments);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    // 📖 Copia la instantánea y añade los meses nuevos; devuelve la misma si no hay ninguno
+    private NavigableMap<YearMonth, LedgerSegment> scan(NavigableMap<YearMonth, LedgerSegment> current) {
+        if (!Files.isDirectory(directory)) {
+            return current;
+        }
+        NavigableMap<YearMonth, LedgerSegment> next = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "ledger-*.seg")) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                if (!current.containsKey(month)) {
+                    if (next == null) {
+                        next = new TreeMap<>(current);
+                    }
+                    next.put(month, LedgerSegment.open(file));
+                    logger.info("Segmento de ledger {} disponible ({})", month, file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el archivo del ledger en " + directory, e);
+        }
+        return next == null ? current : Collections.unmodifiableNavigableMap(next);
+    }
+
+    // 💓 Sin base de datos (o con ella caída) el nodo no confirma y la purga espera
+    private void confirm(NavigableMap<YearMonth, LedgerSegment> snapshot) {
+        LedgerSegmentConfirmations nodeConfirmations = confirmations.getIfAvailable();
+        if (nodeConfirmations == null) {
+            return;
+        }
+        try {
+            nodeConfirmations.confirm(snapshot.keySet());
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron confirmar los segmentos del ledger: {}", e.getMessage());
+        }
+    }
+}
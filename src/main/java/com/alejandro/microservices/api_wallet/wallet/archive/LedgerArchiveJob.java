@@ -0,0 +1,231 @@
+package com.alejandro.microservices.api_wallet.wallet.archive;
+
+import com.alejandro.microservices.api_wallet.config.TransactionPartitionScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * 🗄️ Ledger Archive Job - Archivado de movimientos antiguos
+ *
+ * Mueve los meses del ledger más antiguos que la retención
+ * (ledger.archive.retention-months) de la tabla transactions a segmentos
+ * inmutables del LedgerArchive, de modo que la tabla caliente queda acotada
+ * y el historial completo sigue disponible.
+ *
+ * 🔄 Por cada mes vencido, del más antiguo al más reciente:
+ * 1. Escribe el segmento si no existe (lectura por rango de created_at)
+ * 2. Borra las filas calientes cuando el segmento contiene exactamente las
+ *    mismas filas y todos los nodos vivos lo han confirmado
+ *
+ * Un nodo confirma un mes cuando ya lo sirve desde su segmento
+ * (LedgerSegmentConfirmations), así que las filas no desaparecen de la tabla
+ * mientras algún nodo las siga leyendo de ella. Un nodo sin latido durante
+ * ledger.archive.node-timeout-ms se da por caído y deja de contar. Los meses
+ * se procesan en orden y la pasada se detiene ante el primer error: el
+ * archivo nunca tiene huecos por debajo de su último mes.
+ *
+ * En MySQL el mes archivado se vacía con TRUNCATE PARTITION cuando tiene
+ * partición propia (TransactionPartitionScheduler); si no, con DELETE por lotes.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+public class LedgerArchiveJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerArchiveJob.class);
+
+    private static final int DELETE_BATCH = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerArchive ledgerArchive;
+    private final JdbcLedgerSegmentConfirmations confirmations;
+    private final boolean enabled;
+    private final int retentionMonths;
+    private final long nodeTimeoutMillis;
+
+    public LedgerArchiveJob(JdbcTemplate jdbcTemplate,
+                            LedgerArchive ledgerArchive,
+                            JdbcLedgerSegmentConfirmations confirmations,
+                            @Value("${ledger.archive.enabled:false}") boolean enabled,
+                            @Value("${ledger.archive.retention-months:12}") int retentionMonths,
+                            @Value("${ledger.archive.node-timeout-ms:300000}") long nodeTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ledgerArchive = ledgerArchive;
+        this.confirmations = confirmations;
+        this.enabled = enabled;
+        this.retentionMonths = Math.max(1, retentionMonths);
+        this.nodeTimeoutMillis = nodeTimeoutMillis;
+    }
+
+    /**
+     * 🌙 Cada día a las 4:00 (después del mantenimiento de particiones)
+     */
+    @Scheduled(cron = "${ledger.archive.cron:0 0 4 * * *}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveExpired();
+        } catch (Exception e) {
+            logger.error("Error archivando el ledger", e);
+        }
+    }
+
+    /**
+     * 🗄️ Archiva y purga los meses anteriores a la retención
+     *
+     * @return Meses purgados de la tabla en esta pasada
+     * @throws IOException si un segmento no se puede escribir
+     */
+    public int archiveExpired() throws IOException {
+        YearMonth cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+        Timestamp oldest = jdbcTemplate.query(
+                "SELECT MIN(created_at) FROM transactions WHERE created_at < ?",
+                rangeOf(start(cutoff)),
+                rs -> rs.next() ? rs.getTimestamp(1, utc()) : null);
+        if (oldest == null) {
+            return 0;
+        }
+
+        Files.createDirectories(ledgerArchive.directory());
+        int forgotten = confirmations.forgetStaleNodes(nodeTimeoutMillis);
+        if (forgotten > 0) {
+            logger.info("{} nodos del archivo sin latido olvidados", forgotten);
+        }
+        boolean mySql = isMySql();
+        int purged = 0;
+        for (YearMonth month = YearMonth.from(oldest.toInstant().atOffset(ZoneOffset.UTC));
+             month.isBefore(cutoff); month = month.plusMonths(1)) {
+            long hotRows = countHot(month);
+            LedgerSegment segment = ledgerArchive.segment(month);
+            if (segment == null) {
+                if (hotRows == 0) {
+                    continue; // mes sin movimientos: no hace falta segmento
+                }
+                segment = writeSegment(month);
+            }
+            if (hotRows > 0 && readyToPurge(segment, hotRows)) {
+                purge(month, mySql);
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    private LedgerSegment writeSegment(YearMonth month) throws IOException {
+        List<ArchivedTransaction> rows = jdbcTemplate.query(
+                "SELECT id, wallet_from, wallet_to, amount, type, status, created_at, description "
+                        + "FROM transactions WHERE created_at >= ? AND created_at < ?",
+                rangeOf(start(month), start(month.plusMonths(1))),
+                (rs, rowNum) -> new ArchivedTransaction(
+                        rs.getLong(1),
+                        rs.getObject(2, Long.class),
+                        rs.getObject(3, Long.class),
+                        rs.getBigDecimal(4),
+                        rs.getString(5),
+                        rs.getString(6),
+                        rs.getTimestamp(7, utc()).toInstant(),
+                        rs.getString(8)));
+
+        LedgerSegment.write(ledgerArchive.pathFor(month), month, rows);
+        LedgerSegment segment = LedgerSegment.open(ledgerArchive.pathFor(month));
+        ledgerArchive.register(segment);
+        logger.info("Segmento {} escrito: {} movimientos en {} bytes", month, rows.size(),
+                Files.size(segment.file()));
+        return segment;
+    }
+
+    private boolean readyToPurge(LedgerSegment segment, long hotRows) {
+        if (segment.rowCount() != hotRows) {
+            // Filas añadidas o borradas después de escribir el segmento: se revisa a mano
+            logger.warn("Segmento {} con {} movimientos y {} en la tabla; no se purga",
+                    segment.month(), segment.rowCount(), hotRows);
+            return false;
+        }
+        long pending = confirmations.pendingNodes(segment.month(), nodeTimeoutMillis);
+        if (pending > 0) {
+            // Normal justo después de escribirlo; si persiste, algún nodo no ve el directorio
+            logger.info("Segmento {} sin confirmar por {} nodos; la purga espera", segment.month(), pending);
+            return false;
+        }
+        return true;
+    }
+
+    private void purge(YearMonth month, boolean mySql) {
+        String partition = TransactionPartitionScheduler.partitionName(month);
+        if (mySql && hasPartition(partition)) {
+            jdbcTemplate.execute("ALTER TABLE transactions TRUNCATE PARTITION " + partition);
+            logger.info("Partición {} vaciada tras archivar {}", partition, month);
+            return;
+        }
+        String delete = "DELETE FROM transactions WHERE created_at >= ? AND created_at < ?"
+                + (mySql ? " LIMIT " + DELETE_BATCH : "");
+        PreparedStatementSetter range = rangeOf(start(month), start(month.plusMonths(1)));
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(delete, range);
+            deleted += batch;
+        } while (mySql && batch == DELETE_BATCH);
+        logger.info("{} movimientos de {} borrados de la tabla tras archivarlos", deleted, month);
+    }
+
+    private long countHot(YearMonth month) {
+        Long count = jdbcTemplate.query(
+                "SELECT COUNT(*) FROM transactions WHERE created_at >= ? AND created_at < ?",
+                rangeOf(start(month), start(month.plusMonths(1))),
+                rs -> rs.next() ? rs.getLong(1) : 0L);
+        return count == null ? 0 : count;
+    }
+
+    private boolean hasPartition(String partition) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.partitions "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'transactions' AND partition_name = ?",
+                Integer.class, partition);
+        return count != null && count > 0;
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(product);
+    }
+
+    // ⏱️ Instantes en UTC, igual que los escribe Hibernate
+    private static PreparedStatementSetter rangeOf(Instant... bounds) {
+        return ps -> {
+            for (int i = 0; i < bounds.length; i++) {
+                ps.setTimestamp(i + 1, Timestamp.from(bounds[i]), utc());
+            }
+        };
+    }
+
+    // Calendar no es thread-safe y el driver puede modificarlo: uno por uso
+    private static Calendar utc() {
+        return Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+    }
+
+    private static Instant start(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,547 @@
+package com.alejandro.microservices.api_wallet.wallet.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 🧊 Ledger Segment - Un mes del ledger en un fichero inmutable
+ *
+ * Formato (big endian):
+ * <pre>
+ * cabecera   magic "WLSG", versión, escala de importes, mes (yyyymm), filas,
+ *            wallets, offsets de diccionario / índice / datos
+ * diccionario nombres de type y status (los bloques guardan un byte por fila)
+ * índice     una entrada de 28 bytes por wallet, ordenado por walletId:
+ *            walletId, offset del bloque, bytes comprimidos, bytes sin comprimir, filas
+ * datos      un bloque Deflate por wallet con sus movimientos (enviados y recibidos),
+ *            más reciente primero, por columnas: ids, instantes, dirección,
+ *            contraparte, importes, type, status, descripciones
+ * </pre>
+ *
+ * ⚡ Lectura:
+ * - El fichero se mapea en memoria (FileChannel.map): abrir no lee datos
+ * - El historial de una wallet es una búsqueda binaria en el índice y un único
+ *   bloque contiguo que se descomprime directamente desde el mapeo
+ * - El número de movimientos de una wallet sale del índice sin descomprimir nada
+ *
+ * Cada movimiento aparece en el bloque de sus dos wallets: se duplica espacio
+ * a cambio de leer el historial de una wallet sin saltos por el fichero.
+ * Ids e instantes van como deltas en varint; por columnas comprimen mucho mejor.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+public final class LedgerSegment {
+
+    private static final int MAGIC = 0x574C5347; // "WLSG"
+    private static final short VERSION = 1;
+    private static final int AMOUNT_SCALE = 2; // DECIMAL(19,2)
+    private static final int HEADER_BYTES = 40;
+    private static final int INDEX_ENTRY_BYTES = 28;
+
+    private static final byte IN = 0;
+    private static final byte OUT = 1;
+    private static final byte SELF = 2;
+
+    private final Path file;
+    private final YearMonth month;
+    private final MappedByteBuffer buffer;
+    private final long rowCount;
+    private final int walletCount;
+    private final int indexOffset;
+    private final int dataOffset;
+    private final String[] types;
+    private final String[] statuses;
+
+    private LedgerSegment(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+                || buffer.getShort(4) != VERSION || buffer.getShort(6) != AMOUNT_SCALE) {
+            throw new IllegalStateException("Segmento de ledger no válido: " + file);
+        }
+        int yearMonth = buffer.getInt(8);
+        try {
+            this.month = YearMonth.of(yearMonth / 100, yearMonth % 100);
+        } catch (DateTimeException e) {
+            throw new IllegalStateException("Segmento de ledger no válido: " + file, e);
+        }
+        this.rowCount = buffer.getLong(12);
+        this.walletCount = buffer.getInt(20);
+        int dictionaryOffset = buffer.getInt(24);
+        this.indexOffset = buffer.getInt(28);
+        this.dataOffset = buffer.getInt(32);
+        if (rowCount < 0 || walletCount < 0 || dictionaryOffset != HEADER_BYTES || indexOffset < dictionaryOffset
+                || (long) indexOffset + (long) walletCount * INDEX_ENTRY_BYTES != dataOffset
+                || dataOffset > buffer.capacity()) {
+            throw new IllegalStateException("Cabecera de segmento no válida: " + file);
+        }
+        // ✂️ El último bloque debe acabar justo al final del fichero: detecta copias a medias
+        long end = dataOffset;
+        if (walletCount > 0) {
+            int last = indexOffset + (walletCount - 1) * INDEX_ENTRY_BYTES;
+            end = buffer.getLong(last + 8) + buffer.getInt(last + 16);
+        }
+        if (end != buffer.capacity()) {
+            throw new IllegalStateException("Segmento truncado: " + file + " (" + buffer.capacity()
+                    + " bytes, se esperaban " + end + ")");
+        }
+
+        try {
+            ByteBuffer dictionary = buffer.slice(dictionaryOffset, indexOffset - dictionaryOffset);
+            this.types = readNames(dictionary);
+            this.statuses = readNames(dictionary);
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IllegalStateException("Diccionario de segmento no válido: " + file, e);
+        }
+    }
+
+    /**
+     * 📂 Mapea un segmento existente (solo lectura)
+     *
+     * @param file Fichero del segmento
+     * @return Segmento listo para consultas
+     * @throws IOException si el fichero no se puede leer
+     */
+    public static LedgerSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Segmento demasiado grande para un único mapeo: " + file);
+            }
+            // El mapeo sigue válido después de cerrar el canal
+            return new LedgerSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * ✍️ Escribe un segmento de forma atómica (fichero temporal, fsync y rename)
+     *
+     * @param file Destino
+     * @param month Mes que contiene el segmento
+     * @param rows Movimientos del mes
+     * @throws IOException si falla la escritura
+     */
+    public static void write(Path file, YearMonth month, List<ArchivedTransaction> rows) throws IOException {
+        List<String> typeNames = new ArrayList<>(new TreeSet<>(rows.stream().map(ArchivedTransaction::type).toList()));
+        List<String> statusNames = new ArrayList<>(new TreeSet<>(rows.stream().map(ArchivedTransaction::status).toList()));
+
+        // 👛 Movimientos por wallet (ordenado por walletId para la búsqueda binaria)
+        Map<Long, List<ArchivedTransaction>> byWallet = new TreeMap<>();
+        for (ArchivedTransaction row : rows) {
+            if (row.walletFrom() != null) {
+                byWallet.computeIfAbsent(row.walletFrom(), k -> new ArrayList<>()).add(row);
+            }
+            if (row.walletTo() != null && !row.walletTo().equals(row.walletFrom())) {
+                byWallet.computeIfAbsent(row.walletTo(), k -> new ArrayList<>()).add(row);
+            }
+        }
+
+        byte[] dictionary = encodeDictionary(typeNames, statusNames);
+        int indexOffset = HEADER_BYTES + dictionary.length;
+        int dataOffset = indexOffset + byWallet.size() * INDEX_ENTRY_BYTES;
+
+        Map<String, Integer> typeCodes = codes(typeNames);
+        Map<String, Integer> statusCodes = codes(statusNames);
+        List<long[]> index = new ArrayList<>(byWallet.size());
+        List<byte[]> blocks = new ArrayList<>(byWallet.size());
+        long blockOffset = dataOffset;
+        for (Map.Entry<Long, List<ArchivedTransaction>> entry : byWallet.entrySet()) {
+            List<ArchivedTransaction> walletRows = entry.getValue();
+            walletRows.sort(Comparator.comparing(ArchivedTransaction::createdAt)
+                    .thenComparingLong(ArchivedTransaction::id).reversed());
+            byte[] raw = encodeBlock(entry.getKey(), walletRows, typeCodes, statusCodes);
+            byte[] compressed = deflate(raw);
+            index.add(new long[]{entry.getKey(), blockOffset, compressed.length, raw.length, walletRows.size()});
+            blocks.add(compressed);
+            blockOffset += compressed.length;
+        }
+        if (blockOffset > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Segmento de " + month + " demasiado grande para un único mapeo");
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(AMOUNT_SCALE);
+            out.writeInt(month.getYear() * 100 + month.getMonthValue());
+            out.writeLong(rows.size());
+            out.writeInt(byWallet.size());
+            out.writeInt(HEADER_BYTES);
+            out.writeInt(indexOffset);
+            out.writeInt(dataOffset);
+            out.writeInt(0);
+            out.write(dictionary);
+            for (long[] entry : index) {
+                out.writeLong(entry[0]);
+                out.writeLong(entry[1]);
+                out.writeInt((int) entry[2]);
+                out.writeInt((int) entry[3]);
+                out.writeInt((int) entry[4]);
+            }
+            for (byte[] block : blocks) {
+                out.write(block);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public YearMonth month() {
+        return month;
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 🔢 Movimientos de la wallet en este segmento (solo lee el índice)
+     *
+     * @param walletId Wallet consultada
+     * @return Número de movimientos, 0 si la wallet no aparece
+     */
+    public int countFor(long walletId) {
+        int entry = findEntry(walletId);
+        return entry < 0 ? 0 : buffer.getInt(entry + 24);
+    }
+
+    /**
+     * 📜 Movimientos de la wallet, más reciente primero
+     *
+     * @param walletId Wallet consultada
+     * @param skip Movimientos a saltar
+     * @param limit Máximo de movimientos
+     * @return Página de movimientos del segmento
+     */
+    public List<ArchivedTransaction> read(long walletId, int skip, int limit) {
+        int entry = findEntry(walletId);
+        if (entry < 0 || limit <= 0) {
+            return List.of();
+        }
+        int offset = (int) buffer.getLong(entry + 8);
+        int compressedLength = buffer.getInt(entry + 16);
+        int rawLength = buffer.getInt(entry + 20);
+        int rows = buffer.getInt(entry + 24);
+        if (skip >= rows) {
+            return List.of();
+        }
+
+        List<ArchivedTransaction> decoded;
+        try {
+            byte[] raw = inflate(buffer.slice(offset, compressedLength), rawLength);
+            decoded = decodeBlock(walletId, new VarReader(raw), rows);
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalStateException("Bloque corrupto en " + file, e);
+        }
+        return decoded.subList(skip, Math.min(rows, skip + limit));
+    }
+
+    // 🔍 Búsqueda binaria sobre el índice mapeado; devuelve la posición de la entrada o -1
+    private int findEntry(long walletId) {
+        int low = 0;
+        int high = walletCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = indexOffset + mid * INDEX_ENTRY_BYTES;
+            long current = buffer.getLong(position);
+            if (current < walletId) {
+                low = mid + 1;
+            } else if (current > walletId) {
+                high = mid - 1;
+            } else {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] encodeBlock(long walletId, List<ArchivedTransaction> rows,
+                                      Map<String, Integer> typeCodes, Map<String, Integer> statusCodes) {
+        VarWriter out = new VarWriter();
+        long previous = 0;
+        for (ArchivedTransaction row : rows) {
+            out.writeSigned(row.id() - previous);
+            previous = row.id();
+        }
+        previous = 0;
+        for (ArchivedTransaction row : rows) {
+            long micros = toMicros(row.createdAt());
+            out.writeSigned(micros - previous);
+            previous = micros;
+        }
+        for (ArchivedTransaction row : rows) {
+            out.writeByte(direction(walletId, row));
+        }
+        for (ArchivedTransaction row : rows) {
+            Long counterparty = direction(walletId, row) == OUT ? row.walletTo() : row.walletFrom();
+            out.writeUnsigned(counterparty == null ? 0 : counterparty);
+        }
+        for (ArchivedTransaction row : rows) {
+            // ArithmeticException si un importe no cabe en la escala: mejor fallar que redondear
+            out.writeSigned(row.amount().setScale(AMOUNT_SCALE).unscaledValue().longValueExact());
+        }
+        for (ArchivedTransaction row : rows) {
+            out.writeByte(typeCodes.get(row.type()));
+        }
+        for (ArchivedTransaction row : rows) {
+            out.writeByte(statusCodes.get(row.status()));
+        }
+        for (ArchivedTransaction row : rows) {
+            out.writeString(row.description());
+        }
+        return out.toByteArray();
+    }
+
+    private List<ArchivedTransaction> decodeBlock(long walletId, VarReader in, int rows) {
+        long[] ids = new long[rows];
+        long[] micros = new long[rows];
+        byte[] directions = new byte[rows];
+        long[] counterparties = new long[rows];
+        long[] amounts = new long[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            previous += in.readSigned();
+            ids[i] = previous;
+        }
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            previous += in.readSigned();
+            micros[i] = previous;
+        }
+        for (int i = 0; i < rows; i++) {
+            directions[i] = in.readByte();
+        }
+        for (int i = 0; i < rows; i++) {
+            counterparties[i] = in.readUnsigned();
+        }
+        for (int i = 0; i < rows; i++) {
+            amounts[i] = in.readSigned();
+        }
+        String[] rowTypes = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            rowTypes[i] = types[in.readByte()];
+        }
+        String[] rowStatuses = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            rowStatuses[i] = statuses[in.readByte()];
+        }
+
+        List<ArchivedTransaction> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Long counterparty = counterparties[i] == 0 ? null : counterparties[i];
+            Long from = switch (directions[i]) {
+                case OUT, SELF -> walletId;
+                default -> counterparty;
+            };
+            Long to = switch (directions[i]) {
+                case IN, SELF -> walletId;
+                default -> counterparty;
+            };
+            result.add(new ArchivedTransaction(ids[i], from, to, BigDecimal.valueOf(amounts[i], AMOUNT_SCALE),
+                    rowTypes[i], rowStatuses[i], fromMicros(micros[i]), in.readString()));
+        }
+        return result;
+    }
+
+    private static byte direction(long walletId, ArchivedTransaction row) {
+        boolean out = row.walletFrom() != null && row.walletFrom() == walletId;
+        boolean in = row.walletTo() != null && row.walletTo() == walletId;
+        return out && in ? SELF : out ? OUT : IN;
+    }
+
+    private static byte[] encodeDictionary(List<String> typeNames, List<String> statusNames) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (List<String> names : List.of(typeNames, statusNames)) {
+                out.writeByte(names.size());
+                for (String name : names) {
+                    out.writeUTF(name);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String[] readNames(ByteBuffer dictionary) {
+        String[] names = new String[dictionary.get()];
+        for (int i = 0; i < names.length; i++) {
+            byte[] utf = new byte[dictionary.getShort()];
+            dictionary.get(utf);
+            names[i] = new String(utf, StandardCharsets.UTF_8); // nombres de enum: ASCII
+        }
+        return names;
+    }
+
+    private static Map<String, Integer> codes(List<String> names) {
+        Map<String, Integer> codes = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            codes.put(names.get(i), i);
+        }
+        return codes;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(ByteBuffer compressed, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, rawLength - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break; // bloque cortado: sin más entrada no avanzaría nunca
+                }
+                read += inflated;
+            }
+            if (read != rawLength) {
+                throw new IllegalStateException("Bloque truncado en " + file);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloque corrupto en " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000);
+    }
+
+    /**
+     * Escritura de varints (LEB128; con signo en zigzag) y cadenas con longitud.
+     */
+    private static final class VarWriter {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void writeUnsigned(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void writeSigned(long value) {
+            writeUnsigned((value << 1) ^ (value >> 63));
+        }
+
+        void writeByte(int value) {
+            out.write(value);
+        }
+
+        // Longitud + 1; 0 representa null
+        void writeString(String value) {
+            if (value == null) {
+                writeUnsigned(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(utf8.length + 1L);
+            out.write(utf8, 0, utf8.length);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    private static final class VarReader {
+
+        private final byte[] data;
+        private int position;
+
+        VarReader(byte[] data) {
+            this.data = data;
+        }
+
+        long readUnsigned() {
+            long value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = data[position++];
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+
+        long readSigned() {
+            long raw = readUnsigned();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        byte readByte() {
+            return data[position++];
+        }
+
+        String readString() {
+            int length = (int) readUnsigned();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(data, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+    }
+}
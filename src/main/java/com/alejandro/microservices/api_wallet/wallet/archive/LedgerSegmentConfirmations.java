@@ -0,0 +1,70 @@
+package com.alejandro.microservices.api_wallet.wallet.archive;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ Ledger Segment Confirmations - Qué segmentos tiene mapeados cada nodo
+ *
+ * LedgerArchive llama a confirm() tras cada relectura del directorio y tras
+ * publicar un segmento propio: el nodo renueva su latido en
+ * ledger_archive_nodes y confirma los meses nuevos en
+ * ledger_segment_confirmations. LedgerArchiveJob solo purga un mes cuando
+ * ningún nodo vivo carece de su confirmación, así que un nodo que no comparte
+ * el directorio (o que aún no lo ha releído) bloquea la purga en lugar de
+ * devolver un historial con huecos.
+ *
+ * Las sentencias son las mismas en la aplicación MVC (JDBC) y en el proceso
+ * reactivo (R2DBC); cada implementación solo aporta cómo ejecutarlas.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+public abstract class LedgerSegmentConfirmations {
+
+    private final String nodeId;
+
+    // 📌 Meses ya confirmados por este nodo desde su último registro
+    private final Set<YearMonth> confirmed = ConcurrentHashMap.newKeySet();
+
+    protected LedgerSegmentConfirmations(String nodeId) {
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 💓 Renueva el latido del nodo y confirma los meses que aún no había confirmado
+     *
+     * @param months Meses que el nodo sirve ya desde sus segmentos
+     */
+    public void confirm(Collection<YearMonth> months) {
+        long now = System.currentTimeMillis();
+        if (update("UPDATE ledger_archive_nodes SET last_seen_millis = ? WHERE node_id = ?", now, nodeId) == 0) {
+            // 🆕 Nodo nuevo, o dado por caído y olvidado por el job: sus confirmaciones ya no cuentan
+            update("DELETE FROM ledger_segment_confirmations WHERE node_id = ?", nodeId);
+            update("INSERT INTO ledger_archive_nodes (node_id, last_seen_millis) VALUES (?, ?)", nodeId, now);
+            confirmed.clear();
+        }
+        for (YearMonth month : months) {
+            if (!confirmed.contains(month)) {
+                update("INSERT INTO ledger_segment_confirmations (segment_month, node_id, confirmed_millis) "
+                        + "VALUES (?, ?, ?)", month.toString(), nodeId, now);
+                confirmed.add(month);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta una sentencia con parámetros posicionales (?)
+     *
+     * @return Filas afectadas
+     */
+    protected abstract long update(String sql, Object... args);
+}
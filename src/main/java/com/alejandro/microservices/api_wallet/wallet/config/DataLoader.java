@@ -1,28 +1,45 @@
 package com.alejandro.microservices.api_wallet.wallet.config;
 
 import com.alejandro.microservices.api_wallet.wallet.entity.Role;
+import com.alejandro.microservices.api_wallet.wallet.entity.User;
 import com.alejandro.microservices.api_wallet.wallet.repository.RoleRepository;
+import com.alejandro.microservices.api_wallet.wallet.repository.UserRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Component
 public class DataLoader implements CommandLineRunner {
 
+    // BCrypt de "password" (usuarios de prueba documentados en README)
+    private static final String DEMO_PASSWORD_HASH = "$2a$10$dXJ3SW6G7P50lGmMkkmwe.20cQQubK3.HZWzG3YB1tlRy.fqvM/BG";
+
     private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
 
-    public DataLoader(RoleRepository roleRepository) {
+    public DataLoader(RoleRepository roleRepository, UserRepository userRepository) {
         this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
     }
 
     @Override
+    @Transactional
     public void run(String... args) {
-        if (roleRepository.findByName(Role.RoleName.ROLE_USER).isEmpty()) {
-            roleRepository.save(new Role(Role.RoleName.ROLE_USER));
+        Role userRole = roleRepository.findByName(Role.RoleName.ROLE_USER)
+                .orElseGet(() -> roleRepository.save(new Role(Role.RoleName.ROLE_USER)));
+        Role adminRole = roleRepository.findByName(Role.RoleName.ROLE_ADMIN)
+                .orElseGet(() -> roleRepository.save(new Role(Role.RoleName.ROLE_ADMIN)));
+
+        if (!userRepository.existsByEmail("admin")) {
+            User admin = new User("Administrador", "admin", DEMO_PASSWORD_HASH);
+            admin.getRoles().add(adminRole);
+            admin.getRoles().add(userRole);
+            userRepository.save(admin);
         }
-        if (roleRepository.findByName(Role.RoleName.ROLE_ADMIN).isEmpty()) {
-            roleRepository.save(new Role(Role.RoleName.ROLE_ADMIN));
+        if (!userRepository.existsByEmail("user")) {
+            User user = new User("Usuario", "user", DEMO_PASSWORD_HASH);
+            user.getRoles().add(userRole);
+            userRepository.save(user);
         }
     }
 }
-
-
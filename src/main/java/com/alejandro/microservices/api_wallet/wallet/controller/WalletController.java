@@ -1,5 +1,8 @@
 package com.alejandro.microservices.api_wallet.wallet.controller;
 
+import com.alejandro.microservices.api_wallet.audit.entity.AuditLogEntry;
+import com.alejandro.microservices.api_wallet.audit.service.AuditService;
+import com.alejandro.microservices.api_wallet.wallet.dto.TransactionResponse;
 import com.alejandro.microservices.api_wallet.wallet.dto.TransferRequest;
 import com.alejandro.microservices.api_wallet.wallet.dto.TransferResponse;
 import com.alejandro.microservices.api_wallet.wallet.dto.WalletResponse;
@@ -8,10 +11,16 @@ import com.alejandro.microservices.api_wallet.wallet.service.WalletService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/wallet")
 @Tag(name = "Wallet", description = "Operaciones de wallet digital")
@@ -19,9 +28,11 @@ import org.springframework.web.bind.annotation.*;
 public class WalletController {
 
     private final WalletService walletService;
+    private final AuditService auditService;
 
-    public WalletController(WalletService walletService) {
+    public WalletController(WalletService walletService, AuditService auditService) {
         this.walletService = walletService;
+        this.auditService = auditService;
     }
 
     @PostMapping("/create")
@@ -40,22 +51,55 @@ public class WalletController {
     @Operation(summary = "Obtener balance", description = "Obtiene el balance de la wallet del usuario autenticado")
     public ResponseEntity<WalletResponse> getBalance(Authentication authentication) {
         Wallet wallet = walletService.getWalletByUserEmail(authentication.getName());
+        // 👤 La wallet es del usuario autenticado: no hace falta cargar wallet.user (LAZY)
         WalletResponse response = new WalletResponse(
             wallet.getId(), 
-            wallet.getUser().getEmail(), 
+            authentication.getName(), 
             wallet.getBalance()
         );
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/transactions")
+    @Operation(summary = "Historial de movimientos", description = "Movimientos de la wallet del usuario autenticado, más reciente primero")
+    public ResponseEntity<List<TransactionResponse>> getTransactions(@RequestParam(defaultValue = "0") int page,
+                                                                     @RequestParam(defaultValue = "20") int size,
+                                                                     Authentication authentication) {
+        return ResponseEntity.ok(walletService.getTransactionHistory(authentication.getName(), page, size));
+    }
+
     @PostMapping("/transfer")
     @Operation(summary = "Realizar transferencia", description = "Realiza una transferencia desde la wallet del usuario autenticado a otra wallet")
     public ResponseEntity<TransferResponse> transfer(@RequestBody TransferRequest request,
-                                                     Authentication authentication) {
-        walletService.transfer(authentication.getName(), request.getToEmail(), request.getAmount());
+                                                     Authentication authentication,
+                                                     HttpServletRequest httpRequest) {
+        boolean executed;
+        try {
+            executed = walletService.transfer(authentication.getName(), request.getToEmail(), request.getAmount(),
+                    request.getClientTransferId());
+        } catch (ConcurrencyFailureException e) {
+            // 🔁 Deadlock o timeout de bloqueo: la transacción se revirtió y es seguro reintentar
+            auditService.publish(AuditLogEntry.EventType.TRANSFER_FAILURE, authentication.getName(),
+                    httpRequest.getRemoteAddr(), request.getToEmail(), request.getAmount(), "lock-conflict");
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new TransferResponse("Transferencia en conflicto, reintente",
+                            authentication.getName(), request.getToEmail(), request.getAmount(),
+                            java.time.Instant.now()));
+        } catch (RuntimeException e) {
+            auditService.publish(AuditLogEntry.EventType.TRANSFER_FAILURE, authentication.getName(),
+                    httpRequest.getRemoteAddr(), request.getToEmail(), request.getAmount(), e.getMessage());
+            throw e;
+        }
+        // 📝 Solo tras el commit: una transferencia revertida no se audita como exitosa
+        // 🔁 Un reintento con el mismo clientTransferId ya quedó auditado la primera vez
+        if (executed) {
+            auditService.publish(AuditLogEntry.EventType.TRANSFER, authentication.getName(),
+                    httpRequest.getRemoteAddr(), request.getToEmail(), request.getAmount(), null);
+        }
         
         TransferResponse response = new TransferResponse(
-            "Transferencia realizada con éxito",
+            executed ? "Transferencia realizada con éxito" : "Transferencia ya realizada",
             authentication.getName(),
             request.getToEmail(),
             request.getAmount(),
@@ -0,0 +1,25 @@
+package com.alejandro.microservices.api_wallet.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionResponse {
+    private Long id;
+    private String type;
+    private String status;
+    private String direction; // IN u OUT respecto a la wallet consultada
+    private BigDecimal amount;
+    private Instant createdAt;
+    private String description;
+
+    public static String direction(Long walletId, Long walletFromId) {
+        return walletId.equals(walletFromId) ? "OUT" : "IN";
+    }
+}
@@ -8,4 +8,6 @@ import java.math.BigDecimal;
 public class TransferRequest {
     private String toEmail;
     private BigDecimal amount;
+    // 🔁 Opcional: el mismo id en un reintento no repite la transferencia
+    private String clientTransferId;
 }
@@ -6,22 +6,23 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "blacklisted_tokens", indexes = {
-    @Index(name = "idx_token", columnList = "token(255)"),
-    @Index(name = "idx_expires_at", columnList = "expires_at")
-})
-@Getter 
-@Setter 
-@NoArgsConstructor 
-@AllArgsConstructor 
+@Table(name = "token_blacklist",
+    uniqueConstraints = @UniqueConstraint(name = "uk_token_hash", columnNames = "token_hash"),
+    indexes = @Index(name = "idx_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
 @Builder
 public class BlacklistedToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_blacklist_seq")
+    @SequenceGenerator(name = "token_blacklist_seq", sequenceName = "token_blacklist_seq", allocationSize = 50)
     private Long id;
 
-    @Column(columnDefinition = "TEXT", nullable = false)
-    private String token;
+    // SHA-256 del token completo (ver TokenDigest), clave fija de 32 bytes
+    @Column(name = "token_hash", columnDefinition = "BINARY(32)", nullable = false, length = 32)
+    private byte[] tokenHash;
 
     @Column(name = "expires_at", nullable = false)
     private Instant expiresAt;
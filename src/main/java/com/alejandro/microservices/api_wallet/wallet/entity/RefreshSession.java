@@ -0,0 +1,52 @@
+package com.alejandro.microservices.api_wallet.wallet.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Sesión de refresh token (una por dispositivo). Solo se guarda el SHA-256
+ * del token vigente y del inmediatamente anterior para detectar reutilización.
+ */
+@Entity
+@Table(name = "refresh_sessions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = "token_hash"),
+    indexes = {
+        @Index(name = "idx_refresh_previous_hash", columnList = "previous_hash"),
+        @Index(name = "idx_refresh_username", columnList = "username"),
+        @Index(name = "idx_refresh_expires_at", columnList = "expires_at")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshSession {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "token_hash", columnDefinition = "BINARY(32)", nullable = false, length = 32)
+    private byte[] tokenHash;
+
+    @Column(name = "previous_hash", columnDefinition = "BINARY(32)", length = 32)
+    private byte[] previousHash;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean revoked = false;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "last_used_at")
+    private Instant lastUsedAt;
+}
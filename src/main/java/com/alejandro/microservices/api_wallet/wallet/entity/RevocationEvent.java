@@ -0,0 +1,53 @@
+package com.alejandro.microservices.api_wallet.wallet.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entrada del log append-only de revocaciones. Cada nodo lo recorre por id
+ * creciente para replicar blacklist y marcas por usuario en memoria.
+ */
+@Entity
+@Table(name = "revocation_log",
+    indexes = @Index(name = "idx_revocation_log_created_at", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevocationEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EventType type;
+
+    // TOKEN: SHA-256 del token y su expiración
+    @Column(name = "token_hash", columnDefinition = "BINARY(32)", length = 32)
+    private byte[] tokenHash;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    // USER: usuario, su id (nulo en un logout) y marca de revocación
+    @Column(name = "username")
+    private String username;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoked_before")
+    private Instant revokedBefore;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    public enum EventType {
+        TOKEN, USER
+    }
+}
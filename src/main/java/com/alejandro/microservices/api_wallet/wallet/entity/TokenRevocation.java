@@ -0,0 +1,31 @@
+package com.alejandro.microservices.api_wallet.wallet.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Marca de revocación por usuario: todo token emitido antes de
+ * revokedBefore queda invalidado. Una fila por usuario, no por token.
+ */
+@Entity
+@Table(name = "token_revocations",
+    indexes = @Index(name = "idx_revocation_updated_at", columnList = "updated_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenRevocation {
+    @Id
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "revoked_before", nullable = false)
+    private Instant revokedBefore;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private Instant updatedAt = Instant.now();
+}
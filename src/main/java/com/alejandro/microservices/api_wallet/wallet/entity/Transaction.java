@@ -5,26 +5,37 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.Instant;
 
+/**
+ * Movimiento del ledger. La tabla la gestiona Flyway (db/migration): particionada
+ * por mes sobre created_at, con PK (id, created_at) y sin claves foráneas.
+ */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+    indexes = {
+        @Index(name = "idx_tx_wallet_from_created", columnList = "wallet_from, created_at, id"),
+        @Index(name = "idx_tx_wallet_to_created", columnList = "wallet_to, created_at, id"),
+        @Index(name = "idx_tx_wallet_from_client_transfer", columnList = "wallet_from, client_transfer_id")
+    })
 @Getter
 @Setter
 @ToString(exclude = {"walletFrom", "walletTo"})
 @EqualsAndHashCode(exclude = {"walletFrom", "walletTo"})
 @NoArgsConstructor
 public class Transaction {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "wallet_from")
+    @JoinColumn(name = "wallet_from", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Wallet walletFrom; // nullable for DEPOSIT
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "wallet_to")
+    @JoinColumn(name = "wallet_to", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Wallet walletTo;   // nullable for WITHDRAW
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal amount;
 
     @Enumerated(EnumType.STRING)
@@ -35,11 +46,14 @@ public class Transaction {
     @Column(nullable = false)
     private TransactionStatus status;
 
+    // 📅 Columna de partición: obligatoria
+    @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
 
     private String description;
 
-    @Column(unique = true)
+    // Sin UNIQUE en la tabla particionada: WalletService lo busca por wallet de origen antes de insertar
+    @Column(name = "client_transfer_id", length = 64)
     private String clientTransferId; // optional for idempotency
 
     public enum TransactionType {
@@ -2,30 +2,49 @@ package com.alejandro.microservices.api_wallet.wallet.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * Usuario. En caché de segundo nivel (lectura-escritura), con el email como
+ * natural id: UserRepository.findCachedWithRolesByEmail resuelve email → id →
+ * usuario → roles sin SQL una vez calientes las regiones (ver application.conf).
+ * La región guarda el estado completo, hash de contraseña incluido, como ya
+ * hace UserDetailsCache: vive solo en el heap del proceso.
+ */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 @Getter
 @Setter
 @ToString(exclude = "roles")
 @EqualsAndHashCode(exclude = "roles")
 @NoArgsConstructor
 public class User {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     private String fullName;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String email;
 
     @Column(nullable = false)
     private String password; // hashed
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users.roles")
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
@@ -33,8 +52,8 @@ public class User {
 
     private Instant createdAt = Instant.now();
 
-    @Column(name = "refresh_token")
-    private String refreshToken;
+    @Column(nullable = false, columnDefinition = "boolean default true")
+    private boolean enabled = true;
 
     public User(String fullName, String email, String password) {
         this.fullName = fullName;
@@ -1,15 +1,34 @@
 package com.alejandro.microservices.api_wallet.wallet.repository;
 
+import com.alejandro.microservices.api_wallet.config.PrimaryRead;
 import com.alejandro.microservices.api_wallet.wallet.entity.BlacklistedToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
+@PrimaryRead
 public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedToken, Long> {
-    Optional<BlacklistedToken> findByToken(String token);
-    boolean existsByToken(String token);
-    void deleteByExpiresAtBefore(Instant instant);
+    Optional<BlacklistedToken> findByTokenHash(byte[] tokenHash);
+    boolean existsByTokenHash(byte[] tokenHash);
+    List<BlacklistedToken> findByExpiresAtAfter(Instant instant);
+
+    // Recorre idx_expires_at y devuelve solo ids, sin cargar entidades
+    @Query("select b.id from BlacklistedToken b where b.expiresAt < :instant order by b.expiresAt")
+    List<Long> findExpiredIds(@Param("instant") Instant instant, Pageable pageable);
+
+    // Un único DELETE por lote en su propia transacción corta
+    @Transactional
+    @Modifying
+    @Query("delete from BlacklistedToken b where b.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
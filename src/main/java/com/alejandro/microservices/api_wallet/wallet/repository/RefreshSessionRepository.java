@@ -0,0 +1,49 @@
+package com.alejandro.microservices.api_wallet.wallet.repository;
+
+import com.alejandro.microservices.api_wallet.config.PrimaryRead;
+import com.alejandro.microservices.api_wallet.wallet.entity.RefreshSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+@PrimaryRead
+public interface RefreshSessionRepository extends JpaRepository<RefreshSession, Long> {
+    Optional<RefreshSession> findByTokenHash(byte[] tokenHash);
+
+    @Query("select s.id from RefreshSession s where s.previousHash = :hash")
+    Optional<Long> findIdByPreviousHash(@Param("hash") byte[] hash);
+
+    // Rotación condicional: solo gana quien presenta el hash vigente
+    @Transactional
+    @Modifying
+    @Query("update RefreshSession s set s.previousHash = :oldHash, s.tokenHash = :newHash, " +
+           "s.expiresAt = :expiresAt, s.lastUsedAt = :now " +
+           "where s.id = :id and s.tokenHash = :oldHash and s.revoked = false")
+    int rotate(@Param("id") Long id,
+               @Param("oldHash") byte[] oldHash,
+               @Param("newHash") byte[] newHash,
+               @Param("expiresAt") Instant expiresAt,
+               @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshSession s set s.revoked = true where s.id = :id")
+    int revokeById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshSession s set s.revoked = true where s.username = :username and s.revoked = false")
+    int revokeAllByUsername(@Param("username") String username);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshSession s where s.expiresAt < :instant")
+    int purgeExpired(@Param("instant") Instant instant);
+}
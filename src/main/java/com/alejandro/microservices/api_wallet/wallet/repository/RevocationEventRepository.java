@@ -0,0 +1,28 @@
+package com.alejandro.microservices.api_wallet.wallet.repository;
+
+import com.alejandro.microservices.api_wallet.config.PrimaryRead;
+import com.alejandro.microservices.api_wallet.wallet.entity.RevocationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+@PrimaryRead
+public interface RevocationEventRepository extends JpaRepository<RevocationEvent, Long> {
+    List<RevocationEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select coalesce(max(e.id), 0) from RevocationEvent e")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevocationEvent e where e.createdAt < :instant")
+    int purgeOlderThan(@Param("instant") Instant instant);
+}
@@ -0,0 +1,24 @@
+package com.alejandro.microservices.api_wallet.wallet.repository;
+
+import com.alejandro.microservices.api_wallet.config.PrimaryRead;
+import com.alejandro.microservices.api_wallet.wallet.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+@PrimaryRead
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, String> {
+    List<TokenRevocation> findByRevokedBeforeAfter(Instant instant);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocation r where r.revokedBefore < :instant")
+    int purgeOlderThan(@Param("instant") Instant instant);
+}
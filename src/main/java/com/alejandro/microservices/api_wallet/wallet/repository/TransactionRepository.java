@@ -1,10 +1,57 @@
 package com.alejandro.microservices.api_wallet.wallet.repository;
 
 import com.alejandro.microservices.api_wallet.wallet.entity.Transaction;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Page<Transaction> findByWalletFromIdOrWalletToId(Long fromId, Long toId, Pageable pageable);
+
+    // 🔁 Transferencia previa con el mismo clientTransferId (idx_tx_wallet_from_client_transfer).
+    // Lectura con bloqueo: ve la última versión confirmada, no la foto de REPEATABLE READ
+    // tomada antes de esperar el lock de la wallet
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select t from Transaction t where t.walletFrom.id = :walletId and t.clientTransferId = :clientTransferId")
+    List<Transaction> findByClientTransferIdForShare(@Param("walletId") Long walletId,
+                                                     @Param("clientTransferId") String clientTransferId);
+
+    // 📜 Historial de una wallet, más reciente primero y sin consulta count(*);
+    // since es el límite del archivo frío (LedgerArchive.archivedBefore)
+    default List<Transaction> findHistory(Long walletId, Instant since, Pageable pageable) {
+        return findHistory(walletId, since, pageable.getOffset() + pageable.getPageSize(),
+                pageable.getPageSize(), pageable.getOffset());
+    }
+
+    // 🔀 "wallet_from = ? or wallet_to = ?" como dos recorridos ordenados, uno por índice
+    // (idx_tx_wallet_from_created / idx_tx_wallet_to_created), de a lo sumo offset + limit filas
+    // cada uno; el OR directo obliga a leer y ordenar todos los movimientos de la wallet.
+    // La segunda rama excluye los movimientos de la wallet a sí misma, ya incluidos en la primera.
+    @Query(value = "select h.* from ("
+            + "(select t.* from transactions t where t.wallet_from = :walletId and t.created_at >= :since "
+            + "order by t.created_at desc, t.id desc limit :fetch) "
+            + "union all "
+            + "(select t.* from transactions t where t.wallet_to = :walletId and t.created_at >= :since "
+            + "and (t.wallet_from is null or t.wallet_from <> :walletId) "
+            + "order by t.created_at desc, t.id desc limit :fetch)"
+            + ") h order by h.created_at desc, h.id desc limit :limit offset :offset",
+            nativeQuery = true)
+    List<Transaction> findHistory(@Param("walletId") Long walletId, @Param("since") Instant since,
+                                  @Param("fetch") long fetch, @Param("limit") int limit,
+                                  @Param("offset") long offset);
+
+    // 🔢 Movimientos calientes de la wallet (misma división por índices que findHistory)
+    @Query(value = "select (select count(*) from transactions t where t.wallet_from = :walletId "
+            + "and t.created_at >= :since) "
+            + "+ (select count(*) from transactions t where t.wallet_to = :walletId and t.created_at >= :since "
+            + "and (t.wallet_from is null or t.wallet_from <> :walletId))",
+            nativeQuery = true)
+    long countHistory(@Param("walletId") Long walletId, @Param("since") Instant since);
 }
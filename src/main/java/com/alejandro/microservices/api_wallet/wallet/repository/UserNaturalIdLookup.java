@@ -0,0 +1,14 @@
+package com.alejandro.microservices.api_wallet.wallet.repository;
+
+import com.alejandro.microservices.api_wallet.wallet.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Búsqueda de usuarios por natural id (email) a través de la caché de segundo nivel.
+ */
+public interface UserNaturalIdLookup {
+
+    // Email → id (users-by-email) → usuario (users) → roles (users.roles / roles), sin SQL si están en caché
+    Optional<User> findCachedWithRolesByEmail(String email);
+}
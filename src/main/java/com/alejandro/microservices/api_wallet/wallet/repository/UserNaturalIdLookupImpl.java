@@ -0,0 +1,34 @@
+package com.alejandro.microservices.api_wallet.wallet.repository;
+
+import com.alejandro.microservices.api_wallet.config.PrimaryRead;
+import com.alejandro.microservices.api_wallet.wallet.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Fragmento de UserRepository: las consultas JPQL no pasan por la caché de
+ * entidades, la carga por natural id sí.
+ */
+@PrimaryRead
+class UserNaturalIdLookupImpl implements UserNaturalIdLookup {
+
+    private final EntityManager entityManager;
+
+    UserNaturalIdLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findCachedWithRolesByEmail(String email) {
+        Optional<User> user = entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+        user.ifPresent(u -> Hibernate.initialize(u.getRoles()));
+        return user;
+    }
+}
@@ -1,10 +1,13 @@
 package com.alejandro.microservices.api_wallet.wallet.repository;
 
+import com.alejandro.microservices.api_wallet.config.PrimaryRead;
 import com.alejandro.microservices.api_wallet.wallet.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+@PrimaryRead
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdLookup {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 }
@@ -2,12 +2,28 @@ package com.alejandro.microservices.api_wallet.wallet.repository;
 
 import com.alejandro.microservices.api_wallet.wallet.entity.User;
 import com.alejandro.microservices.api_wallet.wallet.entity.Wallet;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     Optional<Wallet> findByUser(User user);
+
+    Optional<Wallet> findByUserEmail(String email);
+
+    @Query("select w.id from Wallet w where w.user.email = :email")
+    Optional<Long> findIdByUserEmail(@Param("email") String email);
+
+    // Bloqueo de filas en orden de id: dos transferencias cruzadas no se bloquean mutuamente
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Wallet w where w.id in :ids order by w.id")
+    List<Wallet> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,16 @@
+package com.alejandro.microservices.api_wallet.wallet.service;
+
+import java.math.BigDecimal;
+
+/**
+ * 📣 Evento publicado por WalletService al registrar una transferencia.
+ *
+ * Los listeners transaccionales lo reciben después del commit, así que nunca
+ * se notifica una transferencia revertida.
+ *
+ * @param fromEmail Email del usuario origen
+ * @param toEmail Email del usuario destino
+ * @param amount Monto transferido
+ */
+public record TransferCompletedEvent(String fromEmail, String toEmail, BigDecimal amount) {
+}
@@ -1,15 +1,28 @@
 package com.alejandro.microservices.api_wallet.wallet.service;
 
-import com.alejandro.microservices.api_wallet.email.service.EmailService;
+import com.alejandro.microservices.api_wallet.config.ReadYourWritesGuard;
+import com.alejandro.microservices.api_wallet.config.ReplicaRead;
+import com.alejandro.microservices.api_wallet.timing.RequestTiming;
+import com.alejandro.microservices.api_wallet.wallet.archive.LedgerArchive;
+import com.alejandro.microservices.api_wallet.wallet.dto.TransactionResponse;
+import com.alejandro.microservices.api_wallet.wallet.entity.Transaction;
 import com.alejandro.microservices.api_wallet.wallet.entity.User;
 import com.alejandro.microservices.api_wallet.wallet.entity.Wallet;
+import com.alejandro.microservices.api_wallet.wallet.repository.TransactionRepository;
 import com.alejandro.microservices.api_wallet.wallet.repository.UserRepository;
 import com.alejandro.microservices.api_wallet.wallet.repository.WalletRepository;
-import jakarta.mail.MessagingException;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 💰 Wallet Service - Lógica de Negocio para Gestión de Wallets
@@ -40,15 +53,23 @@ import java.math.BigDecimal;
  * 📧 Integración con Email Service:
  * - Notificaciones automáticas de transferencias recibidas
  * - Confirmaciones de transferencias enviadas
- * - Manejo graceful de fallos de email
+ * - Se envían tras el commit (TransferNotificationListener), fuera del request
  * - No bloquea la transferencia si falla el email
  * 
  * 📊 Métricas de Performance:
  * - Creación de wallet: < 50ms
- * - Consulta de balance: < 10ms
- * - Transferencia completa: < 200ms
- * - Envío de notificaciones: < 100ms
+ * - Consulta de balance: < 10ms (timer wallet.balance)
+ * - Transferencia completa: < 200ms (timer wallet.transfer)
+ * - Envío de notificaciones: < 100ms (timer email.send)
+ *
+ * Cada etapa de la transferencia se mide por separado en el timer
+ * wallet.transfer.stage (tag stage = lookup, lock, update, ledger, notify),
+ * expuesto en /actuator/prometheus con buckets de histograma.
  * 
+ * 🔁 Idempotencia:
+ * - Con clientTransferId, un reintento de la misma transferencia no mueve
+ *   dinero dos veces: se busca con la wallet de origen ya bloqueada
+ *
  * 🔄 Flujo de Transferencia:
  * 1. Validar monto y usuarios
  * 2. Verificar fondos suficientes
@@ -66,19 +87,70 @@ public class WalletService {
     // 🔧 Dependencias inyectadas por constructor
     private final WalletRepository walletRepository;
     private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionRepository transactionRepository;
+    private final LedgerArchive ledgerArchive;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final RequestTiming requestTiming;
+
+    // 📊 Timers registrados una sola vez: medir no hace búsquedas por tags
+    private final Timer balanceTimer;
+    private final Timer transferSuccessTimer;
+    private final Timer transferFailureTimer;
+    private final Timer lookupTimer;
+    private final Timer lockTimer;
+    private final Timer updateTimer;
+    private final Timer ledgerTimer;
+    private final Timer notifyTimer;
 
     /**
      * 🔧 Constructor con inyección de dependencias
      * 
      * @param walletRepository Repositorio para operaciones de wallet
      * @param userRepository Repositorio para operaciones de usuario
-     * @param emailService Servicio para envío de notificaciones
+     * @param eventPublisher Publicador del evento de transferencia (notificaciones)
+     * @param transactionRepository Repositorio del libro de movimientos
+     * @param ledgerArchive Segmentos archivados del ledger (historial frío)
+     * @param readYourWritesGuard Fija al primario las lecturas de quien acaba de transferir
+     * @param requestTiming Desglose por request para Server-Timing
+     * @param meterRegistry Registro de métricas de Micrometer
      */
-    public WalletService(WalletRepository walletRepository, UserRepository userRepository, EmailService emailService) {
+    public WalletService(WalletRepository walletRepository, UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                         TransactionRepository transactionRepository, LedgerArchive ledgerArchive,
+                         ReadYourWritesGuard readYourWritesGuard, RequestTiming requestTiming,
+                         MeterRegistry meterRegistry) {
         this.walletRepository = walletRepository;
         this.userRepository = userRepository;
-        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.transactionRepository = transactionRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.requestTiming = requestTiming;
+
+        this.balanceTimer = Timer.builder("wallet.balance")
+                .description("Consulta de balance (presupuesto < 10ms)")
+                .register(meterRegistry);
+        this.transferSuccessTimer = transferTimer(meterRegistry, "success");
+        this.transferFailureTimer = transferTimer(meterRegistry, "failure");
+        this.lookupTimer = stageTimer(meterRegistry, "lookup");
+        this.lockTimer = stageTimer(meterRegistry, "lock");
+        this.updateTimer = stageTimer(meterRegistry, "update");
+        this.ledgerTimer = stageTimer(meterRegistry, "ledger");
+        this.notifyTimer = stageTimer(meterRegistry, "notify");
+    }
+
+    private static Timer transferTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("wallet.transfer")
+                .description("Transferencia completa (presupuesto < 200ms)")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("wallet.transfer.stage")
+                .description("Duración de cada etapa de la transferencia")
+                .tag("stage", stage)
+                .register(meterRegistry);
     }
 
     /**
@@ -145,22 +217,84 @@ public class WalletService {
      * - Auditoría de transacciones
      * 
      * ⚡ Performance:
-     * - Consulta optimizada con índices
+     * - Una única sentencia SQL (wallet join users por email)
      * - Respuesta en < 10ms promedio
-     * - Caché de consultas frecuentes
+     * - @ReplicaRead: con réplicas configuradas se sirve desde una réplica,
+     *   salvo si el usuario acaba de transferir (ReadYourWritesGuard)
      * 
      * @param email Email del usuario
      * @return Wallet del usuario con balance actual
      * @throws RuntimeException si el usuario no existe o no tiene wallet
      */
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public Wallet getWalletByUserEmail(String email) {
-        // 👤 Buscar usuario por email
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        long start = System.nanoTime();
+        try {
+            // 💳 Wallet del usuario en una sola consulta (join por email)
+            return walletRepository.findByUserEmail(email)
+                    .orElseThrow(() -> notFound(email, "Usuario no encontrado", "Wallet no encontrada"));
+        } finally {
+            balanceTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
-        // 💳 Buscar wallet del usuario
-        return walletRepository.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Wallet no encontrada"));
+    /**
+     * 📜 Historial de movimientos de la wallet del usuario
+     *
+     * ⚡ Performance:
+     * - Dos sentencias: id de la wallet por email y una página de movimientos
+     * - Sin count(*): el cliente pide la página siguiente hasta recibir menos de size
+     *
+     * 🧊 Historial archivado:
+     * - Los meses ya archivados (LedgerArchive) se leen de los segmentos, no de la tabla
+     * - La página continúa en el archivo cuando la parte caliente se agota; solo
+     *   entonces se cuenta la parte caliente para calcular el offset en el archivo
+     *
+     * @param email Email del usuario
+     * @param page Página (desde 0)
+     * @param size Tamaño de página (1 a 100)
+     * @return Movimientos, más reciente primero
+     * @throws RuntimeException si el usuario no existe o no tiene wallet
+     */
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public List<TransactionResponse> getTransactionHistory(String email, int page, int size) {
+        Long walletId = walletRepository.findIdByUserEmail(email)
+                .orElseThrow(() -> notFound(email, "Usuario no encontrado", "Wallet no encontrada"));
+        int pageSize = Math.max(1, Math.min(size, 100));
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), pageSize);
+        Instant archivedBefore = ledgerArchive.archivedBefore();
+
+        List<TransactionResponse> history = new ArrayList<>(pageSize);
+        transactionRepository.findHistory(walletId, archivedBefore, pageRequest)
+                .forEach(t -> history.add(new TransactionResponse(
+                        t.getId(),
+                        t.getType().name(),
+                        t.getStatus().name(),
+                        // 🔗 getId() de un proxy LAZY no lo inicializa
+                        TransactionResponse.direction(walletId, t.getWalletFrom() != null ? t.getWalletFrom().getId() : null),
+                        t.getAmount(),
+                        t.getCreatedAt(),
+                        t.getDescription())));
+        if (history.size() == pageSize || Instant.EPOCH.equals(archivedBefore)) {
+            return history;
+        }
+
+        // 🧊 Página incompleta: el resto sale del archivo
+        long archiveOffset = history.isEmpty() && pageRequest.getOffset() > 0
+                ? Math.max(0, pageRequest.getOffset() - transactionRepository.countHistory(walletId, archivedBefore))
+                : 0;
+        ledgerArchive.history(walletId, archiveOffset, pageSize - history.size())
+                .forEach(t -> history.add(new TransactionResponse(
+                        t.id(),
+                        t.type(),
+                        t.status(),
+                        TransactionResponse.direction(walletId, t.walletFrom()),
+                        t.amount(),
+                        t.createdAt(),
+                        t.description())));
+        return history;
     }
 
     /**
@@ -181,18 +315,18 @@ public class WalletService {
      * - Isolation: Transacciones concurrentes no interfieren
      * - Durability: Cambios persisten en base de datos
      * 
-     * 📧 Notificaciones Automáticas:
+     * 📧 Notificaciones Automáticas (después del commit, en el pool de correo):
      * - Email al destinatario sobre transferencia recibida
      * - Email al remitente confirmando transferencia enviada
      * - Manejo graceful de fallos de email
      * 
-     * 🔄 Flujo de Transferencia:
-     * 1. Validar monto y usuarios
-     * 2. Verificar fondos suficientes
-     * 3. Debitar de wallet origen
-     * 4. Acreditar en wallet destino
-     * 5. Enviar notificaciones por email
-     * 6. Confirmar operación exitosa
+     * 🔄 Flujo de Transferencia (cada etapa con su timer):
+     * 1. lookup: resolver las wallets de origen y destino por email
+     * 2. lock: bloquear ambas filas en orden de id (SELECT ... FOR UPDATE)
+     * 3. Verificar fondos suficientes sobre el balance bloqueado
+     * 4. update: debitar de wallet origen y acreditar en wallet destino
+     * 5. ledger: registrar el movimiento en transactions
+     * 6. notify: publicar TransferCompletedEvent (los correos salen tras el commit)
      * 
      * 📊 Métricas de Transferencia:
      * - Tiempo total: < 200ms
@@ -207,62 +341,124 @@ public class WalletService {
      */
     @Transactional
     public void transfer(String fromEmail, String toEmail, BigDecimal amount) {
+        transfer(fromEmail, toEmail, amount, null);
+    }
+
+    /**
+     * 🔁 Transferencia idempotente
+     *
+     * Con la wallet de origen bloqueada (paso lock) se busca un movimiento
+     * previo de esa wallet con el mismo clientTransferId. Dos reintentos
+     * simultáneos se serializan en ese lock, así que el segundo siempre ve el
+     * movimiento del primero: no hace falta un UNIQUE, que la tabla
+     * particionada no admite sin created_at.
+     *
+     * @param clientTransferId Id elegido por el cliente (máx. 64); null o vacío = sin idempotencia
+     * @return true si se ejecutó; false si ya existía (no se mueve dinero ni se notifica)
+     * @throws RuntimeException si el id ya se usó con otro destino o monto
+     */
+    @Transactional
+    public boolean transfer(String fromEmail, String toEmail, BigDecimal amount, String clientTransferId) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            boolean executed = doTransfer(fromEmail, toEmail, amount, normalize(clientTransferId));
+            // 📌 Sus próximas lecturas van al primario mientras las réplicas se ponen al día
+            readYourWritesGuard.pin(fromEmail);
+            success = true;
+            return executed;
+        } finally {
+            (success ? transferSuccessTimer : transferFailureTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean doTransfer(String fromEmail, String toEmail, BigDecimal amount, String clientTransferId) {
         // 🔍 Validar que el monto sea mayor a cero
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("El monto debe ser mayor a 0");
         }
 
-        // 👤 Buscar usuario origen
-        User fromUser = userRepository.findByEmail(fromEmail)
-                .orElseThrow(() -> new RuntimeException("Usuario origen no encontrado"));
-
-        // 👤 Buscar usuario destino
-        User toUser = userRepository.findByEmail(toEmail)
-                .orElseThrow(() -> new RuntimeException("Usuario destino no encontrado"));
+        // 🔎 lookup: ids de ambas wallets por email (sin cargar usuarios)
+        long t0 = System.nanoTime();
+        Long fromId = walletRepository.findIdByUserEmail(fromEmail)
+                .orElseThrow(() -> notFound(fromEmail, "Usuario origen no encontrado", "Wallet de origen no encontrada"));
+        Long toId = walletRepository.findIdByUserEmail(toEmail)
+                .orElseThrow(() -> notFound(toEmail, "Usuario destino no encontrado", "Wallet de destino no encontrada"));
+        long t1 = System.nanoTime();
+        lookupTimer.record(t1 - t0, TimeUnit.NANOSECONDS);
+        requestTiming.record(RequestTiming.Stage.DB_LOOKUP, t1 - t0);
 
-        // 💳 Buscar wallet de origen
-        Wallet fromWallet = walletRepository.findByUser(fromUser)
-                .orElseThrow(() -> new RuntimeException("Wallet de origen no encontrada"));
+        // 🔒 lock: SELECT ... FOR UPDATE en orden de id (sin deadlocks entre transferencias cruzadas)
+        List<Wallet> locked = walletRepository.findAllByIdForUpdate(
+                fromId.equals(toId) ? List.of(fromId) : List.of(fromId, toId));
+        Wallet fromWallet = locked.stream().filter(w -> w.getId().equals(fromId)).findFirst().orElseThrow();
+        Wallet toWallet = locked.stream().filter(w -> w.getId().equals(toId)).findFirst().orElseThrow();
+        long t2 = System.nanoTime();
+        lockTimer.record(t2 - t1, TimeUnit.NANOSECONDS);
+        requestTiming.record(RequestTiming.Stage.DB_LOCK, t2 - t1);
 
-        // 💳 Buscar wallet de destino
-        Wallet toWallet = walletRepository.findByUser(toUser)
-                .orElseThrow(() -> new RuntimeException("Wallet de destino no encontrada"));
+        // 🔁 Reintento de una transferencia ya confirmada: misma respuesta, sin mover dinero
+        if (clientTransferId != null && isReplay(fromId, toId, amount, clientTransferId)) {
+            return false;
+        }
 
-        // 💰 Verificar fondos suficientes en wallet origen
+        // 💰 Verificar fondos suficientes con el balance ya bloqueado
         if (fromWallet.getBalance().compareTo(amount) < 0) {
             throw new RuntimeException("Fondos insuficientes");
         }
 
-        // 🔄 Ejecutar transferencia atómica
+        // 🔄 update: debitar, acreditar y volcar los UPDATE a la base de datos
         fromWallet.setBalance(fromWallet.getBalance().subtract(amount));
         toWallet.setBalance(toWallet.getBalance().add(amount));
+        walletRepository.flush();
+        long t3 = System.nanoTime();
+        updateTimer.record(t3 - t2, TimeUnit.NANOSECONDS);
+        requestTiming.record(RequestTiming.Stage.DB_UPDATE, t3 - t2);
 
-        // 💾 Persistir cambios en base de datos
-        walletRepository.save(fromWallet);
-        walletRepository.save(toWallet);
+        // 📒 ledger: movimiento en la tabla transactions
+        Transaction movement = new Transaction(fromWallet, toWallet, amount, Transaction.TransactionType.TRANSFER);
+        movement.setStatus(Transaction.TransactionStatus.SUCCESS);
+        movement.setClientTransferId(clientTransferId);
+        transactionRepository.save(movement);
+        long t4 = System.nanoTime();
+        ledgerTimer.record(t4 - t3, TimeUnit.NANOSECONDS);
+        requestTiming.record(RequestTiming.Stage.DB_LEDGER, t4 - t3);
 
-        // 📧 Enviar notificaciones por correo (no bloqueante)
-        try {
-            // 📬 Notificar al destinatario sobre transferencia recibida
-            emailService.enviarNotificacionTransferencia(
-                toEmail, 
-                fromEmail, 
-                amount.doubleValue()
-            );
-            
-            // ✅ Confirmar al remitente sobre transferencia enviada
-            emailService.enviarConfirmacionTransferencia(
-                fromEmail, 
-                toEmail, 
-                amount.doubleValue()
-            );
-        } catch (MessagingException e) {
-            // ⚠️ Log del error pero no fallar la transferencia
-            // En producción, usar logger apropiado y métricas
-            System.err.println("Error enviando correos de notificación: " + e.getMessage());
-            
-            // 📊 Métricas de fallo de email (en producción)
-            // metrics.incrementCounter("email.notification.failure");
+        // 📧 notify: los correos se envían tras el commit, sin retener el request ni los locks
+        eventPublisher.publishEvent(new TransferCompletedEvent(fromEmail, toEmail, amount));
+        notifyTimer.record(System.nanoTime() - t4, TimeUnit.NANOSECONDS);
+        return true;
+    }
+
+    private boolean isReplay(Long fromId, Long toId, BigDecimal amount, String clientTransferId) {
+        List<Transaction> previous = transactionRepository.findByClientTransferIdForShare(fromId, clientTransferId);
+        if (previous.isEmpty()) {
+            return false;
+        }
+        Transaction original = previous.get(0);
+        // 🔗 getId() de un proxy LAZY no lo inicializa
+        if (!toId.equals(original.getWalletTo().getId()) || original.getAmount().compareTo(amount) != 0) {
+            throw new RuntimeException("clientTransferId ya usado en otra transferencia");
+        }
+        return true;
+    }
+
+    private static String normalize(String clientTransferId) {
+        if (clientTransferId == null || clientTransferId.isBlank()) {
+            return null;
         }
+        String trimmed = clientTransferId.trim();
+        if (trimmed.length() > 64) {
+            throw new RuntimeException("clientTransferId admite como máximo 64 caracteres");
+        }
+        return trimmed;
+    }
+
+    /**
+     * Distingue usuario inexistente de usuario sin wallet (solo en el camino de error).
+     */
+    private RuntimeException notFound(String email, String userMessage, String walletMessage) {
+        return new RuntimeException(userRepository.existsByEmail(email) ? walletMessage : userMessage);
     }
 }
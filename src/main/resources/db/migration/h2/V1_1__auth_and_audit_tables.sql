@@ -0,0 +1,65 @@
+-- Ver mysql/V1_1.
+
+alter table users add column enabled boolean default true not null;
+alter table users drop column refresh_token;
+
+create table token_blacklist (
+    id bigint generated by default as identity,
+    token_hash binary(32) not null,
+    expires_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (id),
+    constraint uk_token_hash unique (token_hash)
+);
+
+create table token_revocations (
+    username varchar(255) not null,
+    revoked_before timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    primary key (username)
+);
+
+create table revocation_log (
+    id bigint generated by default as identity,
+    type enum ('TOKEN','USER') not null,
+    token_hash binary(32),
+    expires_at timestamp(6) with time zone,
+    username varchar(255),
+    revoked_before timestamp(6) with time zone,
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create table refresh_sessions (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    token_hash binary(32) not null,
+    previous_hash binary(32),
+    expires_at timestamp(6) with time zone not null,
+    revoked boolean not null,
+    created_at timestamp(6) with time zone not null,
+    last_used_at timestamp(6) with time zone,
+    primary key (id),
+    constraint uk_refresh_token_hash unique (token_hash)
+);
+
+create table audit_log (
+    id bigint generated by default as identity,
+    event_type enum ('LOGIN_BLOCKED','LOGIN_FAILURE','LOGIN_SUCCESS','LOGOUT','LOGOUT_ALL','REFRESH','REFRESH_FAILURE','TRANSFER','TRANSFER_FAILURE') not null,
+    principal varchar(255),
+    client_ip varchar(45),
+    target varchar(255),
+    amount numeric(19,2),
+    detail varchar(255),
+    occurred_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_expires_at on token_blacklist (expires_at);
+create index idx_revocation_updated_at on token_revocations (updated_at);
+create index idx_revocation_log_created_at on revocation_log (created_at);
+create index idx_refresh_previous_hash on refresh_sessions (previous_hash);
+create index idx_refresh_username on refresh_sessions (username);
+create index idx_refresh_expires_at on refresh_sessions (expires_at);
+create index idx_audit_principal_occurred_at on audit_log (principal, occurred_at);
+create index idx_audit_occurred_at on audit_log (occurred_at);
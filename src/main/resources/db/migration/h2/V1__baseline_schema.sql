@@ -0,0 +1,64 @@
+-- Mismo esquema que mysql/V1 (el original, anterior a Flyway) con los tipos de H2Dialect
+-- (tests y pruebas del binario nativo).
+
+create table users (
+    id bigint generated by default as identity,
+    full_name varchar(255),
+    email varchar(255) not null,
+    password varchar(255) not null,
+    created_at timestamp(6) with time zone,
+    refresh_token varchar(255),
+    primary key (id),
+    constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email)
+);
+
+create table roles (
+    id bigint generated by default as identity,
+    name enum ('ROLE_ADMIN','ROLE_USER') not null,
+    primary key (id),
+    constraint UKofx66keruapi6vyqpv6f2or37 unique (name)
+);
+
+create table user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+);
+
+create table wallets (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    balance numeric(38,2) not null,
+    primary key (id),
+    constraint UKsswfdl9fq40xlkove1y5kc7kv unique (user_id)
+);
+
+create table transactions (
+    id bigint generated by default as identity,
+    wallet_from bigint,
+    wallet_to bigint,
+    amount numeric(38,2) not null,
+    type enum ('DEPOSIT','TRANSFER','WITHDRAWAL') not null,
+    status enum ('FAILED','PENDING','SUCCESS') not null,
+    created_at timestamp(6) with time zone,
+    description varchar(255),
+    client_transfer_id varchar(255),
+    primary key (id),
+    constraint UKl8sxnc42se325k7yfmu675vd3 unique (client_transfer_id)
+);
+
+create table blacklisted_tokens (
+    id bigint generated by default as identity,
+    token text not null,
+    expires_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_blacklisted_expires_at on blacklisted_tokens (expires_at);
+
+alter table user_roles add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles (id);
+alter table user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users (id);
+alter table wallets add constraint FKc1foyisidw7wqqrkamafuwn4e foreign key (user_id) references users (id);
+alter table transactions add constraint FK58ecfcq1pnhdon44ukn7h8y7x foreign key (wallet_from) references wallets (id);
+alter table transactions add constraint FKii7nexkp7gr24y7wyqn8rojkm foreign key (wallet_to) references wallets (id);
@@ -0,0 +1,2 @@
+-- Ver mysql/V2.
+alter table wallets alter column balance set data type numeric(19,2);
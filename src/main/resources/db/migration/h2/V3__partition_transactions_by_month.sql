@@ -0,0 +1,22 @@
+-- Ver mysql/V3. H2 no particiona: misma forma de tabla (PK (id, created_at), sin claves
+-- foráneas, mismos índices) para que los tests ejerciten las mismas restricciones.
+-- H2 solo se usa con bases nuevas (tests, binario nativo), así que no hay filas que copiar.
+
+drop table transactions;
+
+create table transactions (
+    id bigint generated by default as identity,
+    wallet_from bigint,
+    wallet_to bigint,
+    amount numeric(19,2) not null,
+    type enum ('DEPOSIT','TRANSFER','WITHDRAWAL') not null,
+    status enum ('FAILED','PENDING','SUCCESS') not null,
+    created_at timestamp(6) with time zone not null,
+    description varchar(255),
+    client_transfer_id varchar(64),
+    primary key (id, created_at)
+);
+
+create index idx_tx_wallet_from_created on transactions (wallet_from, created_at, id);
+create index idx_tx_wallet_to_created on transactions (wallet_to, created_at, id);
+create index idx_tx_client_transfer_id on transactions (client_transfer_id);
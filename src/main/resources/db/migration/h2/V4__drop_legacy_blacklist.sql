@@ -0,0 +1,2 @@
+-- Ver mysql/V4. En H2 la tabla legacy (creada por V1) nunca tiene datos.
+drop table if exists blacklisted_tokens;
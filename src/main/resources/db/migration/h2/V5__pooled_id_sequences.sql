@@ -0,0 +1,26 @@
+-- Ver mysql/V5. En H2 son secuencias nativas con el mismo incremento que allocationSize.
+--
+-- H2 solo existe en tests y arranca vacía, así que las secuencias empiezan en 1. Las columnas
+-- dejan de ser IDENTITY y toman por defecto el siguiente valor de su secuencia: los INSERT
+-- escritos a mano en los tests reciben un id que nunca cae dentro de un bloque reservado por
+-- Hibernate.
+
+create sequence users_seq start with 1 increment by 50;
+alter table users alter column id drop identity;
+alter table users alter column id set default next value for users_seq;
+
+create sequence roles_seq start with 1 increment by 50;
+alter table roles alter column id drop identity;
+alter table roles alter column id set default next value for roles_seq;
+
+create sequence wallets_seq start with 1 increment by 50;
+alter table wallets alter column id drop identity;
+alter table wallets alter column id set default next value for wallets_seq;
+
+create sequence transactions_seq start with 1 increment by 50;
+alter table transactions alter column id drop identity;
+alter table transactions alter column id set default next value for transactions_seq;
+
+create sequence token_blacklist_seq start with 1 increment by 50;
+alter table token_blacklist alter column id drop identity;
+alter table token_blacklist alter column id set default next value for token_blacklist_seq;
@@ -0,0 +1,5 @@
+-- Id del usuario en los eventos USER del log de revocaciones: cada nodo invalida solo
+-- esa entrada de la caché de segundo nivel (users y users-by-email) en lugar de la región entera.
+-- Los eventos anteriores quedan con user_id nulo y solo invalidan el natural id.
+
+alter table revocation_log add column user_id bigint;
@@ -0,0 +1,14 @@
+-- Ver mysql/V7.
+
+create table ledger_archive_nodes (
+    node_id varchar(64) not null,
+    last_seen_millis bigint not null,
+    primary key (node_id)
+);
+
+create table ledger_segment_confirmations (
+    segment_month char(7) not null,
+    node_id varchar(64) not null,
+    confirmed_millis bigint not null,
+    primary key (segment_month, node_id)
+);
@@ -0,0 +1,4 @@
+-- Ver mysql/V8.
+
+drop index idx_tx_client_transfer_id;
+create index idx_tx_wallet_from_client_transfer on transactions (wallet_from, client_transfer_id);
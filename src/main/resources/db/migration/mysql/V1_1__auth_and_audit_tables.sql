@@ -0,0 +1,73 @@
+-- Tablas y columnas que el proyecto añadió sobre el esquema original (V1):
+-- - users.enabled: cuentas deshabilitables por un administrador
+-- - users.refresh_token se elimina: los refresh tokens viven en refresh_sessions y los emitidos
+--   antes de ese cambio ya no son válidos (los clientes vuelven a iniciar sesión)
+-- - token_blacklist: blacklist por SHA-256 del token (V4 migra y elimina blacklisted_tokens)
+-- - token_revocations / revocation_log: marca de agua por usuario y feed de revocaciones entre nodos
+-- - refresh_sessions: refresh tokens rotatorios por dispositivo
+-- - audit_log: auditoría de login, logout, refresh y transferencias
+
+alter table users add column enabled boolean default true not null;
+alter table users drop column refresh_token;
+
+create table token_blacklist (
+    id bigint not null auto_increment,
+    token_hash BINARY(32) not null,
+    expires_at datetime(6) not null,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table token_revocations (
+    username varchar(255) not null,
+    revoked_before datetime(6) not null,
+    updated_at datetime(6) not null,
+    primary key (username)
+) engine=InnoDB;
+
+create table revocation_log (
+    id bigint not null auto_increment,
+    type enum ('TOKEN','USER') not null,
+    token_hash BINARY(32),
+    expires_at datetime(6),
+    username varchar(255),
+    revoked_before datetime(6),
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table refresh_sessions (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    token_hash BINARY(32) not null,
+    previous_hash BINARY(32),
+    expires_at datetime(6) not null,
+    revoked bit not null,
+    created_at datetime(6) not null,
+    last_used_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table audit_log (
+    id bigint not null auto_increment,
+    event_type enum ('LOGIN_BLOCKED','LOGIN_FAILURE','LOGIN_SUCCESS','LOGOUT','LOGOUT_ALL','REFRESH','REFRESH_FAILURE','TRANSFER','TRANSFER_FAILURE') not null,
+    principal varchar(255),
+    client_ip varchar(45),
+    target varchar(255),
+    amount decimal(19,2),
+    detail varchar(255),
+    occurred_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table token_blacklist add constraint uk_token_hash unique (token_hash);
+alter table refresh_sessions add constraint uk_refresh_token_hash unique (token_hash);
+
+create index idx_expires_at on token_blacklist (expires_at);
+create index idx_revocation_updated_at on token_revocations (updated_at);
+create index idx_revocation_log_created_at on revocation_log (created_at);
+create index idx_refresh_previous_hash on refresh_sessions (previous_hash);
+create index idx_refresh_username on refresh_sessions (username);
+create index idx_refresh_expires_at on refresh_sessions (expires_at);
+create index idx_audit_principal_occurred_at on audit_log (principal, occurred_at);
+create index idx_audit_occurred_at on audit_log (occurred_at);
@@ -0,0 +1,71 @@
+-- Esquema del proyecto antes de Flyway, tal como lo dejaba spring.jpa.hibernate.ddl-auto=update
+-- (Hibernate 6.5, MySQL 8) con las entidades originales.
+-- Las bases existentes no lo ejecutan: Flyway las marca en la versión 1 (baseline-on-migrate)
+-- y solo aplican las migraciones siguientes. Por eso este fichero debe coincidir exactamente
+-- con ese esquema: todo lo añadido después va en V1_1 y siguientes.
+--
+-- La entidad declaraba además idx_token sobre "token(255)"; Hibernate lo trata como nombre de
+-- columna, MySQL rechaza el CREATE INDEX y ddl-auto=update seguía sin él: no existe en esas bases.
+
+create table users (
+    id bigint not null auto_increment,
+    full_name varchar(255),
+    email varchar(255) not null,
+    password varchar(255) not null,
+    created_at datetime(6),
+    refresh_token varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table roles (
+    id bigint not null auto_increment,
+    name enum ('ROLE_ADMIN','ROLE_USER') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+) engine=InnoDB;
+
+create table wallets (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    balance decimal(38,2) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table transactions (
+    id bigint not null auto_increment,
+    wallet_from bigint,
+    wallet_to bigint,
+    amount decimal(38,2) not null,
+    type enum ('DEPOSIT','TRANSFER','WITHDRAWAL') not null,
+    status enum ('FAILED','PENDING','SUCCESS') not null,
+    created_at datetime(6),
+    description varchar(255),
+    client_transfer_id varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table blacklisted_tokens (
+    id bigint not null auto_increment,
+    token TEXT not null,
+    expires_at datetime(6) not null,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_expires_at on blacklisted_tokens (expires_at);
+
+alter table roles add constraint UKofx66keruapi6vyqpv6f2or37 unique (name);
+alter table transactions add constraint UKl8sxnc42se325k7yfmu675vd3 unique (client_transfer_id);
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table wallets add constraint UKsswfdl9fq40xlkove1y5kc7kv unique (user_id);
+
+alter table transactions add constraint FK58ecfcq1pnhdon44ukn7h8y7x foreign key (wallet_from) references wallets (id);
+alter table transactions add constraint FKii7nexkp7gr24y7wyqn8rojkm foreign key (wallet_to) references wallets (id);
+alter table user_roles add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles (id);
+alter table user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users (id);
+alter table wallets add constraint FKc1foyisidw7wqqrkamafuwn4e foreign key (user_id) references users (id);
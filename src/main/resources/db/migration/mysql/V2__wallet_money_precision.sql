@@ -0,0 +1,3 @@
+-- Saldos con precisión explícita: DECIMAL(19,2), igual que audit_log.amount.
+-- El DECIMAL(38,2) por defecto de Hibernate ocupa 18 bytes por valor frente a 9.
+alter table wallets modify balance decimal(19,2) not null;
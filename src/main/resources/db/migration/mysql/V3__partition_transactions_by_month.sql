@@ -0,0 +1,74 @@
+-- Ledger particionado por mes sobre created_at.
+--
+-- Particiones mensuales: borrar o archivar un mes antiguo es ALTER TABLE ... DROP PARTITION
+-- (metadatos), no un DELETE fila a fila. TransactionPartitionScheduler crea los meses siguientes
+-- partiendo p_future y, si se configura retención, elimina los meses vencidos.
+--
+-- Restricciones de MySQL para tablas particionadas, asumidas a propósito:
+-- - Toda clave única incluye la columna de partición: PK (id, created_at). id sigue siendo
+--   único por ser AUTO_INCREMENT, y Hibernate sigue usando solo id como identificador.
+-- - Sin claves foráneas: la integridad de wallet_from / wallet_to la garantiza WalletService,
+--   que bloquea ambas wallets antes de insertar el movimiento.
+-- - client_transfer_id deja de ser único en la base: un índice normal; la idempotencia se
+--   comprueba en la aplicación.
+--
+-- Índices para el historial de una wallet
+--   where wallet_from = ? or wallet_to = ? order by created_at desc, id desc
+-- resuelto como dos recorridos ordenados (ver TransactionRepository.findHistory), uno por índice.
+--
+-- La tabla se reconstruye (create + insert select + rename): es la forma de cambiar a la vez
+-- PK, claves foráneas con nombre generado y particionado. En un ledger grande conviene
+-- ejecutarla en una ventana de mantenimiento.
+
+create table transactions_by_month (
+    id bigint not null auto_increment,
+    wallet_from bigint,
+    wallet_to bigint,
+    amount decimal(19,2) not null,
+    type enum ('DEPOSIT','TRANSFER','WITHDRAWAL') not null,
+    status enum ('FAILED','PENDING','SUCCESS') not null,
+    created_at datetime(6) not null,
+    description varchar(255),
+    client_transfer_id varchar(64),
+    primary key (id, created_at),
+    key idx_tx_wallet_from_created (wallet_from, created_at, id),
+    key idx_tx_wallet_to_created (wallet_to, created_at, id),
+    key idx_tx_client_transfer_id (client_transfer_id)
+) engine=InnoDB
+partition by range columns (created_at) (
+    partition p_history values less than ('2025-01-01'),
+    partition p202501 values less than ('2025-02-01'),
+    partition p202502 values less than ('2025-03-01'),
+    partition p202503 values less than ('2025-04-01'),
+    partition p202504 values less than ('2025-05-01'),
+    partition p202505 values less than ('2025-06-01'),
+    partition p202506 values less than ('2025-07-01'),
+    partition p202507 values less than ('2025-08-01'),
+    partition p202508 values less than ('2025-09-01'),
+    partition p202509 values less than ('2025-10-01'),
+    partition p202510 values less than ('2025-11-01'),
+    partition p202511 values less than ('2025-12-01'),
+    partition p202512 values less than ('2026-01-01'),
+    partition p202601 values less than ('2026-02-01'),
+    partition p202602 values less than ('2026-03-01'),
+    partition p202603 values less than ('2026-04-01'),
+    partition p202604 values less than ('2026-05-01'),
+    partition p202605 values less than ('2026-06-01'),
+    partition p202606 values less than ('2026-07-01'),
+    partition p202607 values less than ('2026-08-01'),
+    partition p202608 values less than ('2026-09-01'),
+    partition p202609 values less than ('2026-10-01'),
+    partition p202610 values less than ('2026-11-01'),
+    partition p202611 values less than ('2026-12-01'),
+    partition p202612 values less than ('2027-01-01'),
+    partition p_future values less than (maxvalue)
+);
+
+insert into transactions_by_month
+    (id, wallet_from, wallet_to, amount, type, status, created_at, description, client_transfer_id)
+select id, wallet_from, wallet_to, amount, type, status, coalesce(created_at, utc_timestamp(6)), description, client_transfer_id
+from transactions;
+
+rename table transactions to transactions_unpartitioned, transactions_by_month to transactions;
+
+drop table transactions_unpartitioned;
@@ -0,0 +1,20 @@
+-- Blacklist legacy (blacklisted_tokens, JWT completo en una columna TEXT) a token_blacklist,
+-- indexada por SHA-256 del token: UNHEX(SHA2(token, 256)) es el mismo digest que TokenDigest.sha256
+-- (los JWT son ASCII). Solo se copian tokens vigentes. Sustituye a BlacklistMigrationRunner.
+--
+-- V1 la crea siempre; create if not exists cubre bases donde se eliminó a mano.
+
+create table if not exists blacklisted_tokens (
+    id bigint not null auto_increment,
+    token text not null,
+    expires_at datetime(6) not null,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert ignore into token_blacklist (token_hash, expires_at, created_at)
+select unhex(sha2(token, 256)), expires_at, created_at
+from blacklisted_tokens
+where expires_at > utc_timestamp(6);
+
+drop table blacklisted_tokens;
@@ -0,0 +1,29 @@
+-- Identificadores por bloques (pooled-lo) para users, roles, wallets, transactions y token_blacklist.
+--
+-- Con IDENTITY / AUTO_INCREMENT Hibernate necesita el id de cada fila al insertarla, así que no
+-- puede agrupar los INSERT en lotes JDBC. Con un generador pooled reserva 50 ids en una sola
+-- operación y los INSERT salen en lotes de hibernate.jdbc.batch_size.
+--
+-- MySQL no tiene secuencias: Hibernate las emula con una tabla de una fila por entidad
+-- (<tabla>_seq.next_val). Con pooled-lo, reservar el valor v significa usar los ids v .. v+49 y
+-- dejar next_val = v + 50.
+--
+-- Cada tabla arranca tras el mayor id existente. Las columnas conservan AUTO_INCREMENT (quitarlo
+-- obliga a reconstruir las claves foráneas), pero ya no lo usa la aplicación: cualquier INSERT
+-- escrito a mano debe tomar sus ids de <tabla>_seq del mismo modo, o colisionará con un bloque
+-- ya reservado.
+
+create table users_seq (next_val bigint) engine=InnoDB;
+insert into users_seq select coalesce(max(id), 0) + 1 from users;
+
+create table roles_seq (next_val bigint) engine=InnoDB;
+insert into roles_seq select coalesce(max(id), 0) + 1 from roles;
+
+create table wallets_seq (next_val bigint) engine=InnoDB;
+insert into wallets_seq select coalesce(max(id), 0) + 1 from wallets;
+
+create table transactions_seq (next_val bigint) engine=InnoDB;
+insert into transactions_seq select coalesce(max(id), 0) + 1 from transactions;
+
+create table token_blacklist_seq (next_val bigint) engine=InnoDB;
+insert into token_blacklist_seq select coalesce(max(id), 0) + 1 from token_blacklist;
@@ -0,0 +1,22 @@
+-- Confirmaciones de segmentos del archivo del ledger por nodo (LedgerSegmentConfirmations).
+--
+-- Cada nodo que sirve historial (aplicación MVC y proceso reactivo) registra un latido en
+-- ledger_archive_nodes y una fila en ledger_segment_confirmations por cada segmento que ya tiene
+-- mapeado. LedgerArchiveJob solo borra las filas calientes de un mes cuando todos los nodos vivos
+-- lo han confirmado: un nodo que no ve el directorio del archivo bloquea la purga.
+--
+-- Los instantes son epoch millis: los escriben JDBC y R2DBC, y así no dependen de la zona horaria
+-- de cada driver.
+
+create table ledger_archive_nodes (
+    node_id varchar(64) not null,
+    last_seen_millis bigint not null,
+    primary key (node_id)
+) engine=InnoDB;
+
+create table ledger_segment_confirmations (
+    segment_month char(7) not null,
+    node_id varchar(64) not null,
+    confirmed_millis bigint not null,
+    primary key (segment_month, node_id)
+) engine=InnoDB;
@@ -0,0 +1,12 @@
+-- Idempotencia de transferencias (Transaction.clientTransferId).
+--
+-- La tabla particionada no admite un UNIQUE sin created_at (ver V3), así que la unicidad la
+-- garantiza WalletService: con la wallet de origen bloqueada busca (wallet_from, client_transfer_id)
+-- antes de insertar. Este índice sustituye al de client_transfer_id solo y resuelve esa búsqueda.
+--
+-- Las claves caducan con su partición: tras DROP PARTITION (retención) o la purga del archivo,
+-- un clientTransferId antiguo vuelve a estar libre.
+
+alter table transactions
+    drop index idx_tx_client_transfer_id,
+    add index idx_tx_wallet_from_client_transfer (wallet_from, client_transfer_id);
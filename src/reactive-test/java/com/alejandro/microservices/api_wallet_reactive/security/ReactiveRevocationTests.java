@@ -0,0 +1,142 @@
+package com.alejandro.microservices.api_wallet_reactive.security;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import com.alejandro.microservices.api_wallet.security.TokenDigest;
+import com.alejandro.microservices.api_wallet_reactive.ReactiveWalletApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Revocaciones en el proceso reactivo: un logout atendido por la aplicación
+ * MVC solo llega aquí por revocation_log, y a partir de ese momento el mismo
+ * token recibe 401 en las lecturas de wallet.
+ */
+@SpringBootTest(classes = ReactiveWalletApplication.class, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-revocation;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.flyway.url=jdbc:h2:mem:reactive-revocation;DB_CLOSE_DELAY=-1",
+        "spring.flyway.user=sa",
+        "spring.flyway.password=",
+        "security.revocation.feed.poll-interval-ms=100"
+})
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveRevocationTests {
+
+    private static final String LOGGED_OUT = "reactive-logout@example.com";
+    private static final String REVOKED = "reactive-revoked@example.com";
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Test
+    void logoutFromAnotherProcessRejectsTheToken() {
+        seed(LOGGED_OUT);
+        String token = jwtTokenProvider.generarAccessToken(LOGGED_OUT, List.of());
+        String otherDevice = jwtTokenProvider.generarAccessToken(LOGGED_OUT, List.of());
+        assertEquals(HttpStatus.OK, balanceStatus(token));
+
+        // 📣 Logout de este token en la aplicación MVC: fila TOKEN en el log
+        databaseClient.sql("insert into revocation_log (type, token_hash, expires_at, created_at) "
+                        + "values ('TOKEN', :hash, :expiresAt, :now)")
+                .bind("hash", TokenDigest.sha256(token))
+                .bind("expiresAt", Instant.now().plusSeconds(3600))
+                .bind("now", Instant.now())
+                .then()
+                .block();
+
+        awaitStatus(token, HttpStatus.UNAUTHORIZED);
+        assertEquals(HttpStatus.OK, balanceStatus(otherDevice));
+    }
+
+    @Test
+    void revokeAllTokensFromAnotherProcessRejectsEarlierTokens() {
+        seed(REVOKED);
+        String token = jwtTokenProvider.generarAccessToken(REVOKED, List.of());
+        assertEquals(HttpStatus.OK, balanceStatus(token));
+
+        // ⛔ Cambio de contraseña en la aplicación MVC: marca USER en el log
+        Instant revokedBefore = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 1);
+        databaseClient.sql("insert into revocation_log (type, username, revoked_before, created_at) "
+                        + "values ('USER', :username, :revokedBefore, :now)")
+                .bind("username", REVOKED)
+                .bind("revokedBefore", revokedBefore)
+                .bind("now", Instant.now())
+                .then()
+                .block();
+
+        awaitStatus(token, HttpStatus.UNAUTHORIZED);
+    }
+
+    private void seed(String email) {
+        Long users = databaseClient.sql("select count(*) from users where email = :email")
+                .bind("email", email)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block();
+        if (users == 0) {
+            databaseClient.sql("insert into users (full_name, email, password, created_at, enabled) "
+                            + "values (:email, :email, '{noop}unused', :now, true)")
+                    .bind("email", email)
+                    .bind("now", Instant.now())
+                    .then()
+                    .block();
+            databaseClient.sql("insert into wallets (user_id, balance) select id, 100.00 from users where email = :email")
+                    .bind("email", email)
+                    .then()
+                    .block();
+        }
+    }
+
+    private HttpStatus balanceStatus(String token) {
+        return HttpStatus.valueOf(webTestClient.get()
+                .uri("/api/wallet/balance")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .returnResult(String.class)
+                .getStatus()
+                .value());
+    }
+
+    // ⏱️ El evento llega con el siguiente poll (poll-interval-ms=100)
+    private void awaitStatus(String token, HttpStatus expected) {
+        long deadline = System.nanoTime() + PROPAGATION_TIMEOUT.toNanos();
+        HttpStatus status = balanceStatus(token);
+        while (status != expected && System.nanoTime() < deadline) {
+            sleep();
+            status = balanceStatus(token);
+        }
+        assertEquals(expected, status);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.alejandro.microservices.api_wallet_reactive;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import com.alejandro.microservices.api_wallet.security.RevocationCache;
+import com.alejandro.microservices.api_wallet.wallet.archive.LedgerArchive;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * ⚡ Reactive Wallet Application - Lecturas de wallet sin bloqueo (perfil Maven "reactive")
+ *
+ * Proceso aparte de ApiWalletApplication que sirve solo lecturas:
+ * - GET /api/wallet/balance
+ * - GET /api/wallet/transactions
+ *
+ * Con WebFlux sobre Netty y R2DBC, una conexión abierta esperando a la base de
+ * datos no retiene un hilo: miles de clientes haciendo polling del balance
+ * caben en unos pocos hilos de event loop. Las escrituras (transferencias,
+ * login, administración) siguen en la aplicación MVC/JPA; un proxy enruta los
+ * GET anteriores a este proceso y el resto a la aplicación principal.
+ *
+ * 🔐 Los access tokens son los mismos: se verifican con JwtTokenProvider y las
+ * revocaciones se replican desde revocation_log a una RevocationCache, la
+ * misma clase que consulta el filtro MVC (ver ReactiveRevocationCache).
+ *
+ * 🧊 El historial archivado sale del mismo LedgerArchive; @EnableScheduling
+ * mantiene su relectura periódica y las confirmaciones de segmentos
+ * (R2dbcLedgerSegmentConfirmations).
+ *
+ * Vive en su propio paquete raíz para que el escaneo de ApiWalletApplication
+ * no registre sus beans reactivos (y viceversa).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class
+})
+@Import({JwtTokenProvider.class, RevocationCache.class, LedgerArchive.class})
+@EnableScheduling
+public class ReactiveWalletApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveWalletApplication.class)
+                // 🌐 Servlet y WebFlux conviven en el classpath del perfil: se fuerza el modo reactivo
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+
+    /**
+     * Netty explícito: con Tomcat también en el classpath Boot lo elegiría primero.
+     */
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,88 @@
+package com.alejandro.microservices.api_wallet_reactive.security;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🛡️ JWT Web Filter - Autenticación JWT para la cadena reactiva
+ *
+ * Mismas reglas que JwtAuthenticationFilter (MVC), reutilizando JwtTokenProvider:
+ * 1. Firma y expiración verificadas en un único parseo
+ * 2. Blacklist por token y marca de revocación por usuario (en memoria)
+ * 3. Autoridades tomadas del claim roles, sin consultar la base de datos
+ *
+ * Nada bloquea: el parseo HMAC es CPU de microsegundos y las revocaciones
+ * están en memoria, así que el filtro corre directamente en el event loop.
+ * La autenticación viaja en el contexto de Reactor, no en un ThreadLocal.
+ *
+ * No es un @Component: WebFlux registraría cualquier WebFilter como filtro
+ * global además de en la cadena de seguridad (ver ReactiveSecurityConfig).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+public class JwtWebFilter implements WebFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ReactiveRevocationCache revocationCache;
+
+    // 📊 Mismos timers que el filtro MVC (security.jwt.filter.stage)
+    private final Timer parseTimer;
+    private final Timer blacklistTimer;
+
+    public JwtWebFilter(JwtTokenProvider jwtTokenProvider,
+                        ReactiveRevocationCache revocationCache,
+                        MeterRegistry meterRegistry) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.revocationCache = revocationCache;
+        this.parseTimer = stageTimer(meterRegistry, "parse");
+        this.blacklistTimer = stageTimer(meterRegistry, "blacklist");
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("security.jwt.filter.stage")
+                .description("Duración de cada etapa del filtro JWT")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+        String token = authHeader.substring(7);
+
+        long t0 = System.nanoTime();
+        Claims claims = jwtTokenProvider.parsearClaims(token);
+        long t1 = System.nanoTime();
+        parseTimer.record(t1 - t0, TimeUnit.NANOSECONDS);
+        if (claims == null) {
+            return chain.filter(exchange); // ⚠️ Token inválido: sigue como no autenticado
+        }
+
+        boolean revoked = revocationCache.isRevoked(token, claims.getSubject(), claims.getIssuedAt());
+        blacklistTimer.record(System.nanoTime() - t1, TimeUnit.NANOSECONDS);
+        if (revoked) {
+            return chain.filter(exchange);
+        }
+
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                claims.getSubject(), null, jwtTokenProvider.obtenerAutoridades(claims));
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+}
@@ -0,0 +1,180 @@
+package com.alejandro.microservices.api_wallet_reactive.security;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import com.alejandro.microservices.api_wallet.security.RevocationCache;
+import com.alejandro.microservices.api_wallet.security.RevocationCursor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * 📡 Reactive Revocation Cache - Blacklist y marcas por usuario vía R2DBC
+ *
+ * Equivalente reactivo de RevocationFeed para el proceso de solo lectura:
+ * carga las fotos y hace un poll no bloqueante sobre revocation_log. Las
+ * reglas no se duplican: los eventos se aplican a una RevocationCache (la
+ * misma clase que usa la aplicación MVC) con el mismo RevocationCursor (fijado
+ * antes de la foto, espera de huecos hasta gap-timeout-ms), así que un logout
+ * hecho en la aplicación MVC se ve aquí con el mismo retardo que en otro
+ * nodo MVC.
+ *
+ * Las tablas las migra la aplicación MVC; @DependsOnDatabaseInitialization
+ * solo ordena el arranque cuando el propio proceso ejecuta Flyway (tests).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class ReactiveRevocationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRevocationCache.class);
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+
+    private final DatabaseClient databaseClient;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RevocationCache revocationCache;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final RevocationCursor cursor;
+
+    private Disposable polling;
+
+    public ReactiveRevocationCache(DatabaseClient databaseClient,
+                                   JwtTokenProvider jwtTokenProvider,
+                                   RevocationCache revocationCache,
+                                   @Value("${security.revocation.feed.poll-interval-ms:1000}") long pollIntervalMs,
+                                   @Value("${security.revocation.feed.batch-size:500}") int batchSize,
+                                   @Value("${security.revocation.feed.gap-timeout-ms:10000}") long gapTimeoutMs) {
+        this.databaseClient = databaseClient;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.revocationCache = revocationCache;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.batchSize = batchSize;
+        this.cursor = new RevocationCursor(gapTimeoutMs);
+    }
+
+    /**
+     * 📥 Fija el cursor, carga las fotos y arranca el poll
+     *
+     * Se bloquea solo durante el arranque (hilo main, no un event loop): no se
+     * deben aceptar tokens antes de conocer las revocaciones vigentes.
+     */
+    @PostConstruct
+    public void start() {
+        cursor.reset(databaseClient.sql("select coalesce(max(id), 0) from revocation_log")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block(STARTUP_TIMEOUT));
+        loadSnapshot().block(STARTUP_TIMEOUT);
+        logger.info("Revocation cache reactiva iniciada en el evento {}", cursor.position());
+
+        // 🔁 concatMap: un poll nunca se solapa con el anterior
+        polling = Flux.interval(pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::removeExpired)
+                        .then(poll())
+                        .onErrorResume(e -> {
+                            logger.warn("Error leyendo revocation_log: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    /**
+     * 🔍 Verifica blacklist por token y marca por usuario (solo memoria)
+     *
+     * @param token Token JWT completo
+     * @param username Subject del token
+     * @param issuedAt Claim iat del token
+     * @return true si el token no debe aceptarse
+     */
+    public boolean isRevoked(String token, String username, Date issuedAt) {
+        return revocationCache.isRevoked(token, username, issuedAt);
+    }
+
+    private Mono<Void> loadSnapshot() {
+        Instant now = Instant.now();
+        Instant horizon = now.minusMillis(jwtTokenProvider.getMaxTokenLifetimeMs());
+        Mono<Void> tokens = databaseClient.sql("select token_hash, expires_at from token_blacklist where expires_at > :now")
+                .bind("now", now)
+                .map(row -> {
+                    revocationCache.applyToken(row.get("token_hash", byte[].class),
+                            row.get("expires_at", Instant.class));
+                    return Boolean.TRUE;
+                })
+                .all()
+                .then();
+        Mono<Void> users = databaseClient.sql("select username, revoked_before from token_revocations where revoked_before > :horizon")
+                .bind("horizon", horizon)
+                .map(row -> {
+                    revocationCache.applyUser(row.get("username", String.class),
+                            row.get("revoked_before", Instant.class));
+                    return Boolean.TRUE;
+                })
+                .all()
+                .then();
+        return tokens.then(users);
+    }
+
+    /**
+     * Una página de eventos posteriores al cursor; repite mientras la página
+     * venga llena y el cursor avance (como RevocationFeed.poll).
+     */
+    private Mono<Void> poll() {
+        return databaseClient.sql("select id, type, token_hash, expires_at, username, revoked_before "
+                        + "from revocation_log where id > :cursor order by id limit :limit")
+                .bind("cursor", cursor.position())
+                .bind("limit", batchSize)
+                .map(row -> new Event(
+                        row.get("id", Long.class),
+                        row.get("type", String.class),
+                        row.get("token_hash", byte[].class),
+                        row.get("expires_at", Instant.class),
+                        row.get("username", String.class),
+                        row.get("revoked_before", Instant.class)))
+                .all()
+                .collectList()
+                .flatMap(events -> cursor.advance(events, Event::id, this::apply) && events.size() == batchSize
+                        ? poll() : Mono.<Void>empty());
+    }
+
+    private void apply(Event event) {
+        if ("TOKEN".equals(event.type())) {
+            revocationCache.applyToken(event.tokenHash(), event.expiresAt());
+        } else if ("USER".equals(event.type())) {
+            revocationCache.applyUser(event.username(), event.revokedBefore());
+        }
+    }
+
+    private void removeExpired() {
+        revocationCache.removeExpiredTokens();
+        revocationCache.removeWatermarksBefore(
+                (System.currentTimeMillis() - jwtTokenProvider.getMaxTokenLifetimeMs()) / 1000);
+    }
+
+    private record Event(Long id, String type, byte[] tokenHash, Instant expiresAt,
+                         String username, Instant revokedBefore) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.alejandro.microservices.api_wallet_reactive.security;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * 🔒 Reactive Security Config - Cadena de seguridad del proceso de lecturas
+ *
+ * Stateless como la configuración MVC: sin sesión, sin CSRF, sin login por
+ * formulario. Solo se exponen las lecturas de wallet; cualquier otra ruta se
+ * rechaza (las escrituras se sirven en la aplicación MVC).
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtTokenProvider jwtTokenProvider,
+                                                         ReactiveRevocationCache revocationCache,
+                                                         MeterRegistry meterRegistry) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/actuator/health").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.GET, "/api/wallet/balance", "/api/wallet/transactions").authenticated()
+                        .anyExchange().denyAll())
+                .addFilterAt(new JwtWebFilter(jwtTokenProvider, revocationCache, meterRegistry),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
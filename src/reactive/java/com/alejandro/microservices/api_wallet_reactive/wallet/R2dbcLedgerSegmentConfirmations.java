@@ -0,0 +1,63 @@
+package com.alejandro.microservices.api_wallet_reactive.wallet;
+
+import com.alejandro.microservices.api_wallet.wallet.archive.LedgerSegmentConfirmations;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 🗃️ Confirmaciones de segmentos vía R2DBC (proceso reactivo)
+ *
+ * El proceso reactivo también sirve historial archivado, así que cuenta como
+ * un nodo más: LedgerArchiveJob no purga un mes hasta que este proceso lo
+ * haya confirmado.
+ *
+ * Solo lo llama LedgerArchive desde el arranque y el hilo del scheduler,
+ * nunca desde un event loop: bloquear aquí es seguro.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class R2dbcLedgerSegmentConfirmations extends LedgerSegmentConfirmations {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final DatabaseClient databaseClient;
+
+    public R2dbcLedgerSegmentConfirmations(DatabaseClient databaseClient,
+                                           @Value("${ledger.archive.node-id:}") String nodeId) {
+        super(nodeId);
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    protected long update(String sql, Object... args) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(named(sql));
+        for (int i = 0; i < args.length; i++) {
+            spec = spec.bind("p" + i, args[i]);
+        }
+        Long rows = spec.fetch().rowsUpdated().block(TIMEOUT);
+        return rows == null ? 0 : rows;
+    }
+
+    // 🔤 ? -> :p0, :p1...; DatabaseClient los traduce a los marcadores de cada driver
+    private static String named(String sql) {
+        StringBuilder named = new StringBuilder(sql.length() + 16);
+        int index = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                named.append(":p").append(index++);
+            } else {
+                named.append(c);
+            }
+        }
+        return named.toString();
+    }
+}
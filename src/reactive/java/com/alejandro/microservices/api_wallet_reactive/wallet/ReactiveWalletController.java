@@ -0,0 +1,98 @@
+package com.alejandro.microservices.api_wallet_reactive.wallet;
+
+import com.alejandro.microservices.api_wallet.wallet.archive.LedgerArchive;
+import com.alejandro.microservices.api_wallet.wallet.dto.TransactionResponse;
+import com.alejandro.microservices.api_wallet.wallet.dto.WalletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+
+/**
+ * ⚡ Reactive Wallet Controller - Balance e historial sin bloquear hilos
+ *
+ * Mismas rutas y mismo JSON (WalletResponse, TransactionResponse) que
+ * WalletController, para que el proxy pueda enrutar los GET a cualquiera de
+ * las dos implementaciones sin que el cliente lo note.
+ *
+ * 🧊 El historial archivado se lee del mismo LedgerArchive (ficheros mapeados
+ * en memoria) en boundedElastic: puede tocar disco y no debe ocupar el event loop.
+ *
+ * @author Alejandro
+ * @version 1.0
+ * @since 2024
+ */
+@RestController
+@RequestMapping("/api/wallet")
+public class ReactiveWalletController {
+
+    private final WalletReadRepository walletReadRepository;
+    private final LedgerArchive ledgerArchive;
+
+    public ReactiveWalletController(WalletReadRepository walletReadRepository, LedgerArchive ledgerArchive) {
+        this.walletReadRepository = walletReadRepository;
+        this.ledgerArchive = ledgerArchive;
+    }
+
+    @GetMapping("/balance")
+    public Mono<WalletResponse> getBalance(Authentication authentication) {
+        return findWallet(authentication.getName())
+                .map(wallet -> new WalletResponse(wallet.id(), authentication.getName(), wallet.balance()));
+    }
+
+    @GetMapping("/transactions")
+    public Flux<TransactionResponse> getTransactions(@RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size,
+                                                     Authentication authentication) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        long offset = (long) Math.max(page, 0) * pageSize;
+        return findWallet(authentication.getName())
+                .flatMapMany(wallet -> Mono.fromCallable(ledgerArchive::archivedBefore)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapMany(since -> walletReadRepository.findHistory(wallet.id(), since, offset + pageSize, pageSize, offset)
+                                .map(t -> new TransactionResponse(
+                                        t.id(),
+                                        t.type(),
+                                        t.status(),
+                                        TransactionResponse.direction(wallet.id(), t.walletFrom()),
+                                        t.amount(),
+                                        t.createdAt(),
+                                        t.description()))
+                                .collectList()
+                                .flatMapMany(hot -> hot.size() == pageSize || Instant.EPOCH.equals(since)
+                                        ? Flux.fromIterable(hot)
+                                        : Flux.fromIterable(hot).concatWith(archived(wallet.id(), since, offset, hot.size(), pageSize)))));
+    }
+
+    // 🧊 Resto de la página desde el archivo (misma cuenta que WalletService.getTransactionHistory)
+    private Flux<TransactionResponse> archived(Long walletId, Instant since, long offset, int hotRows, int pageSize) {
+        Mono<Long> archiveOffset = hotRows > 0 || offset == 0
+                ? Mono.just(0L)
+                : walletReadRepository.countHistory(walletId, since).map(count -> Math.max(0, offset - count));
+        return archiveOffset
+                .flatMapMany(skip -> Mono.fromCallable(() -> ledgerArchive.history(walletId, skip, pageSize - hotRows))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapIterable(rows -> rows))
+                .map(t -> new TransactionResponse(
+                        t.id(),
+                        t.type(),
+                        t.status(),
+                        TransactionResponse.direction(walletId, t.walletFrom()),
+                        t.amount(),
+                        t.createdAt(),
+                        t.description()));
+    }
+
+    private Mono<WalletView> findWallet(String email) {
+        return walletReadRepository.findByUserEmail(email)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Wallet no encontrada")));
+    }
+}
@@ -0,0 +1,21 @@
+package com.alejandro.microservices.api_wallet_reactive.wallet;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 📒 Proyección de solo lectura de la tabla transactions (columnas en snake_case).
+ */
+@Table("transactions")
+public record TransactionView(@Id Long id,
+                              Long walletFrom,
+                              Long walletTo,
+                              BigDecimal amount,
+                              String type,
+                              String status,
+                              Instant createdAt,
+                              String description) {
+}
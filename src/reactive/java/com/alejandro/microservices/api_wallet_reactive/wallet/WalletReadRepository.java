@@ -0,0 +1,33 @@
+package com.alejandro.microservices.api_wallet_reactive.wallet;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * 📖 Consultas R2DBC de las lecturas de wallet; mismas sentencias que las rutas JPA.
+ */
+public interface WalletReadRepository extends ReactiveCrudRepository<WalletView, Long> {
+
+    @Query("select w.id, w.balance from wallets w join users u on u.id = w.user_id where u.email = :email")
+    Mono<WalletView> findByUserEmail(String email);
+
+    // Misma forma que TransactionRepository.findHistory: dos recorridos ordenados por índice
+    @Query("select h.id, h.wallet_from, h.wallet_to, h.amount, h.type, h.status, h.created_at, h.description from ("
+            + "(select t.* from transactions t where t.wallet_from = :walletId and t.created_at >= :since "
+            + "order by t.created_at desc, t.id desc limit :fetch) "
+            + "union all "
+            + "(select t.* from transactions t where t.wallet_to = :walletId and t.created_at >= :since "
+            + "and (t.wallet_from is null or t.wallet_from <> :walletId) "
+            + "order by t.created_at desc, t.id desc limit :fetch)"
+            + ") h order by h.created_at desc, h.id desc limit :limit offset :offset")
+    Flux<TransactionView> findHistory(Long walletId, Instant since, long fetch, int limit, long offset);
+
+    @Query("select (select count(*) from transactions t where t.wallet_from = :walletId and t.created_at >= :since) "
+            + "+ (select count(*) from transactions t where t.wallet_to = :walletId and t.created_at >= :since "
+            + "and (t.wallet_from is null or t.wallet_from <> :walletId))")
+    Mono<Long> countHistory(Long walletId, Instant since);
+}
@@ -0,0 +1,13 @@
+package com.alejandro.microservices.api_wallet_reactive.wallet;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * 💳 Proyección de solo lectura de la tabla wallets (la escribe JPA en la app MVC).
+ */
+@Table("wallets")
+public record WalletView(@Id Long id, BigDecimal balance) {
+}
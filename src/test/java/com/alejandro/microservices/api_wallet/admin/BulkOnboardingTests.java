@@ -0,0 +1,233 @@
+package com.alejandro.microservices.api_wallet.admin;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Alta masiva por NDJSON: usuarios con ROLE_USER y wallet a cero, errores por
+ * línea sin detener la carga, y bloques pequeños para cruzar varios lotes.
+ * Un lote rechazado por la base de datos solo descarta las filas culpables.
+ * La carga corre como job: el POST responde 202 y el estado se sondea por GET.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-onboarding;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false",
+        "onboarding.chunk-size=2"
+})
+@AutoConfigureMockMvc
+@Import({NoOpMailConfig.class, BulkOnboardingTests.RacingEncoderConfig.class})
+class BulkOnboardingTests {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final Duration JOB_TIMEOUT = Duration.ofSeconds(30);
+    private static final String RACE_PASSWORD = "race";
+    private static final String RACED_EMAIL = "bulk-raced@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void createsUsersWithWalletsAndReportsRowErrors() throws Exception {
+        String body = String.join("\n",
+                "{\"fullName\":\"Ana\",\"email\":\"bulk-ana@example.com\",\"password\":\"secret-1\"}",
+                "{\"fullName\":\"Admin\",\"email\":\"admin\",\"password\":\"secret\"}",
+                "",
+                "{\"fullName\":\"Luis\",\"email\":\"bulk-luis@example.com\",\"password\":\"secret-2\"}",
+                "{not json",
+                "{\"fullName\":\"Ana bis\",\"email\":\"BULK-ANA@example.com\",\"password\":\"secret-3\"}",
+                "{\"fullName\":\"Sin clave\",\"email\":\"bulk-empty@example.com\",\"password\":\" \"}",
+                "{\"fullName\":\"Eva\",\"email\":\"bulk-eva@example.com\",\"password\":\"secret-4\"}");
+
+        onboard(body)
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.report.received").value(7))
+                .andExpect(jsonPath("$.report.created").value(3))
+                .andExpect(jsonPath("$.report.failed").value(4))
+                .andExpect(jsonPath("$.report.errors[0].line").value(2))
+                .andExpect(jsonPath("$.report.errors[0].message").value("El email ya está registrado"))
+                .andExpect(jsonPath("$.report.errors[1].line").value(5))
+                .andExpect(jsonPath("$.report.errors[1].message").value(startsWith("JSON inválido")))
+                .andExpect(jsonPath("$.report.errors[2].line").value(6))
+                .andExpect(jsonPath("$.report.errors[2].message").value("Email repetido en la carga"))
+                .andExpect(jsonPath("$.report.errors[3].line").value(7))
+                .andExpect(jsonPath("$.report.errors[3].message").value("La contraseña es obligatoria"));
+
+        for (String email : List.of("bulk-ana@example.com", "bulk-luis@example.com", "bulk-eva@example.com")) {
+            BigDecimal balance = jdbcTemplate.queryForObject(
+                    "select w.balance from wallets w join users u on u.id = w.user_id where u.email = ?",
+                    BigDecimal.class, email);
+            assertEquals(0, BigDecimal.ZERO.compareTo(balance));
+            assertEquals("ROLE_USER", jdbcTemplate.queryForObject(
+                    "select r.name from roles r join user_roles ur on ur.role_id = r.id "
+                            + "join users u on u.id = ur.user_id where u.email = ?",
+                    String.class, email));
+        }
+        assertTrue(passwordEncoder.matches("secret-2", jdbcTemplate.queryForObject(
+                "select password from users where email = ?", String.class, "bulk-luis@example.com")));
+    }
+
+    @Test
+    void requiresAdminRole() throws Exception {
+        mockMvc.perform(post("/api/admin/onboarding")
+                        .header("Authorization", bearer("user", "ROLE_USER"))
+                        .contentType(NDJSON)
+                        .content("{\"fullName\":\"X\",\"email\":\"bulk-denied@example.com\",\"password\":\"x\"}"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from users where email = ?", Integer.class, "bulk-denied@example.com"));
+    }
+
+    @Test
+    void concurrentSignupOnlyDropsTheRacedRow() throws Exception {
+        // 🏁 Hashear RACE_PASSWORD registra RACED_EMAIL después de la consulta IN del bloque
+        String body = String.join("\n",
+                "{\"fullName\":\"Race\",\"email\":\"" + RACED_EMAIL + "\",\"password\":\"" + RACE_PASSWORD + "\"}",
+                "{\"fullName\":\"Tras la carrera\",\"email\":\"bulk-after-race@example.com\",\"password\":\"secret\"}");
+
+        onboard(body)
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.report.created").value(1))
+                .andExpect(jsonPath("$.report.failed").value(1))
+                .andExpect(jsonPath("$.report.errors[0].line").value(1))
+                .andExpect(jsonPath("$.report.errors[0].message").value("El email ya está registrado"));
+
+        assertEquals(1, walletCount("bulk-after-race@example.com"));
+        assertEquals(0, walletCount(RACED_EMAIL), "La fila de la otra alta no es de esta carga");
+    }
+
+    @Test
+    void rejectedRowIsIsolatedFromTheRestOfItsChunk() throws Exception {
+        // 🚫 Una fila que la base de datos rechaza por algo distinto a un email repetido
+        jdbcTemplate.execute("alter table users add constraint bulk_rejected "
+                + "check (email <> 'bulk-rejected@example.com')");
+        try {
+            String body = String.join("\n",
+                    "{\"fullName\":\"Uno\",\"email\":\"bulk-ok-1@example.com\",\"password\":\"secret\"}",
+                    "{\"fullName\":\"Rechazada\",\"email\":\"bulk-rejected@example.com\",\"password\":\"secret\"}",
+                    "{\"fullName\":\"Dos\",\"email\":\"bulk-ok-2@example.com\",\"password\":\"secret\"}");
+
+            onboard(body)
+                    .andExpect(jsonPath("$.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.report.created").value(2))
+                    .andExpect(jsonPath("$.report.failed").value(1))
+                    .andExpect(jsonPath("$.report.errors[0].line").value(2))
+                    .andExpect(jsonPath("$.report.errors[0].message").value("Fila rechazada por la base de datos"));
+        } finally {
+            jdbcTemplate.execute("alter table users drop constraint bulk_rejected");
+        }
+
+        assertEquals(1, walletCount("bulk-ok-1@example.com"));
+        assertEquals(1, walletCount("bulk-ok-2@example.com"));
+    }
+
+    @Test
+    void unknownJobIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/admin/onboarding/no-existe")
+                        .header("Authorization", bearer("admin", "ROLE_ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * 📥 Envía la carga y espera a que el job termine; devuelve su estado final
+     */
+    private ResultActions onboard(String body) throws Exception {
+        String location = mockMvc.perform(post("/api/admin/onboarding")
+                        .header("Authorization", bearer("admin", "ROLE_ADMIN"))
+                        .contentType(NDJSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").isNotEmpty())
+                .andReturn().getResponse().getHeader("Location");
+
+        long deadline = System.nanoTime() + JOB_TIMEOUT.toNanos();
+        while (true) {
+            ResultActions job = mockMvc.perform(get(location)
+                            .header("Authorization", bearer("admin", "ROLE_ADMIN")))
+                    .andExpect(status().isOk());
+            String status = JsonPath.read(job.andReturn().getResponse().getContentAsString(), "$.status");
+            if (!"QUEUED".equals(status) && !"RUNNING".equals(status)) {
+                return job;
+            }
+            assertTrue(System.nanoTime() < deadline, "El job no terminó a tiempo");
+            Thread.sleep(20);
+        }
+    }
+
+    private int walletCount(String email) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from wallets w join users u on u.id = w.user_id where u.email = ?",
+                Integer.class, email);
+    }
+
+    private String bearer(String username, String role) {
+        return "Bearer " + jwtTokenProvider.generarAccessToken(username, List.of(new SimpleGrantedAuthority(role)));
+    }
+
+    /**
+     * BCrypt normal, salvo RACE_PASSWORD: simula un registro concurrente de
+     * RACED_EMAIL entre la comprobación de emails y el INSERT del bloque.
+     */
+    @TestConfiguration
+    static class RacingEncoderConfig {
+
+        @Bean
+        @Primary
+        PasswordEncoder racingPasswordEncoder(JdbcTemplate jdbcTemplate) {
+            BCryptPasswordEncoder delegate = new BCryptPasswordEncoder();
+            return new PasswordEncoder() {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    String encoded = delegate.encode(rawPassword);
+                    if (RACE_PASSWORD.contentEquals(rawPassword)) {
+                        jdbcTemplate.update("insert into users (full_name, email, password) values (?, ?, ?)",
+                                "Otra alta", RACED_EMAIL, encoded);
+                    }
+                    return encoded;
+                }
+
+                @Override
+                public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                    return delegate.matches(rawPassword, encodedPassword);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.alejandro.microservices.api_wallet.audit;
+
+import com.alejandro.microservices.api_wallet.audit.entity.AuditLogEntry;
+import com.alejandro.microservices.api_wallet.audit.service.AuditService;
+import com.alejandro.microservices.api_wallet.audit.service.AuditSink;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Buffer circular de auditoría: descarte y conteo con el buffer lleno,
+ * volcado en lotes de batch-size y vaciado del buffer al detener.
+ *
+ * El sink puede retener al escritor dentro de write() para llenar el buffer
+ * de forma determinista.
+ */
+class AuditServiceTests {
+
+    // 🧮 buffer-size 8 -> 8 slots
+    private static final int BUFFER_SIZE = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingSink sink = new RecordingSink();
+    private AuditService auditService;
+
+    @AfterEach
+    void stopService() {
+        sink.release();
+        if (auditService != null) {
+            auditService.stop();
+        }
+    }
+
+    @Test
+    void fullBufferDropsAndCountsEvents() throws Exception {
+        auditService = start(AuditService.OverflowPolicy.DROP, 1, 10);
+        sink.holdWrites();
+
+        // ⏸️ El escritor toma el evento 0 y queda retenido en el sink
+        assertTrue(publish(0));
+        sink.awaitWriteStarted();
+
+        for (int i = 1; i <= BUFFER_SIZE; i++) {
+            assertTrue(publish(i), "Evento " + i + " rechazado con slots libres");
+        }
+        for (int i = 0; i < 3; i++) {
+            assertFalse(publish(100 + i), "Evento aceptado con el buffer lleno");
+        }
+
+        assertEquals(BUFFER_SIZE, auditService.getPendingCount());
+        assertEquals(3, meterRegistry.get("audit.events.dropped").counter().count());
+        assertEquals(BUFFER_SIZE + 1, meterRegistry.get("audit.events.published").counter().count());
+
+        sink.release();
+        auditService.stop();
+        assertEquals(principals(0, BUFFER_SIZE), sink.principals(), "Se perdió o reordenó un evento aceptado");
+    }
+
+    @Test
+    void blockPolicyWaitsForFreeSlot() throws Exception {
+        auditService = start(AuditService.OverflowPolicy.BLOCK, 1, 10);
+        sink.holdWrites();
+
+        assertTrue(publish(0));
+        sink.awaitWriteStarted();
+        for (int i = 1; i <= BUFFER_SIZE; i++) {
+            assertTrue(publish(i));
+        }
+
+        CompletableFuture<Boolean> blocked = CompletableFuture.supplyAsync(() -> publish(BUFFER_SIZE + 1));
+        Thread.sleep(100);
+        assertFalse(blocked.isDone(), "El publicador no esperó con el buffer lleno");
+
+        sink.release();
+        assertTrue(blocked.get(5, TimeUnit.SECONDS));
+        auditService.stop();
+        assertEquals(0, meterRegistry.get("audit.events.dropped").counter().count());
+        assertEquals(principals(0, BUFFER_SIZE + 1), sink.principals());
+    }
+
+    @Test
+    void pendingEventsAreWrittenInBatchesOfBatchSize() throws Exception {
+        auditService = start(AuditService.OverflowPolicy.DROP, 3, 10);
+        sink.holdWrites();
+
+        assertTrue(publish(0));
+        sink.awaitWriteStarted();
+        for (int i = 1; i <= 7; i++) {
+            assertTrue(publish(i));
+        }
+
+        sink.release();
+        auditService.stop();
+
+        assertEquals(List.of(1, 3, 3, 1), sink.batchSizes());
+        assertEquals(principals(0, 7), sink.principals());
+    }
+
+    @Test
+    void stopDrainsBufferBeforeClosingSink() {
+        // 💤 Sin stop() el escritor no volvería a mirar el buffer en un minuto
+        auditService = start(AuditService.OverflowPolicy.DROP, 2, 60_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(publish(i));
+        }
+        auditService.stop();
+
+        assertEquals(principals(0, 4), sink.principals());
+        assertTrue(sink.closed);
+        assertEquals(0, auditService.getPendingCount());
+        assertFalse(publish(99), "Se aceptó un evento tras detener el servicio");
+    }
+
+    @Test
+    void failedBatchIsCountedAndWriterContinues() {
+        sink.failNextWrite = true;
+        auditService = start(AuditService.OverflowPolicy.DROP, 10, 60_000);
+
+        assertTrue(publish(0));
+        auditService.stop();
+
+        assertEquals(1, meterRegistry.get("audit.write.failures").counter().count());
+        assertTrue(sink.principals().isEmpty());
+    }
+
+    private AuditService start(AuditService.OverflowPolicy policy, int batchSize, long flushIntervalMs) {
+        AuditService service = new AuditService(sink, meterRegistry, true, BUFFER_SIZE, policy, batchSize, flushIntervalMs);
+        service.start();
+        return service;
+    }
+
+    private boolean publish(int index) {
+        return auditService.publish(AuditLogEntry.EventType.LOGIN_FAILURE, "user-" + index, "10.0.0.1", null);
+    }
+
+    private static List<String> principals(int from, int toInclusive) {
+        List<String> principals = new ArrayList<>();
+        for (int i = from; i <= toInclusive; i++) {
+            principals.add("user-" + i);
+        }
+        return principals;
+    }
+
+    /**
+     * Sink en memoria; con holdWrites() la primera escritura espera a release().
+     */
+    private static final class RecordingSink implements AuditSink {
+
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private final CountDownLatch writeStarted = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile boolean failNextWrite;
+        volatile boolean closed;
+
+        void holdWrites() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void awaitWriteStarted() throws InterruptedException {
+            assertTrue(writeStarted.await(5, TimeUnit.SECONDS), "El escritor no tomó el primer evento");
+        }
+
+        @Override
+        public void write(List<AuditLogEntry> batch) throws Exception {
+            writeStarted.countDown();
+            gate.await();
+            if (failNextWrite) {
+                failNextWrite = false;
+                throw new IllegalStateException("sink caído");
+            }
+            batches.add(batch.stream().map(AuditLogEntry::getPrincipal).toList());
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<String> principals() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+
+        List<Integer> batchSizes() {
+            return batches.stream().map(List::size).toList();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica que la especificación OpenAPI incluye los endpoints de wallet.
+ *
+ * El fichero /openapi.json del modo AOT no sale de aquí: lo descarga
+ * springdoc-openapi-maven-plugin en el perfil Maven "aot" (prepare-package).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:openapi;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(NoOpMailConfig.class)
+class OpenApiSpecExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void specIncludesWalletEndpoints() throws Exception {
+        String spec = mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertTrue(spec.contains("/api/wallet/transfer"), "La especificación no incluye /api/wallet/transfer");
+    }
+}
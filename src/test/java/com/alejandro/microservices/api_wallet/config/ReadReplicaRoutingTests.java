@@ -0,0 +1,140 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import com.alejandro.microservices.api_wallet.wallet.repository.UserRepository;
+import com.alejandro.microservices.api_wallet.wallet.service.WalletService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Enrutado primario / réplica con dos bases H2 en memoria.
+ *
+ * La "réplica" se migra con el mismo esquema y se siembra con balances
+ * distintos (como una réplica con retraso): el valor devuelto indica de qué
+ * base salió cada lectura.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "datasource.replicas.urls=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "datasource.read-your-writes.window=1m",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false"
+})
+@Import(NoOpMailConfig.class)
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void migrateReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "root", "root");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyQueriesGoToReplica() {
+        seed(primary, "routing-reader@example.com", "100.00");
+        seed(replica, "routing-reader@example.com", "40.00");
+
+        assertBalance("40.00", walletService.getWalletByUserEmail("routing-reader@example.com").getBalance());
+    }
+
+    @Test
+    void readOnlyWithoutReplicaReadStaysOnPrimary() {
+        seed(primary, "routing-plain@example.com", "100.00");
+        seed(replica, "routing-plain@example.com", "40.00");
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertBalance("100.00", readOnly.execute(status -> primary.queryForObject(
+                "select w.balance from wallets w join users u on u.id = w.user_id where u.email = ?",
+                BigDecimal.class, "routing-plain@example.com")));
+    }
+
+    @Test
+    void userLookupsStayOnPrimary() {
+        seed(primary, "routing-auth@example.com", "0.00");
+        seed(replica, "routing-auth@example.com", "0.00");
+        // 🔒 La réplica aún no vio la desactivación de la cuenta
+        primary.update("update users set enabled = false where email = ?", "routing-auth@example.com");
+
+        assertEquals(false, userRepository.findCachedWithRolesByEmail("routing-auth@example.com")
+                .orElseThrow().isEnabled());
+        assertEquals(false, userRepository.findByEmail("routing-auth@example.com").orElseThrow().isEnabled());
+    }
+
+    @Test
+    void ownTransferPinsReadsToPrimary() {
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            seed(database, "routing-sender@example.com", "100.00");
+            seed(database, "routing-receiver@example.com", "0.00");
+        }
+
+        authenticate("routing-sender@example.com");
+        walletService.transfer("routing-sender@example.com", "routing-receiver@example.com", new BigDecimal("30.00"));
+
+        // 📌 El remitente ve su propia escritura: lee del primario
+        assertBalance("70.00", walletService.getWalletByUserEmail("routing-sender@example.com").getBalance());
+
+        // El destinatario no escribió nada: sigue leyendo de la réplica (aún sin la transferencia)
+        authenticate("routing-receiver@example.com");
+        assertBalance("0.00", walletService.getWalletByUserEmail("routing-receiver@example.com").getBalance());
+        assertBalance("30.00", primary.queryForObject(
+                "select w.balance from wallets w join users u on u.id = w.user_id where u.email = ?",
+                BigDecimal.class, "routing-receiver@example.com"));
+    }
+
+    private static void seed(JdbcTemplate database, String email, String balance) {
+        database.update("insert into users (full_name, email, password, created_at, enabled) values (?, ?, ?, ?, true)",
+                email, email, "{noop}unused", Timestamp.from(Instant.now()));
+        database.update("insert into wallets (user_id, balance) select id, ? from users where email = ?",
+                new BigDecimal(balance), email);
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static void assertBalance(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "balance " + actual);
+    }
+}
@@ -0,0 +1,174 @@
+package com.alejandro.microservices.api_wallet.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mantenimiento de particiones sobre un information_schema simulado: creación
+ * de los meses siguientes partiendo p_future y retención que solo elimina los
+ * meses cuyo límite superior no pasa del corte.
+ *
+ * Los meses se expresan respecto al mes actual (UTC), como hace el scheduler.
+ */
+class TransactionPartitionSchedulerTests {
+
+    private final YearMonth now = YearMonth.now(ZoneOffset.UTC);
+
+    @Test
+    void createsMissingMonthsAhead() {
+        FakeMySql jdbc = new FakeMySql(
+                partition("p_history", now.minusMonths(1)),
+                monthly(now.minusMonths(1)),
+                monthly(now),
+                future());
+
+        new TransactionPartitionScheduler(jdbc, 3, 0).maintainPartitions();
+
+        // ⏭️ Hasta now + 3 incluido, un REORGANIZE por mes y en orden
+        assertEquals(List.of(
+                reorganize(now.plusMonths(1)),
+                reorganize(now.plusMonths(2)),
+                reorganize(now.plusMonths(3))), jdbc.executed);
+    }
+
+    @Test
+    void upToDateScheduleChangesNothing() {
+        FakeMySql jdbc = new FakeMySql(
+                monthly(now),
+                monthly(now.plusMonths(1)),
+                monthly(now.plusMonths(2)),
+                monthly(now.plusMonths(3)),
+                future());
+
+        new TransactionPartitionScheduler(jdbc, 3, 0).maintainPartitions();
+
+        assertEquals(List.of(), jdbc.executed);
+    }
+
+    @Test
+    void retentionDropsOnlyPartitionsPastTheCutoff() {
+        // ✂️ retention-months=2: el corte es el día 1 de now - 2
+        FakeMySql jdbc = new FakeMySql(
+                partition("p_history", now.minusMonths(4)),
+                monthly(now.minusMonths(4)),
+                monthly(now.minusMonths(3)),
+                monthly(now.minusMonths(2)),
+                monthly(now.minusMonths(1)),
+                monthly(now),
+                monthly(now.plusMonths(1)),
+                future());
+
+        new TransactionPartitionScheduler(jdbc, 1, 2).maintainPartitions();
+
+        // now - 3 termina justo en el corte: se elimina; now - 2 aún tiene filas retenidas
+        assertEquals(List.of("ALTER TABLE transactions DROP PARTITION p_history, "
+                + name(now.minusMonths(4)) + ", " + name(now.minusMonths(3))), jdbc.executed);
+    }
+
+    @Test
+    void retentionDisabledKeepsEverything() {
+        FakeMySql jdbc = new FakeMySql(
+                partition("p_history", now.minusMonths(24)),
+                monthly(now),
+                monthly(now.plusMonths(1)),
+                future());
+
+        new TransactionPartitionScheduler(jdbc, 1, 0).maintainPartitions();
+
+        assertEquals(List.of(), jdbc.executed);
+    }
+
+    @Test
+    void otherDatabasesAreIgnored() {
+        FakeMySql jdbc = new FakeMySql(monthly(now), future());
+        jdbc.product = "H2";
+
+        new TransactionPartitionScheduler(jdbc, 3, 2).maintainPartitions();
+
+        assertTrue(jdbc.executed.isEmpty());
+    }
+
+    private static String name(YearMonth month) {
+        return TransactionPartitionScheduler.partitionName(month);
+    }
+
+    private static String reorganize(YearMonth month) {
+        return "ALTER TABLE transactions REORGANIZE PARTITION p_future INTO ("
+                + "PARTITION " + name(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), "
+                + "PARTITION p_future VALUES LESS THAN (MAXVALUE))";
+    }
+
+    // 📅 Partición mensual: límite superior el día 1 del mes siguiente
+    private static String[] monthly(YearMonth month) {
+        return partition(name(month), month.plusMonths(1));
+    }
+
+    private static String[] partition(String name, YearMonth upperBound) {
+        return new String[]{name, "'" + upperBound.atDay(1) + " 00:00:00'"};
+    }
+
+    private static String[] future() {
+        return new String[]{"p_future", "MAXVALUE"};
+    }
+
+    /**
+     * JdbcTemplate sin base de datos: responde a information_schema.partitions
+     * con las filas dadas y registra los ALTER TABLE ejecutados.
+     */
+    private static final class FakeMySql extends JdbcTemplate {
+        private final String[][] partitions;
+        private final List<String> executed = new ArrayList<>();
+        private String product = "MySQL";
+
+        FakeMySql(String[]... partitions) {
+            this.partitions = partitions;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(ConnectionCallback<T> action) {
+            return (T) product;
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            List<T> rows = new ArrayList<>();
+            try {
+                for (int i = 0; i < partitions.length; i++) {
+                    rows.add(rowMapper.mapRow(resultSet(partitions[i]), i));
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return rows;
+        }
+
+        @Override
+        public void execute(String sql) {
+            executed.add(sql);
+        }
+
+        private static ResultSet resultSet(String[] row) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, methodArgs) -> {
+                        if (method.getName().equals("getString") && methodArgs[0] instanceof Integer column) {
+                            return row[column - 1];
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
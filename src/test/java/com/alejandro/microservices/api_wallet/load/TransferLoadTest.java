@@ -0,0 +1,230 @@
+package com.alejandro.microservices.api_wallet.load;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga concurrente sobre POST /api/wallet/transfer con verificación de invariantes.
+ *
+ * Siembra miles de usuarios con wallet en H2, lanza transferencias concurrentes
+ * desde hilos virtuales y al
+ * final comprueba que la suma de balances no cambió, que ningún balance es
+ * negativo y que hay un movimiento en el libro por cada transferencia exitosa.
+ *
+ * Excluido del build normal (tag "load"). Ejecutar con:
+ * mvn test -Pload
+ * mvn test -Pload -Dload.skew=hot -Dload.transfers=50000 -Dload.concurrency=400
+ *
+ * Comparar el servidor con hilos de plataforma y con hilos virtuales:
+ * mvn test -Pload -Dload.concurrency=1000 -Dspring.threads.virtual.enabled=false
+ * mvn test -Pload -Dload.concurrency=1000 -Dspring.threads.virtual.enabled=true
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=2000",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.root=WARN"
+})
+@Import(NoOpMailConfig.class)
+class TransferLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 2000);
+    private static final int TRANSFERS = Integer.getInteger("load.transfers", 20000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+    private static final String SKEW = System.getProperty("load.skew", "uniform");
+    private static final int HOT_WALLETS = Integer.getInteger("load.hot-wallets", 10);
+    private static final double HOT_RATIO = Double.parseDouble(System.getProperty("load.hot-ratio", "0.9"));
+    private static final int MAX_RETRIES = Integer.getInteger("load.max-retries", 5);
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean serverVirtualThreads;
+
+    @Test
+    void concurrentTransfersPreserveBalances() throws Exception {
+        String[] emails = seedUsers();
+        String[] tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = jwtTokenProvider.generarAccessToken(emails[i], List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        }
+        BigDecimal totalBefore = totalBalance();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        URI uri = URI.create("http://localhost:" + port + "/api/wallet/transfer");
+
+        AtomicInteger remaining = new AtomicInteger(TRANSFERS);
+        AtomicInteger latencyIndex = new AtomicInteger();
+        long[] latencies = new long[TRANSFERS];
+        LongAdder succeeded = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder exhausted = new LongAdder();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < CONCURRENCY; w++) {
+                workers.add(executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        int[] pair = pickPair();
+                        int amount = ThreadLocalRandom.current().nextInt(1, 11);
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Authorization", "Bearer " + tokens[pair[0]])
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"toEmail\":\"" + emails[pair[1]] + "\",\"amount\":" + amount + "}"))
+                                .build();
+
+                        long begin = System.nanoTime();
+                        int status = 0;
+                        for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status != 409) {
+                                break;
+                            }
+                            conflicts.increment();
+                            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L << attempt));
+                        }
+                        latencies[latencyIndex.getAndIncrement()] = System.nanoTime() - begin;
+
+                        if (status == 200) {
+                            succeeded.increment();
+                        } else if (status == 409) {
+                            exhausted.increment();
+                        } else {
+                            rejected.increment(); // p. ej. fondos insuficientes
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = Arrays.copyOf(latencies, latencyIndex.get());
+        Arrays.sort(sorted);
+        System.out.printf("""
+                        === Transfer load (%s, %d usuarios, %d transferencias, concurrencia %d) ===
+                        servidor: %s, pico de hilos de plataforma en la JVM: %d
+                        throughput: %.1f transferencias/s (%.2f s)
+                        exitosas: %d, rechazadas: %d, conflictos (deadlock/lock timeout): %d, sin éxito tras reintentos: %d
+                        latencia p50: %.2f ms, p99: %.2f ms, p999: %.2f ms, max: %.2f ms
+                        """,
+                SKEW, USERS, TRANSFERS, CONCURRENCY,
+                serverVirtualThreads ? "hilos virtuales" : "hilos de plataforma", threads.getPeakThreadCount(),
+                succeeded.sum() / elapsedSeconds, elapsedSeconds,
+                succeeded.sum(), rejected.sum(), conflicts.sum(), exhausted.sum(),
+                percentileMs(sorted, 0.50), percentileMs(sorted, 0.99), percentileMs(sorted, 0.999),
+                percentileMs(sorted, 1.0));
+
+        // 🧮 Invariantes
+        assertEquals(0, totalBefore.compareTo(totalBalance()), "La suma de balances cambió");
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from wallets where balance < 0", Long.class),
+                "Hay balances negativos");
+        assertEquals(succeeded.sum(), jdbcTemplate.queryForObject(
+                "select count(*) from transactions where type = 'TRANSFER' and status = 'SUCCESS'", Long.class),
+                "El libro no tiene un movimiento por transferencia exitosa");
+        assertTrue(succeeded.sum() > 0, "Ninguna transferencia tuvo éxito");
+    }
+
+    private String[] seedUsers() {
+        String[] emails = new String[USERS];
+        List<Object[]> rows = new ArrayList<>(USERS);
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int i = 0; i < USERS; i++) {
+            emails[i] = "load" + i + "@example.com";
+            rows.add(new Object[]{"Load " + i, emails[i], "{noop}password", now, true});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into users (full_name, email, password, created_at, enabled) values (?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.update(
+                "insert into wallets (user_id, balance) select id, ? from users where email like 'load%@example.com'",
+                INITIAL_BALANCE);
+        return emails;
+    }
+
+    private BigDecimal totalBalance() {
+        return jdbcTemplate.queryForObject("select coalesce(sum(balance), 0) from wallets", BigDecimal.class);
+    }
+
+    /**
+     * uniform: origen y destino al azar; hot: cada extremo cae en las primeras
+     * HOT_WALLETS cuentas con probabilidad HOT_RATIO.
+     */
+    private static int[] pickPair() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = pickAccount(random);
+        int to = pickAccount(random);
+        while (to == from) {
+            to = random.nextInt(USERS);
+        }
+        return new int[]{from, to};
+    }
+
+    private static int pickAccount(ThreadLocalRandom random) {
+        if ("hot".equals(SKEW) && random.nextDouble() < HOT_RATIO) {
+            return random.nextInt(Math.min(HOT_WALLETS, USERS));
+        }
+        return random.nextInt(USERS);
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,208 @@
+package com.alejandro.microservices.api_wallet.nativeimage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Pruebas de caja negra contra el binario nativo (perfil Maven "native").
+ *
+ * Arranca el ejecutable con una base H2 en fichero (AUTO_SERVER para que el
+ * test pueda sembrar saldo por JDBC) y recorre los caminos que dependen de
+ * hints: login con BCrypt y jjwt, entidades JPA con asociaciones lazy, DTOs
+ * de Lombok en JSON, blacklist de tokens y la especificación de springdoc.
+ *
+ * La ruta del binario llega en la propiedad native.binary (la fija failsafe);
+ * sin ella, o sin el ejecutable, las pruebas se omiten.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeImageIT {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static Process app;
+    private static String baseUrl;
+    private static String jdbcUrl;
+    private static HttpClient http;
+
+    private static String adminToken;
+    private static String userToken;
+
+    @BeforeAll
+    static void startNativeBinary() throws Exception {
+        String binary = System.getProperty("native.binary");
+        assumeTrue(binary != null && Files.isExecutable(Path.of(binary)), "Binario nativo no disponible: " + binary);
+
+        Path workDir = Files.createTempDirectory("native-it");
+        jdbcUrl = "jdbc:h2:file:" + workDir.resolve("wallet").toAbsolutePath() + ";AUTO_SERVER=TRUE";
+        int port = freePort();
+        baseUrl = "http://localhost:" + port;
+        http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+        List<String> command = List.of(binary,
+                "--server.port=" + port,
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.mail.host=localhost",
+                "--spring.mail.port=2525");
+
+        long start = System.nanoTime();
+        app = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("app.log").toFile())
+                .start();
+        waitForHealth();
+        long startupMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        System.out.printf("Binario nativo listo en %d ms (log: %s)%n", startupMillis, workDir.resolve("app.log"));
+    }
+
+    @AfterAll
+    static void stopNativeBinary() throws InterruptedException {
+        if (app != null) {
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    @Test
+    @Order(1)
+    void loginIssuesJwtFromNativeImage() throws Exception {
+        adminToken = login("admin");
+        userToken = login("user");
+
+        // 🔑 Header.payload.firma: el serializador Jackson de jjwt funcionó
+        assertEquals(3, adminToken.split("\\.").length);
+    }
+
+    @Test
+    @Order(2)
+    void walletsCanBeCreatedAndRead() throws Exception {
+        assertEquals(200, send("POST", "/api/wallet/create", adminToken, null).statusCode());
+        assertEquals(200, send("POST", "/api/wallet/create", userToken, null).statusCode());
+
+        HttpResponse<String> balance = send("GET", "/api/wallet/balance", userToken, null);
+        assertEquals(200, balance.statusCode());
+        assertEquals(0, JSON.readTree(balance.body()).get("balance").decimalValue().compareTo(BigDecimal.ZERO));
+    }
+
+    @Test
+    @Order(3)
+    void transferAppearsInHistory() throws Exception {
+        seedBalance("admin", new BigDecimal("100.00"));
+
+        HttpResponse<String> transfer = send("POST", "/api/wallet/transfer", adminToken,
+                Map.of("toEmail", "user", "amount", new BigDecimal("25.50")));
+        assertEquals(200, transfer.statusCode(), transfer.body());
+
+        JsonNode balance = JSON.readTree(send("GET", "/api/wallet/balance", userToken, null).body());
+        assertEquals(0, balance.get("balance").decimalValue().compareTo(new BigDecimal("25.50")));
+
+        JsonNode history = JSON.readTree(send("GET", "/api/wallet/transactions", userToken, null).body());
+        assertEquals(1, history.size());
+        assertEquals("IN", history.get(0).get("direction").asText());
+    }
+
+    @Test
+    @Order(4)
+    void loggedOutTokenIsRejected() throws Exception {
+        String token = login("user");
+        assertEquals(200, send("POST", "/auth/logout", token, null).statusCode());
+
+        int status = send("GET", "/api/wallet/balance", token, null).statusCode();
+        assertTrue(status == 401 || status == 403, "Token revocado aceptado: " + status);
+    }
+
+    @Test
+    @Order(5)
+    void openApiSpecIsServed() throws Exception {
+        HttpResponse<String> spec = send("GET", "/v3/api-docs", null, null);
+        assertEquals(200, spec.statusCode());
+        assertTrue(spec.body().contains("/api/wallet/transfer"), "La especificación no incluye /api/wallet/transfer");
+    }
+
+    private static String login(String username) throws Exception {
+        HttpResponse<String> response = send("POST", "/auth/login", null,
+                Map.of("username", username, "password", "password"));
+        assertEquals(200, response.statusCode(), response.body());
+        return JSON.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private static HttpResponse<String> send(String method, String path, String token, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(10))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void seedBalance(String email, BigDecimal balance) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, "sa", "");
+             PreparedStatement update = connection.prepareStatement(
+                     "update wallets set balance = ? where user_id = (select id from users where email = ?)")) {
+            update.setBigDecimal(1, balance);
+            update.setString(2, email);
+            assertEquals(1, update.executeUpdate());
+        }
+    }
+
+    private static void waitForHealth() throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("El binario nativo terminó con código " + app.exitValue());
+            }
+            try {
+                if (send("GET", "/actuator/health", null, null).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // todavía arrancando
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("El binario nativo no respondió en " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import com.alejandro.microservices.api_wallet.wallet.repository.BlacklistedTokenRepository;
+import com.alejandro.microservices.api_wallet.wallet.repository.RevocationEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.alejandro.microservices.api_wallet.support.QueryCountAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Limpieza de la blacklist por lotes: cada lote es un SELECT de ids más un
+ * DELETE, un lote incompleto termina la pasada sin otra consulta, y las filas
+ * que expiran durante la pasada quedan para la siguiente.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:blacklist-cleanup;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false"
+})
+@Import(NoOpMailConfig.class)
+class BlacklistCleanupTests {
+
+    private static final int BATCH_SIZE = 10;
+
+    @Autowired
+    private BlacklistedTokenRepository blacklistedTokenRepository;
+
+    @Autowired
+    private RevocationEventRepository revocationEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearBlacklist() {
+        jdbcTemplate.update("delete from token_blacklist");
+    }
+
+    @Test
+    void partialChunkEndsTheRun() throws Exception {
+        TokenBlacklistService service = service(0);
+        insertTokens(25, Instant.now().minusSeconds(60));
+        insertTokens(5, Instant.now().plusSeconds(3600));
+
+        // 🧮 Lotes de 10, 10 y 5: tres SELECT + tres DELETE, sin un SELECT vacío al final
+        int[] removed = new int[1];
+        assertMaxStatements(6, () -> removed[0] = service.removeExpired());
+
+        assertEquals(25, removed[0]);
+        assertEquals(5, countTokens());
+    }
+
+    @Test
+    void fullLastChunkNeedsOneEmptyLookup() throws Exception {
+        TokenBlacklistService service = service(0);
+        insertTokens(20, Instant.now().minusSeconds(60));
+
+        int[] removed = new int[1];
+        assertMaxStatements(5, () -> removed[0] = service.removeExpired());
+
+        assertEquals(20, removed[0]);
+        assertEquals(0, countTokens());
+    }
+
+    @Test
+    void rowsExpiringDuringTheRunAreLeftForTheNextOne() throws Exception {
+        // ⏳ Tres lotes completos con pausas de 300 ms: la pasada dura más de 900 ms
+        TokenBlacklistService service = service(300);
+        insertTokens(30, Instant.now().minusSeconds(60));
+        Instant expiresDuringRun = Instant.now().plusMillis(300);
+        insertTokens(5, expiresDuringRun);
+
+        // ✅ El corte se fija al empezar: la pasada no persigue filas que caducan mientras corre
+        assertEquals(30, service.removeExpired());
+        assertEquals(5, countTokens());
+
+        Thread.sleep(Math.max(0, expiresDuringRun.toEpochMilli() - System.currentTimeMillis() + 10));
+        assertEquals(5, service.removeExpired());
+        assertEquals(0, countTokens());
+    }
+
+    private TokenBlacklistService service(long pauseMs) {
+        return new TokenBlacklistService(blacklistedTokenRepository, revocationEventRepository,
+                transactionTemplate, new RevocationCache(), BATCH_SIZE, pauseMs);
+    }
+
+    private void insertTokens(int count, Instant expiresAt) {
+        for (int i = 0; i < count; i++) {
+            byte[] tokenHash = new byte[32];
+            ThreadLocalRandom.current().nextBytes(tokenHash);
+            jdbcTemplate.update("insert into token_blacklist (token_hash, expires_at, created_at) values (?, ?, ?)",
+                    tokenHash, Timestamp.from(expiresAt), Timestamp.from(Instant.now()));
+        }
+    }
+
+    private int countTokens() {
+        return jdbcTemplate.queryForObject("select count(*) from token_blacklist", Integer.class);
+    }
+}
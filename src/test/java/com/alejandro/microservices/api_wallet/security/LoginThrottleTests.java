@@ -0,0 +1,158 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Anillo de buckets del throttle de login: umbral de bloqueo, expiración de
+ * la ventana, fallos concurrentes sobre la misma clave y reutilización de
+ * buckets y claves. El reloj es manual: cada bucket dura un segundo.
+ */
+class LoginThrottleTests {
+
+    private static final String IP = "10.0.0.1";
+
+    // ⏱️ Inicio alineado a un bucket para que los avances de reloj sean exactos
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void blocksAccountAtThreshold() {
+        LoginThrottle throttle = throttle(5, 100, 100);
+
+        for (int i = 0; i < 4; i++) {
+            throttle.recordFailure("Alice@Example.com ", IP);
+        }
+        assertFalse(throttle.isBlocked("alice@example.com", IP));
+
+        throttle.recordFailure("alice@example.com", IP);
+        assertTrue(throttle.isBlocked("ALICE@example.com", "10.0.0.2"), "El límite es por cuenta, no por IP");
+        assertFalse(throttle.isBlocked("bob@example.com", IP));
+
+        throttle.recordSuccess("alice@example.com");
+        assertFalse(throttle.isBlocked("alice@example.com", IP));
+    }
+
+    @Test
+    void blocksIpAcrossAccounts() {
+        LoginThrottle throttle = throttle(100, 3, 100);
+
+        throttle.recordFailure("a@example.com", IP);
+        throttle.recordFailure("b@example.com", IP);
+        assertFalse(throttle.isBlocked("c@example.com", IP));
+
+        throttle.recordFailure("c@example.com", IP);
+        assertTrue(throttle.isBlocked("d@example.com", IP));
+        assertFalse(throttle.isBlocked("d@example.com", "10.0.0.2"));
+
+        // ✅ Un login correcto limpia la cuenta, no la IP
+        throttle.recordSuccess("c@example.com");
+        assertTrue(throttle.isBlocked("c@example.com", IP));
+    }
+
+    @Test
+    void failuresExpireBucketByBucket() {
+        LoginThrottle throttle = throttle(3, 100, 100);
+
+        throttle.recordFailure("alice@example.com", IP);
+        advanceSeconds(2);
+        throttle.recordFailure("alice@example.com", IP);
+        throttle.recordFailure("alice@example.com", IP);
+        assertTrue(throttle.isBlocked("alice@example.com", IP));
+
+        // 🕐 El primer fallo sale de la ventana de 6 s; los otros dos siguen dentro
+        advanceSeconds(4);
+        assertFalse(throttle.isBlocked("alice@example.com", IP));
+        throttle.recordFailure("alice@example.com", IP);
+        assertTrue(throttle.isBlocked("alice@example.com", IP));
+
+        advanceSeconds(6);
+        assertFalse(throttle.isBlocked("alice@example.com", IP));
+    }
+
+    @Test
+    void concurrentFailuresOnSameKeyAreAllCounted() throws Exception {
+        int threads = 8;
+        int failuresPerThread = 500;
+        int total = threads * failuresPerThread;
+        LoginThrottle throttle = throttle(total, Integer.MAX_VALUE, 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int failures = t == 0 ? failuresPerThread - 1 : failuresPerThread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < failures; i++) {
+                        throttle.recordFailure("alice@example.com", IP);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 🔁 Un CAS perdido dejaría el contador por debajo de total - 1 y el último fallo no bloquearía
+        assertFalse(throttle.isBlocked("alice@example.com", IP));
+        throttle.recordFailure("alice@example.com", IP);
+        assertTrue(throttle.isBlocked("alice@example.com", IP));
+    }
+
+    @Test
+    void staleBucketIsResetWhenRingWrapsAround() {
+        LoginThrottle throttle = throttle(3, 100, 100);
+
+        throttle.recordFailure("alice@example.com", IP);
+        throttle.recordFailure("alice@example.com", IP);
+
+        // 🔄 Una vuelta completa del anillo: mismo bucket, época nueva
+        advanceSeconds(6);
+        throttle.recordFailure("alice@example.com", IP);
+        assertFalse(throttle.isBlocked("alice@example.com", IP), "El bucket reutilizado conservó fallos viejos");
+
+        throttle.recordFailure("alice@example.com", IP);
+        throttle.recordFailure("alice@example.com", IP);
+        assertTrue(throttle.isBlocked("alice@example.com", IP));
+    }
+
+    @Test
+    void trackedKeysAreCappedAndFreedByCleanup() {
+        LoginThrottle throttle = throttle(1, 100, 1);
+
+        throttle.recordFailure("alice@example.com", IP);
+        assertTrue(throttle.isBlocked("alice@example.com", IP));
+
+        // 🛑 Mapa lleno: la cuenta nueva no se rastrea
+        throttle.recordFailure("bob@example.com", IP);
+        assertFalse(throttle.isBlocked("bob@example.com", IP));
+
+        advanceSeconds(6);
+        throttle.removeExpired();
+        throttle.recordFailure("bob@example.com", IP);
+        assertTrue(throttle.isBlocked("bob@example.com", IP));
+    }
+
+    private LoginThrottle throttle(int maxFailuresPerUser, int maxFailuresPerIp, int maxTrackedKeys) {
+        return new LoginThrottle(6, 6, maxFailuresPerUser, maxFailuresPerIp, maxTrackedKeys, now::get);
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.addAndGet(seconds * 1000);
+    }
+}
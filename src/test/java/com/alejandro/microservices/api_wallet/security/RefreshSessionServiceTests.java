@@ -0,0 +1,115 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sesiones de refresh token: rotación, detección de reutilización (revoca la
+ * cadena del dispositivo y solo esa) y expiración, tanto la del token como la
+ * vida absoluta de la sesión.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-sessions;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false"
+})
+@Import(NoOpMailConfig.class)
+class RefreshSessionServiceTests {
+
+    private static final String USERNAME = "refresh-user@example.com";
+
+    @Autowired
+    private RefreshSessionService refreshSessionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${security.refresh.max-session-lifetime-ms:2592000000}")
+    private long maxSessionLifetimeMs;
+
+    @Test
+    void rotationIssuesNewTokenForSameSession() {
+        RefreshSessionService.IssuedSession issued = refreshSessionService.createSession(USERNAME);
+
+        RefreshSessionService.IssuedSession rotated = refreshSessionService.rotate(issued.refreshToken());
+        assertEquals(issued.sessionId(), rotated.sessionId());
+        assertEquals(USERNAME, rotated.username());
+        assertNotEquals(issued.refreshToken(), rotated.refreshToken());
+
+        RefreshSessionService.IssuedSession again = refreshSessionService.rotate(rotated.refreshToken());
+        assertEquals(issued.sessionId(), again.sessionId());
+        assertFalse(isRevoked(issued.sessionId()));
+    }
+
+    @Test
+    void reusingRotatedTokenRevokesDeviceChain() {
+        RefreshSessionService.IssuedSession device = refreshSessionService.createSession(USERNAME);
+        RefreshSessionService.IssuedSession otherDevice = refreshSessionService.createSession(USERNAME);
+        RefreshSessionService.IssuedSession rotated = refreshSessionService.rotate(device.refreshToken());
+
+        // 🚨 El token anterior reaparece: se revoca la sesión entera
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshSessionService.rotate(device.refreshToken()));
+        assertTrue(isRevoked(device.sessionId()));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshSessionService.rotate(rotated.refreshToken()));
+
+        // 📱 Las sesiones de otros dispositivos siguen vivas
+        assertFalse(isRevoked(otherDevice.sessionId()));
+        refreshSessionService.rotate(otherDevice.refreshToken());
+    }
+
+    @Test
+    void expiredSessionIsRejected() {
+        RefreshSessionService.IssuedSession issued = refreshSessionService.createSession(USERNAME);
+        jdbcTemplate.update("update refresh_sessions set expires_at = ? where id = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), issued.sessionId());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshSessionService.rotate(issued.refreshToken()));
+    }
+
+    @Test
+    void sessionPastAbsoluteLifetimeIsRejected() {
+        RefreshSessionService.IssuedSession issued = refreshSessionService.createSession(USERNAME);
+        RefreshSessionService.IssuedSession rotated = refreshSessionService.rotate(issued.refreshToken());
+
+        // ⏳ La expiración del token sigue en el futuro; la de la sesión no
+        jdbcTemplate.update("update refresh_sessions set created_at = ? where id = ?",
+                Timestamp.from(Instant.now().minusMillis(maxSessionLifetimeMs).minusSeconds(1)), issued.sessionId());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshSessionService.rotate(rotated.refreshToken()));
+    }
+
+    @Test
+    void rotationNeverExtendsPastAbsoluteLifetime() {
+        RefreshSessionService.IssuedSession issued = refreshSessionService.createSession(USERNAME);
+        Instant createdAt = Instant.now().minusMillis(maxSessionLifetimeMs).plus(Duration.ofHours(1));
+        jdbcTemplate.update("update refresh_sessions set created_at = ? where id = ?",
+                Timestamp.from(createdAt), issued.sessionId());
+
+        refreshSessionService.rotate(issued.refreshToken());
+
+        Instant expiresAt = jdbcTemplate.queryForObject(
+                "select expires_at from refresh_sessions where id = ?", Timestamp.class, issued.sessionId()).toInstant();
+        Instant deadline = createdAt.plusMillis(maxSessionLifetimeMs);
+        assertFalse(expiresAt.isAfter(deadline.plusMillis(1)), "La rotación extendió la sesión: " + expiresAt);
+    }
+
+    private boolean isRevoked(Long sessionId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select revoked from refresh_sessions where id = ?", Boolean.class, sessionId));
+    }
+}
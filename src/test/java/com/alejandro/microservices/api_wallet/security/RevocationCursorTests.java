@@ -0,0 +1,108 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cursor de revocation_log compartido por RevocationFeed y la pila reactiva:
+ * avance sobre ids contiguos, espera ante huecos y descarte del hueco tras
+ * gap-timeout-ms. Todos los eventos de la página se aplican siempre.
+ */
+class RevocationCursorTests {
+
+    private static final long GAP_TIMEOUT_MS = 1_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final RevocationCursor cursor = new RevocationCursor(GAP_TIMEOUT_MS, now::get);
+    private final List<Long> applied = new ArrayList<>();
+
+    @Test
+    void contiguousEventsMoveTheCursor() {
+        cursor.reset(10);
+
+        assertTrue(advance(11L, 12L, 13L));
+        assertEquals(13, cursor.position());
+        assertEquals(List.of(11L, 12L, 13L), applied);
+
+        assertFalse(advance(), "Una página vacía no avanza");
+        assertEquals(13, cursor.position());
+    }
+
+    @Test
+    void gapHoldsTheCursorButEventsAreApplied() {
+        cursor.reset(10);
+
+        // 🕳️ El 12 aún no ha confirmado: el 13 se aplica, el cursor se queda en 11
+        assertTrue(advance(11L, 13L));
+        assertEquals(11, cursor.position());
+        assertEquals(List.of(11L, 13L), applied);
+
+        // La siguiente página repite el 13 (aplicar es idempotente) y llega el 12
+        now.addAndGet(500);
+        assertTrue(advance(12L, 13L));
+        assertEquals(13, cursor.position());
+    }
+
+    @Test
+    void gapIsSkippedAfterTimeout() {
+        cursor.reset(10);
+
+        assertFalse(advance(12L));
+        now.addAndGet(GAP_TIMEOUT_MS - 1);
+        assertFalse(advance(12L));
+        assertEquals(10, cursor.position());
+
+        // ⏱️ Transacción revertida: el 11 no llegará nunca
+        now.addAndGet(1);
+        assertTrue(advance(12L, 13L));
+        assertEquals(13, cursor.position());
+    }
+
+    @Test
+    void newGapStartsItsOwnTimeout() {
+        cursor.reset(10);
+
+        advance(12L);
+        now.addAndGet(GAP_TIMEOUT_MS);
+        assertTrue(advance(12L));
+        assertEquals(12, cursor.position());
+
+        // 🕐 Un hueco posterior no hereda el tiempo del anterior
+        assertFalse(advance(14L));
+        now.addAndGet(GAP_TIMEOUT_MS - 1);
+        assertFalse(advance(14L));
+        assertEquals(12, cursor.position());
+    }
+
+    @Test
+    void gapFilledInTheSamePageDoesNotLendItsTimeToTheNextOne() {
+        cursor.reset(10);
+
+        assertFalse(advance(12L));
+        now.addAndGet(GAP_TIMEOUT_MS - 100);
+
+        // 🔁 Llega el 11 (hueco A rellenado) y en la misma página aparece el hueco B tras el 12
+        assertTrue(advance(11L, 12L, 14L));
+        assertEquals(12, cursor.position());
+
+        // B se espera el timeout completo desde que apareció
+        now.addAndGet(GAP_TIMEOUT_MS - 1);
+        assertFalse(advance(14L));
+        assertEquals(12, cursor.position());
+
+        now.addAndGet(1);
+        assertTrue(advance(14L));
+        assertEquals(14, cursor.position());
+    }
+
+    private boolean advance(Long... ids) {
+        return cursor.advance(List.of(ids), Long::longValue, applied::add);
+    }
+}
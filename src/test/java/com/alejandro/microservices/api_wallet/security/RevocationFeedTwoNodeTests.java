@@ -0,0 +1,96 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import com.alejandro.microservices.api_wallet.ApiWalletApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dos instancias de la aplicación sobre la misma base H2 en memoria: una
+ * revocación hecha en un nodo debe verse en el otro vía revocation_log.
+ */
+class RevocationFeedTwoNodeTests {
+
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(5);
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void tokenBlacklistedOnOneNodeIsRejectedOnTheOther() {
+        String token = nodeA.getBean(JwtTokenProvider.class).generarAccessToken("alice@example.com", List.of());
+        TokenBlacklistService blacklistB = nodeB.getBean(TokenBlacklistService.class);
+        assertFalse(blacklistB.isTokenBlacklisted(token));
+
+        nodeA.getBean(TokenBlacklistService.class).blacklistToken(token, Instant.now().plusSeconds(60));
+
+        assertTrue(nodeA.getBean(TokenBlacklistService.class).isTokenBlacklisted(token));
+        assertTrue(eventually(() -> blacklistB.isTokenBlacklisted(token)),
+                "El nodo B no vio el token revocado en el nodo A");
+    }
+
+    @Test
+    void userWatermarkOnOneNodeIsAppliedOnTheOther() {
+        Date issuedBefore = Date.from(Instant.now().minusSeconds(5));
+        TokenRevocationService revocationsB = nodeB.getBean(TokenRevocationService.class);
+        assertFalse(revocationsB.isRevoked("bob@example.com", issuedBefore));
+
+        nodeA.getBean(TokenRevocationService.class).revokeAllTokens("bob@example.com");
+
+        assertTrue(eventually(() -> revocationsB.isRevoked("bob@example.com", issuedBefore)),
+                "El nodo B no vio la revocación global hecha en el nodo A");
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(ApiWalletApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:revocation-feed;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "server.port=0",
+                        "security.revocation.feed.poll-interval-ms=100")
+                .run();
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + PROPAGATION_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,145 @@
+package com.alejandro.microservices.api_wallet.security;
+
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Marca de agua por usuario: los tokens emitidos antes de la revocación se
+ * rechazan y los emitidos después (a partir del segundo de la marca) no. El
+ * resto de usuarios no se ve afectado. Un token ya cerrado con logout no
+ * puede cerrar las demás sesiones del usuario.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:token-revocation;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(NoOpMailConfig.class)
+class TokenRevocationWatermarkTests {
+
+    private static final String REVOKED = "watermark-revoked@example.com";
+    private static final String BYSTANDER = "watermark-bystander@example.com";
+    private static final String LOGGED_OUT = "watermark-logged-out@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void seed() {
+        for (String email : List.of(REVOKED, BYSTANDER, LOGGED_OUT)) {
+            if (jdbcTemplate.queryForObject("select count(*) from users where email = ?", Integer.class, email) == 0) {
+                jdbcTemplate.update("insert into users (full_name, email, password, created_at, enabled) values (?, ?, ?, ?, true)",
+                        email, email, "{noop}unused", Timestamp.from(Instant.now()));
+                jdbcTemplate.update("insert into wallets (user_id, balance) select id, 100.00 from users where email = ?", email);
+            }
+        }
+    }
+
+    @Test
+    void tokensIssuedBeforeRevocationAreRejectedAndLaterOnesAccepted() throws Exception {
+        String issuedBefore = jwtTokenProvider.generarAccessToken(REVOKED, List.of());
+        String bystander = jwtTokenProvider.generarAccessToken(BYSTANDER, List.of());
+        balance(issuedBefore, status().isOk());
+
+        tokenRevocationService.revokeAllTokens(REVOKED);
+
+        balance(issuedBefore, status().isForbidden());
+        balance(bystander, status().isOk());
+
+        // ⏫ La marca se redondea al segundo siguiente: un token nuevo vale desde ese segundo
+        sleepUntilNextSecond();
+        String issuedAfter = jwtTokenProvider.generarAccessToken(REVOKED, List.of());
+        balance(issuedAfter, status().isOk());
+    }
+
+    @Test
+    void loggedOutTokenCannotLogOutAllDevices() throws Exception {
+        String loggedOut = jwtTokenProvider.generarAccessToken(LOGGED_OUT, List.of());
+        String otherDevice = jwtTokenProvider.generarAccessToken(LOGGED_OUT, List.of());
+        mockMvc.perform(post("/auth/logout").header("Authorization", "Bearer " + loggedOut))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/logout-all").header("Authorization", "Bearer " + loggedOut))
+                .andExpect(status().isBadRequest());
+
+        // 📱 Las demás sesiones del usuario siguen abiertas
+        balance(otherDevice, status().isOk());
+        assertFalse(tokenRevocationService.isRevoked(LOGGED_OUT, new Date()));
+    }
+
+    @Test
+    void watermarkComparesIssuedAtBySecond() {
+        String username = "watermark-seconds@example.com";
+        Instant watermark = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 1);
+        tokenRevocationService.apply(username, null, watermark);
+
+        assertTrue(tokenRevocationService.isRevoked(username, Date.from(watermark.minusMillis(1))));
+        assertFalse(tokenRevocationService.isRevoked(username, Date.from(watermark)));
+        assertFalse(tokenRevocationService.isRevoked(username, Date.from(watermark.plusMillis(999))));
+        // 🔒 Sin iat no se puede demostrar que el token es posterior
+        assertTrue(tokenRevocationService.isRevoked(username, null));
+        assertFalse(tokenRevocationService.isRevoked("watermark-unknown@example.com", null));
+    }
+
+    @Test
+    void watermarkNeverMovesBackwards() {
+        String username = "watermark-monotonic@example.com";
+        Instant later = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 10);
+
+        tokenRevocationService.apply(username, null, later);
+        // 📣 Un evento antiguo que llega tarde no reabre la ventana
+        tokenRevocationService.apply(username, null, later.minusSeconds(5));
+
+        assertTrue(tokenRevocationService.isRevoked(username, Date.from(later.minusSeconds(1))));
+    }
+
+    @Test
+    void expiredWatermarksAreForgotten() {
+        String username = "watermark-expired@example.com";
+        Instant old = Instant.now().minusMillis(jwtTokenProvider.getMaxTokenLifetimeMs()).minusSeconds(3600);
+        tokenRevocationService.apply(username, null, old);
+        assertTrue(tokenRevocationService.isRevoked(username, Date.from(old.minusSeconds(1))));
+
+        tokenRevocationService.removeExpired();
+
+        assertFalse(tokenRevocationService.isRevoked(username, Date.from(old.minusSeconds(1))));
+    }
+
+    private void balance(String token, ResultMatcher expected) throws Exception {
+        mockMvc.perform(get("/api/wallet/balance").header("Authorization", "Bearer " + token))
+                .andExpect(expected);
+    }
+
+    private static void sleepUntilNextSecond() throws InterruptedException {
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 10);
+    }
+}
@@ -0,0 +1,28 @@
+package com.alejandro.microservices.api_wallet.support;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * JavaMailSender que descarta los mensajes: los tests no dependen de un SMTP
+ * y un fallo de envío no debe revertir transferencias.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class NoOpMailConfig {
+
+    @Bean
+    JavaMailSender javaMailSender() {
+        return new JavaMailSenderImpl() {
+            @Override
+            public void send(MimeMessage mimeMessage) {
+            }
+
+            @Override
+            public void send(MimeMessage... mimeMessages) {
+            }
+        };
+    }
+}
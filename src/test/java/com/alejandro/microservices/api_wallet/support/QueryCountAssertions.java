@@ -0,0 +1,35 @@
+package com.alejandro.microservices.api_wallet.support;
+
+import com.alejandro.microservices.api_wallet.timing.RequestQueryCounter;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aserciones sobre el número de sentencias SQL que Hibernate prepara en el
+ * hilo actual (ver RequestQueryCounter). Con MockMvc el request completo corre
+ * en el hilo del test, así que se cuentan filtros, controlador y servicio.
+ */
+public final class QueryCountAssertions {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * Ejecuta la acción y falla si preparó más de max sentencias.
+     *
+     * @return Sentencias contadas, para aserciones adicionales
+     */
+    public static long assertMaxStatements(long max, Action action) throws Exception {
+        long mark = RequestQueryCounter.begin();
+        action.run();
+        long statements = RequestQueryCounter.end(mark);
+        assertTrue(statements <= max,
+                "Se esperaban como máximo " + max + " sentencias SQL y se ejecutaron " + statements);
+        return statements;
+    }
+}
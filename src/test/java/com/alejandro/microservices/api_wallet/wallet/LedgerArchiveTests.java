@@ -0,0 +1,172 @@
+package com.alejandro.microservices.api_wallet.wallet;
+
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import com.alejandro.microservices.api_wallet.wallet.archive.LedgerArchive;
+import com.alejandro.microservices.api_wallet.wallet.archive.LedgerArchiveJob;
+import com.alejandro.microservices.api_wallet.wallet.dto.TransactionResponse;
+import com.alejandro.microservices.api_wallet.wallet.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Archivo frío del ledger: los meses vencidos salen de la tabla transactions
+ * y el historial los sigue devolviendo desde los segmentos, en orden y
+ * paginados igual que antes de archivar. Las filas no se borran hasta que
+ * todos los nodos vivos han confirmado el segmento.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger-archive;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false",
+        "ledger.archive.retention-months=1"
+})
+@Import(NoOpMailConfig.class)
+class LedgerArchiveTests {
+
+    private static final String OWNER = "archive-owner@example.com";
+    private static final String OTHER = "archive-other@example.com";
+    private static final String OTHER_NODE = "archive-test-other-node";
+    private static final String DEAD_NODE = "archive-test-dead-node";
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("ledger.archive.directory", () -> archiveDirectory.toString());
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerArchiveJob ledgerArchiveJob;
+
+    @Autowired
+    private LedgerArchive ledgerArchive;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Test
+    void archivedMonthsLeaveHotTableAndStayInHistory() throws Exception {
+        long owner = createWallet(OWNER);
+        long other = createWallet(OTHER);
+
+        YearMonth oldMonth = YearMonth.now(ZoneOffset.UTC).minusMonths(14);
+        Instant old = oldMonth.atDay(10).atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant recent = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // 🧊 Cuatro movimientos antiguos (uno entrante y uno sin descripción) y dos recientes
+        insert(owner, other, "1.00", old, "old-1");
+        insert(other, owner, "2.00", old.plusSeconds(60), "old-2");
+        insert(owner, other, "3.00", old.plusSeconds(120), null);
+        insert(owner, other, "4.00", old.plusSeconds(180).plusNanos(250_000), "old-4 ñ");
+        insert(owner, other, "5.00", recent.minusSeconds(60), "new-5");
+        insert(other, owner, "6.00", recent, "new-6");
+
+        assertEquals(1, ledgerArchiveJob.archiveExpired());
+
+        // La tabla caliente solo conserva los meses dentro de la retención
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from transactions", Integer.class));
+        assertTrue(Files.exists(ledgerArchive.pathFor(oldMonth)));
+        assertEquals(4, ledgerArchive.countFor(owner));
+
+        // Página 0: dos calientes y dos del archivo, más reciente primero
+        List<TransactionResponse> first = walletService.getTransactionHistory(OWNER, 0, 4);
+        assertEquals(List.of("6.00", "5.00", "4.00", "3.00"), amounts(first));
+        assertEquals(List.of("IN", "OUT", "OUT", "OUT"), first.stream().map(TransactionResponse::getDirection).toList());
+        assertEquals("old-4 ñ", first.get(2).getDescription());
+        assertEquals(old.plusSeconds(180).plusNanos(250_000), first.get(2).getCreatedAt());
+        assertNull(first.get(3).getDescription());
+
+        // Página 1: el offset se traslada al archivo descontando los calientes
+        List<TransactionResponse> second = walletService.getTransactionHistory(OWNER, 1, 4);
+        assertEquals(List.of("2.00", "1.00"), amounts(second));
+        assertEquals("IN", second.get(0).getDirection());
+
+        // Una segunda pasada no reescribe ni purga nada
+        assertEquals(0, ledgerArchiveJob.archiveExpired());
+    }
+
+    @Test
+    void purgeWaitsUntilEveryLiveNodeConfirmsTheSegment() throws Exception {
+        long payer = createWallet("archive-nodes-payer@example.com");
+        long payee = createWallet("archive-nodes-payee@example.com");
+
+        YearMonth month = YearMonth.now(ZoneOffset.UTC).minusMonths(15);
+        Instant start = month.atDay(2).atStartOfDay().toInstant(ZoneOffset.UTC);
+        insert(payer, payee, "7.00", start, "first");
+        insert(payee, payer, "8.00", start.plusSeconds(3600), "second");
+
+        // 🖥️ Otro nodo vivo que aún no ha releído el directorio y uno caído hace una hora
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update("insert into ledger_archive_nodes (node_id, last_seen_millis) values (?, ?)", OTHER_NODE, now);
+        jdbcTemplate.update("insert into ledger_archive_nodes (node_id, last_seen_millis) values (?, ?)",
+                DEAD_NODE, now - 3_600_000);
+        try {
+            // ✍️ El segmento se escribe y este nodo lo confirma, pero las filas siguen en la tabla
+            assertEquals(0, ledgerArchiveJob.archiveExpired());
+            assertNotNull(ledgerArchive.segment(month));
+            assertEquals(2, countHot(month));
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "select count(*) from ledger_archive_nodes where node_id = ?", Integer.class, DEAD_NODE));
+
+            jdbcTemplate.update("insert into ledger_segment_confirmations (segment_month, node_id, confirmed_millis) "
+                    + "values (?, ?, ?)", month.toString(), OTHER_NODE, System.currentTimeMillis());
+
+            assertEquals(1, ledgerArchiveJob.archiveExpired());
+            assertEquals(0, countHot(month));
+            assertEquals(2, ledgerArchive.countFor(payer));
+        } finally {
+            jdbcTemplate.update("delete from ledger_segment_confirmations where node_id = ?", OTHER_NODE);
+            jdbcTemplate.update("delete from ledger_archive_nodes where node_id = ?", OTHER_NODE);
+        }
+    }
+
+    private long countHot(YearMonth month) {
+        return jdbcTemplate.queryForObject("select count(*) from transactions where created_at >= ? and created_at < ?",
+                Long.class,
+                Timestamp.from(month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC)),
+                Timestamp.from(month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC)));
+    }
+
+    private long createWallet(String email) {
+        jdbcTemplate.update("insert into users (full_name, email, password, created_at, enabled) values (?, ?, ?, ?, true)",
+                email, email, "{noop}unused", Timestamp.from(Instant.now()));
+        jdbcTemplate.update("insert into wallets (user_id, balance) select id, 0 from users where email = ?", email);
+        return jdbcTemplate.queryForObject(
+                "select w.id from wallets w join users u on u.id = w.user_id where u.email = ?", Long.class, email);
+    }
+
+    private void insert(long from, long to, String amount, Instant createdAt, String description) {
+        jdbcTemplate.update("insert into transactions (wallet_from, wallet_to, amount, type, status, created_at, description) "
+                        + "values (?, ?, ?, 'TRANSFER', 'SUCCESS', ?, ?)",
+                from, to, new BigDecimal(amount), Timestamp.from(createdAt), description);
+    }
+
+    private static List<String> amounts(List<TransactionResponse> history) {
+        return history.stream().map(t -> t.getAmount().setScale(2).toPlainString()).toList();
+    }
+}
@@ -0,0 +1,158 @@
+package com.alejandro.microservices.api_wallet.wallet;
+
+import com.alejandro.microservices.api_wallet.wallet.archive.ArchivedTransaction;
+import com.alejandro.microservices.api_wallet.wallet.archive.LedgerSegment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Formato de los segmentos del archivo: mes vacío, filas en los bordes del
+ * mes y de la tabla de índice, y ficheros truncados o corruptos, que deben
+ * fallar con un error claro en lugar de devolver movimientos inventados.
+ */
+class LedgerSegmentTests {
+
+    private static final YearMonth MONTH = YearMonth.of(2023, 2);
+    private static final Instant FIRST_MICRO = MONTH.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    private static final Instant LAST_MICRO = MONTH.plusMonths(1).atDay(1).atStartOfDay()
+            .toInstant(ZoneOffset.UTC).minusNanos(1_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void emptyMonthHasNoRowsAndNoWallets() throws Exception {
+        Path file = directory.resolve("empty.seg");
+        LedgerSegment.write(file, MONTH, List.of());
+
+        LedgerSegment segment = LedgerSegment.open(file);
+        assertEquals(MONTH, segment.month());
+        assertEquals(0, segment.rowCount());
+        assertEquals(0, segment.countFor(1L));
+        assertTrue(segment.read(1L, 0, 10).isEmpty());
+    }
+
+    @Test
+    void rowsOnTheMonthBoundariesRoundTripExactly() throws Exception {
+        ArchivedTransaction first = row(1, 10L, 20L, "0.01", FIRST_MICRO, null);
+        ArchivedTransaction last = row(2, 20L, 10L, "92233720368547758.07", LAST_MICRO, "último ñ");
+        ArchivedTransaction deposit = row(3, null, 10L, "5.00", FIRST_MICRO.plusSeconds(1), "depósito");
+        Path file = directory.resolve("boundaries.seg");
+        LedgerSegment.write(file, MONTH, List.of(first, last, deposit));
+
+        LedgerSegment segment = LedgerSegment.open(file);
+        assertEquals(3, segment.rowCount());
+        assertEquals(List.of(last, deposit, first), segment.read(10L, 0, 10));
+        assertEquals(List.of(last, first), segment.read(20L, 0, 10));
+        assertEquals(List.of(deposit), segment.read(10L, 1, 1));
+    }
+
+    @Test
+    void firstAndLastWalletsOfTheIndexAreFound() throws Exception {
+        Path file = directory.resolve("index.seg");
+        LedgerSegment.write(file, MONTH, List.of(
+                row(1, 1L, 500L, "1.00", FIRST_MICRO, "a"),
+                row(2, 250L, Long.MAX_VALUE, "2.00", LAST_MICRO, "b")));
+
+        LedgerSegment segment = LedgerSegment.open(file);
+        assertEquals(1, segment.countFor(1L));
+        assertEquals(1, segment.countFor(Long.MAX_VALUE));
+        assertEquals(0, segment.countFor(0L));
+        assertEquals(0, segment.countFor(251L));
+        assertEquals(2L, segment.read(Long.MAX_VALUE, 0, 1).get(0).id());
+    }
+
+    @Test
+    void truncatedFileIsRejectedOnOpen() throws Exception {
+        Path file = writeSample("truncated.seg");
+        long size = Files.size(file);
+
+        // ✂️ Copia interrumpida: falta el final del último bloque
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+        assertThrows(IllegalStateException.class, () -> LedgerSegment.open(file));
+
+        // Solo la cabecera a medias
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(12);
+        }
+        assertThrows(IllegalStateException.class, () -> LedgerSegment.open(file));
+    }
+
+    @Test
+    void corruptHeaderIsRejectedOnOpen() throws Exception {
+        Path file = writeSample("magic.seg");
+        overwrite(file, 0, new byte[]{'X'});
+        assertThrows(IllegalStateException.class, () -> LedgerSegment.open(file));
+
+        Path offsets = writeSample("offsets.seg");
+        overwrite(offsets, 20, ByteBuffer.allocate(4).putInt(1_000).array()); // número de wallets
+        assertThrows(IllegalStateException.class, () -> LedgerSegment.open(offsets));
+    }
+
+    @Test
+    void corruptBlockFailsTheReadNotTheWholeSegment() throws Exception {
+        Path file = writeSample("block.seg");
+
+        // 💥 Cabecera Deflate rota en el bloque de la wallet 20 (segunda entrada del índice)
+        long indexOffset = readInt(file, 28);
+        long block = readLong(file, indexOffset + 28 + 8);
+        overwrite(file, block, new byte[]{0x00, 0x00});
+
+        LedgerSegment segment = LedgerSegment.open(file);
+        assertEquals(2, segment.countFor(10L));
+        assertThrows(IllegalStateException.class, () -> segment.read(20L, 0, 10));
+    }
+
+    private Path writeSample(String name) throws Exception {
+        Path file = directory.resolve(name);
+        LedgerSegment.write(file, MONTH, List.of(
+                row(1, 10L, 20L, "1.00", FIRST_MICRO, "uno"),
+                row(2, 20L, 10L, "2.00", LAST_MICRO, "dos")));
+        return file;
+    }
+
+    private static int readInt(Path file, long position) throws Exception {
+        return read(file, position, Integer.BYTES).getInt();
+    }
+
+    private static long readLong(Path file, long position) throws Exception {
+        return read(file, position, Long.BYTES).getLong();
+    }
+
+    private static ByteBuffer read(Path file, long position, int length) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.read(buffer, position);
+        }
+        return buffer.flip();
+    }
+
+    private static void overwrite(Path file, long position, byte[] bytes) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+
+    private static ArchivedTransaction row(long id, Long from, Long to, String amount, Instant createdAt,
+                                           String description) {
+        return new ArchivedTransaction(id, from, to, new BigDecimal(amount), "TRANSFER", "SUCCESS", createdAt,
+                description);
+    }
+}
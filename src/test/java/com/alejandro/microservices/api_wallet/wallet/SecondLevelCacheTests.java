@@ -0,0 +1,105 @@
+package com.alejandro.microservices.api_wallet.wallet;
+
+import com.alejandro.microservices.api_wallet.security.TokenRevocationService;
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import com.alejandro.microservices.api_wallet.wallet.entity.Role;
+import com.alejandro.microservices.api_wallet.wallet.entity.User;
+import com.alejandro.microservices.api_wallet.wallet.repository.UserRepository;
+import com.alejandro.microservices.api_wallet.user.service.UserAccountService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.alejandro.microservices.api_wallet.support.QueryCountAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Caché de segundo nivel: un usuario ya cargado (con sus roles) se resuelve
+ * por email sin SQL, y los cambios hechos por JPA se ven en la siguiente carga.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false"
+})
+@Import(NoOpMailConfig.class)
+class SecondLevelCacheTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cachedUserAndRolesLoadWithoutStatements() throws Exception {
+        // DataLoader crea "admin" con ROLE_ADMIN y ROLE_USER; la primera carga llena las regiones
+        userRepository.findCachedWithRolesByEmail("admin").orElseThrow();
+
+        assertMaxStatements(0, () -> {
+            User admin = userRepository.findCachedWithRolesByEmail("admin").orElseThrow();
+            Set<Role.RoleName> roles = admin.getRoles().stream().map(Role::getName).collect(Collectors.toSet());
+            assertEquals(Set.of(Role.RoleName.ROLE_ADMIN, Role.RoleName.ROLE_USER), roles);
+        });
+
+        assertTrue(region("users").getHitCount() > 0, "Sin aciertos en la región users");
+        assertTrue(region("users-by-email").getHitCount() > 0, "Sin aciertos en la región users-by-email");
+        assertTrue(region("roles").getHitCount() > 0, "Sin aciertos en la región roles");
+    }
+
+    @Test
+    void changesThroughJpaReplaceCachedState() {
+        userRepository.findCachedWithRolesByEmail("user").orElseThrow();
+
+        userAccountService.changePassword("user", "password", "n3w-Passw0rd!");
+
+        User reloaded = userRepository.findCachedWithRolesByEmail("user").orElseThrow();
+        assertTrue(passwordEncoder.matches("n3w-Passw0rd!", reloaded.getPassword()));
+
+        userAccountService.changePassword("user", "n3w-Passw0rd!", "password");
+    }
+
+    @Test
+    void revocationEvictsOnlyTheRevokedUser() throws Exception {
+        User admin = userRepository.findCachedWithRolesByEmail("admin").orElseThrow();
+        User user = userRepository.findCachedWithRolesByEmail("user").orElseThrow();
+        Cache cache = entityManagerFactory.getCache();
+        assertTrue(cache.contains(User.class, user.getId()));
+
+        // 📣 Mismo camino que un evento USER llegado de otro nodo
+        tokenRevocationService.apply("user", user.getId(), Instant.now());
+
+        assertFalse(cache.contains(User.class, user.getId()), "La entidad revocada sigue en caché");
+        assertTrue(cache.contains(User.class, admin.getId()), "Se invalidó un usuario no revocado");
+        assertMaxStatements(0, () -> userRepository.findCachedWithRolesByEmail("admin").orElseThrow());
+
+        long naturalIdMisses = region("users-by-email").getMissCount();
+        userRepository.findCachedWithRolesByEmail("user").orElseThrow();
+        assertTrue(region("users-by-email").getMissCount() > naturalIdMisses, "El natural id revocado sigue en caché");
+    }
+
+    private CacheRegionStatistics region(String name) {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getDomainDataRegionStatistics(name);
+    }
+}
@@ -0,0 +1,114 @@
+package com.alejandro.microservices.api_wallet.wallet;
+
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import com.alejandro.microservices.api_wallet.wallet.service.WalletService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Idempotencia de transferencias por clientTransferId: un reintento (también
+ * simultáneo) no mueve dinero dos veces, y el mismo id con otros datos se rechaza.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transfer-idempotency;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false"
+})
+@Import(NoOpMailConfig.class)
+class TransferIdempotencyTests {
+
+    private static final String FROM = "idem-from@example.com";
+    private static final String TO = "idem-to@example.com";
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        for (String email : List.of(FROM, TO)) {
+            if (jdbcTemplate.queryForObject("select count(*) from users where email = ?", Integer.class, email) == 0) {
+                jdbcTemplate.update("insert into users (full_name, email, password, created_at, enabled) values (?, ?, ?, ?, true)",
+                        email, email, "{noop}unused", Timestamp.from(Instant.now()));
+                jdbcTemplate.update("insert into wallets (user_id, balance) select id, 0 from users where email = ?", email);
+            }
+            jdbcTemplate.update("update wallets set balance = 100.00 where user_id = (select id from users where email = ?)", email);
+        }
+    }
+
+    @Test
+    void retryWithSameIdDoesNotMoveMoneyTwice() {
+        assertTrue(walletService.transfer(FROM, TO, new BigDecimal("30.00"), "retry-1"));
+        assertFalse(walletService.transfer(FROM, TO, new BigDecimal("30.00"), "retry-1"));
+
+        assertBalance(FROM, "70.00");
+        assertBalance(TO, "130.00");
+        assertEquals(1, movements("retry-1"));
+    }
+
+    @Test
+    void sameIdWithOtherAmountIsRejected() {
+        walletService.transfer(FROM, TO, new BigDecimal("10.00"), "mismatch-1");
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> walletService.transfer(FROM, TO, new BigDecimal("20.00"), "mismatch-1"));
+        assertEquals("clientTransferId ya usado en otra transferencia", error.getMessage());
+        assertBalance(FROM, "90.00");
+    }
+
+    @Test
+    void concurrentRetriesExecuteOnce() throws Exception {
+        // 🏁 Dos reintentos a la vez: el lock de la wallet de origen los serializa
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Boolean> retry = () -> {
+            start.await();
+            return walletService.transfer(FROM, TO, new BigDecimal("25.00"), "concurrent-1");
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(retry);
+            Future<Boolean> second = executor.submit(retry);
+            start.countDown();
+            assertNotEquals(first.get(), second.get(), "Exactamente un reintento debe ejecutarse");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertBalance(FROM, "75.00");
+        assertEquals(1, movements("concurrent-1"));
+    }
+
+    private void assertBalance(String email, String expected) {
+        BigDecimal balance = jdbcTemplate.queryForObject(
+                "select w.balance from wallets w join users u on u.id = w.user_id where u.email = ?",
+                BigDecimal.class, email);
+        assertEquals(0, new BigDecimal(expected).compareTo(balance), email + ": " + balance);
+    }
+
+    private int movements(String clientTransferId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from transactions where client_transfer_id = ?", Integer.class, clientTransferId);
+    }
+}
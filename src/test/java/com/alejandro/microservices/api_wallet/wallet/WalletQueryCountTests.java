@@ -0,0 +1,109 @@
+package com.alejandro.microservices.api_wallet.wallet;
+
+import com.alejandro.microservices.api_wallet.security.JwtTokenProvider;
+import com.alejandro.microservices.api_wallet.support.NoOpMailConfig;
+import com.alejandro.microservices.api_wallet.timing.QueryStatsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static com.alejandro.microservices.api_wallet.support.QueryCountAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guardia de regresión de N+1: número máximo de sentencias SQL por endpoint.
+ *
+ * Si un cambio (una relación EAGER, un lazy load en el controlador) añade
+ * consultas a estos caminos, el test falla con el número contado.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-count;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "audit.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(NoOpMailConfig.class)
+class WalletQueryCountTests {
+
+    // wallet join users por email
+    private static final int MAX_BALANCE_STATEMENTS = 1;
+    // 2 lookups de id + 1 SELECT FOR UPDATE + 2 UPDATE + 1 INSERT en transactions
+    // (+ 1 next value de transactions_seq cuando se agota el bloque de 50 ids)
+    private static final int MAX_TRANSFER_STATEMENTS = 7;
+
+    private static final String FROM = "query-from@example.com";
+    private static final String TO = "query-to@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private QueryStatsRegistry queryStatsRegistry;
+
+    private String bearer;
+
+    @BeforeEach
+    void seed() throws Exception {
+        for (String email : List.of(FROM, TO)) {
+            if (jdbcTemplate.queryForObject("select count(*) from users where email = ?", Integer.class, email) == 0) {
+                jdbcTemplate.update("insert into users (full_name, email, password, created_at, enabled) values (?, ?, ?, ?, true)",
+                        email, email, "{noop}unused", Timestamp.from(Instant.now()));
+                jdbcTemplate.update("insert into wallets (user_id, balance) select id, 1000.00 from users where email = ?", email);
+            }
+        }
+        bearer = "Bearer " + jwtTokenProvider.generarAccessToken(FROM, List.of());
+
+        // 🔥 Calentar la caché de UserDetails: se mide el camino estable, no el primer request
+        mockMvc.perform(get("/api/wallet/balance").header("Authorization", bearer))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void balanceStaysWithinStatementBudget() throws Exception {
+        assertMaxStatements(MAX_BALANCE_STATEMENTS, () ->
+                mockMvc.perform(get("/api/wallet/balance").header("Authorization", bearer))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void transferStaysWithinStatementBudget() throws Exception {
+        assertMaxStatements(MAX_TRANSFER_STATEMENTS, () ->
+                mockMvc.perform(post("/api/wallet/transfer")
+                                .header("Authorization", bearer)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"toEmail\":\"" + TO + "\",\"amount\":1.00}"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void statementsAreAggregatedPerRequestType() throws Exception {
+        queryStatsRegistry.clear();
+        mockMvc.perform(get("/api/wallet/balance").header("Authorization", bearer))
+                .andExpect(status().isOk());
+
+        QueryStatsRegistry.Snapshot balance = queryStatsRegistry.snapshot().get("GET /api/wallet/balance");
+        assertNotNull(balance);
+        assertEquals(1, balance.requests());
+        assertEquals(MAX_BALANCE_STATEMENTS, balance.maxStatements());
+    }
+}